@@ -0,0 +1,169 @@
+package wilds.voxeleditor.benchmarks;
+
+import wilds.voxeleditor.core.models.storage.ChunkedMapStorage;
+import wilds.voxeleditor.core.models.storage.HeapChunkDataAllocator;
+import wilds.voxeleditor.core.models.storage.MapChunk;
+import wilds.voxeleditor.core.models.storage.TileLayout;
+
+import org.joml.Vector3i;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Runs face culling and a flood fill on the same map stored in each TileLayout.
+ * <p>
+ * cullFaces walks the solid tiles of every chunk and looks up their six neighbours, the way the renderer used to
+ * decide the visible sides of a tile. placeTiles rewrites a block of tiles, every write updates the exposed sides
+ * of the tile and its neighbours. floodFill fills the empty space from the top corner of the map through all six
+ * neighbours, like the bucket tool does within one plane.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LayoutBenchmark {
+
+    private static final int MAP_SIZE = 128;
+    private static final int MAP_DEPTH = 32;
+    private static final int BLOCK_SIZE = 32;
+
+    // tile y runs along the world z axis, so these are the x, y, z steps of the six sides in tile coordinates
+    private static final int[] NEIGHBOURS = {-1, 0, 0, 1, 0, 0, 0, -1, 0, 0, 1, 0, 0, 0, -1, 0, 0, 1};
+
+    @Param({"RowMajor", "Morton"})
+    public TileLayout layout;
+
+    private ChunkedMapStorage storage;
+    private long[] visited;
+    private int[] stack;
+    private int round;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        storage = new ChunkedMapStorage(MAP_SIZE, MAP_SIZE, MAP_DEPTH, layout, new HeapChunkDataAllocator());
+        Random random = new Random(1);
+
+        // rolling terrain with caves, half of the tiles below the surface are solid
+        for (int y = 0; y < MAP_SIZE; y++) {
+            for (int x = 0; x < MAP_SIZE; x++) {
+                int surface = MAP_DEPTH / 2 + (int) (6 * Math.sin(x * 0.1) * Math.cos(y * 0.07));
+
+                for (int z = 0; z < surface; z++) {
+                    if (random.nextInt(2) == 0) {
+                        storage.fillTile(storage.tileToIndex(x, y, z), null, (short) 1);
+                    }
+                }
+            }
+        }
+
+        visited = new long[(storage.getCapacity() >>> 6) + 1];
+        stack = new int[MAP_SIZE * MAP_SIZE * MAP_DEPTH];
+    }
+
+    @Benchmark
+    public int cullFaces() {
+        int exposed = 0;
+
+        for (MapChunk chunk : storage.getChunks()) {
+            int originX = chunk.getChunkX() << MapChunk.SIZE_BITS;
+            int originY = chunk.getChunkY() << MapChunk.SIZE_BITS;
+            int originZ = chunk.getChunkZ() << MapChunk.SIZE_BITS;
+
+            for (int localIndex = chunk.nextSolid(0); localIndex >= 0; localIndex = chunk.nextSolid(localIndex + 1)) {
+                int x = layout.getLocalX(localIndex);
+                int y = layout.getLocalY(localIndex);
+                int z = layout.getLocalZ(localIndex);
+
+                for (int side = 0; side < NEIGHBOURS.length; side += 3) {
+                    int neighbourX = x + NEIGHBOURS[side];
+                    int neighbourY = y + NEIGHBOURS[side + 1];
+                    int neighbourZ = z + NEIGHBOURS[side + 2];
+                    boolean solid;
+
+                    if (((neighbourX | neighbourY | neighbourZ) & ~MapChunk.SIZE_MASK) == 0) {
+                        solid = chunk.isSolid(layout.toLocalIndex(neighbourX, neighbourY, neighbourZ));
+                    } else {
+                        solid = storage.isSolid(originX + neighbourX, originY + neighbourY, originZ + neighbourZ);
+                    }
+
+                    if (!solid) {
+                        exposed++;
+                    }
+                }
+            }
+        }
+
+        return exposed;
+    }
+
+    @Benchmark
+    public ChunkedMapStorage placeTiles() {
+        round++;
+
+        for (int z = 0; z < BLOCK_SIZE; z++) {
+            for (int y = 0; y < BLOCK_SIZE; y++) {
+                for (int x = 0; x < BLOCK_SIZE; x++) {
+                    int index = storage.tileToIndex(x, y, z);
+
+                    // every round flips the tiles of a checkerboard so all writes change the exposed sides
+                    if (((x + y + z + round) & 1) == 0) {
+                        storage.fillTile(index, null, (short) 2);
+                    } else {
+                        storage.clear(index);
+                    }
+                }
+            }
+        }
+
+        return storage;
+    }
+
+    @Benchmark
+    public int floodFill() {
+        Arrays.fill(visited, 0);
+        Vector3i coordinates = new Vector3i();
+        int filled = 0;
+        int stackPointer = 0;
+
+        int start = storage.tileToIndex(0, 0, MAP_DEPTH - 1);
+        visited[start >>> 6] |= 1L << start;
+        stack[stackPointer++] = start;
+
+        while (stackPointer > 0) {
+            int index = stack[--stackPointer];
+            storage.indexToTile(index, coordinates);
+            filled++;
+
+            for (int side = 0; side < NEIGHBOURS.length; side += 3) {
+                int neighbour = storage.tileToIndex(coordinates.x + NEIGHBOURS[side],
+                        coordinates.y + NEIGHBOURS[side + 1], coordinates.z + NEIGHBOURS[side + 2]);
+
+                if (neighbour >= 0 && (visited[neighbour >>> 6] & (1L << neighbour)) == 0
+                        && storage.isEmpty(neighbour)) {
+                    visited[neighbour >>> 6] |= 1L << neighbour;
+                    stack[stackPointer++] = neighbour;
+                }
+            }
+        }
+
+        return filled;
+    }
+}
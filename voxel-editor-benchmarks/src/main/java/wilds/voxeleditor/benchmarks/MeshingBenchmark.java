@@ -0,0 +1,150 @@
+package wilds.voxeleditor.benchmarks;
+
+import wilds.voxeleditor.core.models.Tileset;
+import wilds.voxeleditor.core.models.storage.ChunkSnapshot;
+import wilds.voxeleditor.core.models.storage.ChunkedMapStorage;
+import wilds.voxeleditor.core.models.storage.MapSnapshot;
+import wilds.voxeleditor.core.renderer.ChunkMesher;
+import wilds.voxeleditor.core.renderer.TileAtlas;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Greedy meshes every chunk of a synthetic map. meshMap measures the time per map, countFaces runs the mesher
+ * once and reports how many visible sides the map has and how many quads and vertices the mesher made of them.
+ * Without greedy meshing every visible side is one quad of 4 vertices.
+ * <p>
+ * With splitLayers the quads are kept within one layer, the way meshes are built while layers are hidden
+ * or isolated. Stepped terrain needs about a third more quads then.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeshingBenchmark {
+
+    private static final int MAP_SIZE = 128;
+    private static final int MAP_DEPTH = 20;
+
+    public enum Terrain {
+        /**
+         * One layer of the same tile
+         */
+        Floor,
+        /**
+         * Columns of 3 to 6 tiles high in diagonal steps, with another tile on the right part of the map
+         */
+        Steps,
+        /**
+         * Every tile solid with a chance of one in three, the worst case for merging
+         */
+        Noise
+    }
+
+    @Param({"Floor", "Steps", "Noise"})
+    public Terrain terrain;
+
+    @Param({"false", "true"})
+    public boolean splitLayers;
+
+    private TileAtlas atlas;
+    private ChunkMesher mesher;
+    private MapSnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Tileset tileset = new Tileset(new BufferedImage(256, 256, BufferedImage.TYPE_INT_ARGB), "default", 256, 256, 32);
+        atlas = TileAtlas.build(tileset, Collections.emptyList());
+        mesher = new ChunkMesher();
+
+        ChunkedMapStorage storage = new ChunkedMapStorage(MAP_SIZE, MAP_SIZE, MAP_DEPTH);
+        Random random = new Random(1);
+
+        for (int z = 0; z < MAP_DEPTH; z++) {
+            for (int y = 0; y < MAP_SIZE; y++) {
+                for (int x = 0; x < MAP_SIZE; x++) {
+                    if (isSolid(random, x, y, z)) {
+                        storage.fillTile(storage.tileToIndex(x, y, z), null, (short) (x > MAP_SIZE / 2 ? 5 : 3));
+                    }
+                }
+            }
+        }
+
+        snapshot = storage.publish();
+    }
+
+    private boolean isSolid(Random random, int x, int y, int z) {
+        switch (terrain) {
+            case Floor:
+                return z == 0;
+            case Steps:
+                return z < 3 + (x + y) % 4;
+            default:
+                return random.nextInt(3) == 0;
+        }
+    }
+
+    @Benchmark
+    public int meshMap() {
+        int bytes = 0;
+
+        for (ChunkSnapshot chunk : snapshot.getChunks()) {
+            bytes += mesher.build(chunk, atlas, 0, splitLayers);
+        }
+
+        return bytes;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public void countFaces(FaceCounters counters) {
+        for (ChunkSnapshot chunk : snapshot.getChunks()) {
+            mesher.build(chunk, atlas, 0, splitLayers);
+
+            counters.sides += mesher.getSideCount();
+            counters.quads += mesher.getQuadCount();
+            counters.vertices += mesher.getQuadCount() * 4L;
+        }
+    }
+
+    /**
+     * Totals of one mesh of the whole map, countFaces runs exactly once per fork
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class FaceCounters {
+        public long sides;
+        public long quads;
+        public long vertices;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            sides = 0;
+            quads = 0;
+            vertices = 0;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package wilds.voxeleditor.benchmarks;
+
+import wilds.voxeleditor.core.models.Tileset;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileSide;
+import wilds.voxeleditor.core.models.storage.ChunkedMapStorage;
+import wilds.voxeleditor.core.models.storage.PackedMapStorage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Compares the palette compressed chunk storage with the MapCell[] layout it replaced. In that layout every cell
+ * held its own cube tile with six tilesets and six tile ids, and placing a tile created a new cube tile.
+ * The old layout is rebuilt here as LegacyCell so both can run side by side. The flat struct of arrays storage
+ * that came between them runs along as well.
+ * <p>
+ * All layouts hold a block of WIDTH x HEIGHT x DEPTH tiles with tileVariety distinct tile ids.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TileStorageBenchmark {
+
+    private static final int WIDTH = 128;
+    private static final int HEIGHT = 128;
+    private static final int DEPTH = 16;
+    private static final CubeTileSide[] SIDES = CubeTileSide.values();
+
+    @Param({"1", "16", "256"})
+    public int tileVariety;
+
+    private ChunkedMapStorage storage;
+    private PackedMapStorage packedStorage;
+    private LegacyCell[] cells;
+    private int round;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        storage = new ChunkedMapStorage(WIDTH, HEIGHT, DEPTH);
+        packedStorage = new PackedMapStorage(WIDTH * HEIGHT * DEPTH);
+        cells = new LegacyCell[WIDTH * HEIGHT * DEPTH];
+
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new LegacyCell();
+        }
+
+        // all layouts start with the same tiles
+        round = 0;
+        placeTilesPaletted();
+        round = 0;
+        placeTilesPacked();
+        round = 0;
+        placeTilesMapCell();
+    }
+
+    @Benchmark
+    public ChunkedMapStorage placeTilesPaletted() {
+        round++;
+
+        for (int z = 0; z < DEPTH; z++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                for (int x = 0; x < WIDTH; x++) {
+                    storage.fillTile(storage.tileToIndex(x, y, z), null, tileId(x, y, z));
+                }
+            }
+        }
+
+        return storage;
+    }
+
+    @Benchmark
+    public PackedMapStorage placeTilesPacked() {
+        round++;
+
+        for (int i = 0; i < packedStorage.getCapacity(); i++) {
+            int x = i % WIDTH;
+            int y = i / WIDTH % HEIGHT;
+            int z = i / (WIDTH * HEIGHT);
+            packedStorage.fillTile(i, null, tileId(x, y, z));
+        }
+
+        return packedStorage;
+    }
+
+    @Benchmark
+    public LegacyCell[] placeTilesMapCell() {
+        round++;
+
+        for (int z = 0; z < DEPTH; z++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                for (int x = 0; x < WIDTH; x++) {
+                    LegacyCell cell = cells[(z * HEIGHT + y) * WIDTH + x];
+
+                    // PlaceTilesCommand created a new cube tile for every placed tile
+                    LegacyCubeTile tile = new LegacyCubeTile();
+                    if (cell.tile != null) {
+                        tile.setData(cell.tile);
+                    }
+
+                    tile.fillCube(null, tileId(x, y, z));
+                    cell.tile = tile;
+                }
+            }
+        }
+
+        return cells;
+    }
+
+    @Benchmark
+    public int readTilesPaletted() {
+        int sum = 0;
+
+        for (int z = 0; z < DEPTH; z++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                for (int x = 0; x < WIDTH; x++) {
+                    sum += storage.getTileId(storage.tileToIndex(x, y, z), CubeTileSide.Top);
+                }
+            }
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public int readTilesPacked() {
+        int sum = 0;
+
+        for (int i = 0; i < packedStorage.getCapacity(); i++) {
+            sum += packedStorage.getTileId(i, CubeTileSide.Top);
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public int readTilesMapCell() {
+        int sum = 0;
+
+        for (int i = 0; i < cells.length; i++) {
+            LegacyCubeTile tile = cells[i].tile;
+            sum += tile == null ? 0 : tile.tileIds[CubeTileSide.Top.ordinal()];
+        }
+
+        return sum;
+    }
+
+    /**
+     * Every round of placing uses other ids so no placed tile is equal to the tile it replaces
+     */
+    private short tileId(int x, int y, int z) {
+        return (short) ((x * 7 + y * 13 + z + round) % tileVariety);
+    }
+
+    /**
+     * The removed MapCell, one object per tile of the map
+     */
+    public static final class LegacyCell {
+        private LegacyCubeTile tile;
+    }
+
+    /**
+     * The mutable cube tile the MapCell layout used, every cell had its own
+     */
+    private static final class LegacyCubeTile {
+        private final Tileset[] tilesets = new Tileset[SIDES.length];
+        private final short[] tileIds = new short[SIDES.length];
+
+        void setData(LegacyCubeTile tile) {
+            System.arraycopy(tile.tilesets, 0, tilesets, 0, tilesets.length);
+            System.arraycopy(tile.tileIds, 0, tileIds, 0, tileIds.length);
+        }
+
+        void fillCube(Tileset tileset, short id) {
+            for (CubeTileSide side : SIDES) {
+                tilesets[side.ordinal()] = tileset;
+                tileIds[side.ordinal()] = id;
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package wilds.voxeleditor.core.io;
 
 import wilds.voxeleditor.core.exceptions.EditorIOException;
 import wilds.voxeleditor.core.models.Map;
+import wilds.voxeleditor.core.models.storage.ChunkDataAllocatorFactory;
 
 import java.nio.file.Path;
 
@@ -11,5 +12,8 @@ import java.nio.file.Path;
  */
 public interface MapReader {
 
-    Map read(Path path) throws EditorIOException;
+    /**
+     * @param allocatorFactory picks where the chunk data of the read map lives
+     */
+    Map read(Path path, ChunkDataAllocatorFactory allocatorFactory) throws EditorIOException;
 }
@@ -3,6 +3,7 @@ package wilds.voxeleditor.core.io.porygon;
 import wilds.voxeleditor.core.exceptions.EditorIOException;
 import wilds.voxeleditor.core.io.MapFileIO;
 import wilds.voxeleditor.core.models.Map;
+import wilds.voxeleditor.core.models.storage.ChunkDataAllocatorFactory;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -48,7 +49,7 @@ public class PorygonMapFileHandler implements MapFileIO {
     }
 
     @Override
-    public Map read(Path path) throws EditorIOException {
-        return mapReader.read(path);
+    public Map read(Path path, ChunkDataAllocatorFactory allocatorFactory) throws EditorIOException {
+        return mapReader.read(path, allocatorFactory);
     }
 }
@@ -3,6 +3,8 @@ package wilds.voxeleditor.core.io.porygon;
 import wilds.voxeleditor.core.exceptions.EditorIOException;
 import wilds.voxeleditor.core.io.MapReader;
 import wilds.voxeleditor.core.models.Map;
+import wilds.voxeleditor.core.models.storage.ChunkDataAllocatorFactory;
+import wilds.voxeleditor.core.models.storage.TileLayout;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -25,7 +27,7 @@ public class PorygonMapReader implements MapReader {
     private static final Logger LOGGER = LogManager.getLogger(PorygonMapReader.class);
 
     @Override
-    public Map read(Path path) throws EditorIOException {
+    public Map read(Path path, ChunkDataAllocatorFactory allocatorFactory) throws EditorIOException {
         if (path == null) {
             throw new EditorIOException("Specified path is null!");
         }
@@ -47,15 +49,30 @@ public class PorygonMapReader implements MapReader {
                         .mapToInt(Integer::valueOf).toArray();
 
                 ByteBuffer collisionBuffer = ByteBuffer.allocate(collisionData.length);
-                Arrays.stream(collisionData).forEach(collisionBuffer::putInt);
+                Arrays.stream(collisionData).forEach(value -> collisionBuffer.put((byte) value));
 
-                Map map = new Map(name, version, width, height);
+                // maps saved before the depth was configurable end after the collision data
+                String depthString = reader.readLine();
+                int depth = depthString == null || depthString.isEmpty()
+                        ? Map.DEFAULT_MAP_DEPTH : Integer.valueOf(depthString);
+
+                if (depth < 1 || depth > Map.MAX_MAP_DEPTH) {
+                    throw new EditorIOException(String.format("Map depth is out of range in map file: %s", path));
+                }
+
+                // maps saved before the tile layout was selectable are row major
+                String layoutString = reader.readLine();
+                TileLayout layout = layoutString == null || layoutString.isEmpty()
+                        ? TileLayout.RowMajor : TileLayout.valueOf(layoutString);
+
+                Map map = new Map(name, version, width, height, depth, layout,
+                        allocatorFactory.create(width, height, depth));
                 map.setTileSize(tileSize);
                 map.setCollisionData(collisionBuffer.array());
 
                 return map;
             }
-        } catch (NumberFormatException e) {
+        } catch (IllegalArgumentException e) {
             throw new EditorIOException(String.format("Could not read property from map file: %s\n%s", path, e.getMessage()));
         } catch (IOException e) {
             throw new EditorIOException(String.format("Could not read map file: %s", path));
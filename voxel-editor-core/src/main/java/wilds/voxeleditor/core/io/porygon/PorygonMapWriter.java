@@ -37,11 +37,15 @@ public class PorygonMapWriter implements MapWriter {
                 writer.println(map.getTileSize());
 
                 byte[] collisionData = map.getCollisionData();
-                IntStream.range(0, collisionData.length).map(idx -> collisionData[idx])
+                String collisionString = IntStream.range(0, collisionData.length).map(idx -> collisionData[idx])
                         .mapToObj(String::valueOf)
                         .collect(Collectors.joining(","));
 
-                writer.println(collisionData);
+                writer.println(collisionString);
+
+                // written last so files without a depth or tile layout can still be read
+                writer.println(map.getDepth());
+                writer.println(map.getTileLayout());
             }
         } catch (IOException e) {
             throw new EditorIOException(String.format("Could not write map file: %s", path));
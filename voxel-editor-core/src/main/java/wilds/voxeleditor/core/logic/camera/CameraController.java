@@ -15,6 +15,12 @@ public interface CameraController {
 
     public BaseCamera getCamera();
 
+    /**
+     * @return true if the camera is only moved and never turned, the renderer can then leave out the sides
+     * that never face the camera
+     */
+    public boolean hasFixedOrientation();
+
     public void update(float deltaTime);
 
     public void mousePressed(MouseEvent e);
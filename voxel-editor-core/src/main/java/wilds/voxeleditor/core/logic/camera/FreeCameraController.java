@@ -1,6 +1,7 @@
 package wilds.voxeleditor.core.logic.camera;
 
 import wilds.voxeleditor.core.models.Map;
+import wilds.voxeleditor.core.services.MapService;
 
 import wilds.rune.geometry.Plane;
 import wilds.rune.util.Maths;
@@ -32,19 +33,24 @@ public class FreeCameraController implements CameraController {
     private final Vector3f tempNormal = new Vector3f();
     private final Vector3f pointInfrontOfCamera = new Vector3f();
 
+    private final MapService mapService;
     private PerspCamera perspectiveCamera;
 
     private final float cameraSpeed = 768;
     private final Vector3f direction = new Vector3f();
 
-    public FreeCameraController() {
+    public FreeCameraController(MapService mapService) {
+        this.mapService = mapService;
         perspectiveCamera = new PerspCamera(70, 0.1f, 8192);
     }
 
+    /**
+     * Places the camera above the top layer of the open map
+     */
     @Override
     public void setup(BaseCamera oldCamera) {
         perspectiveCamera.getWorldMatrix().identity();
-        float camHeight = Map.MAX_MAP_DEPTH * 32 + 256;
+        float camHeight = getMapHeight() + 256;
 
         if (oldCamera == null) {
             perspectiveCamera.setPosition(0, camHeight, 0);
@@ -56,11 +62,25 @@ public class FreeCameraController implements CameraController {
         perspectiveCamera.rotate(50, Maths.UNIT_X);
     }
 
+    private float getMapHeight() {
+        if (!mapService.hasMap()) {
+            return Map.DEFAULT_MAP_DEPTH * Map.DEFAULT_TILE_SIZE;
+        }
+
+        Map map = mapService.getMap();
+        return map.getDepth() * map.getTileSize();
+    }
+
     @Override
     public BaseCamera getCamera() {
         return perspectiveCamera;
     }
 
+    @Override
+    public boolean hasFixedOrientation() {
+        return false;
+    }
+
     @Override
     public void update(float deltaTime) {
         perspectiveCamera.moveLocal(direction.x * cameraSpeed * deltaTime, 0, direction.z * cameraSpeed * deltaTime);
@@ -54,6 +54,11 @@ public class GameViewCameraController implements CameraController {
         return perspectiveCamera;
     }
 
+    @Override
+    public boolean hasFixedOrientation() {
+        return true;
+    }
+
     @Override
     public void update(float deltaTime) {
 
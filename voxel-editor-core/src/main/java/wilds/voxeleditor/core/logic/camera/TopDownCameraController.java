@@ -1,6 +1,7 @@
 package wilds.voxeleditor.core.logic.camera;
 
 import wilds.voxeleditor.core.models.Map;
+import wilds.voxeleditor.core.services.MapService;
 
 import wilds.rune.geometry.Plane;
 import wilds.rune.util.Maths;
@@ -30,16 +31,23 @@ public class TopDownCameraController implements CameraController {
     private final Vector3f viewportPos = new Vector3f();
     private final Vector3f lastViewportPos = new Vector3f();
 
+    private final MapService mapService;
     private OrthoCamera orthographicCamera;
 
-    public TopDownCameraController() {
-        orthographicCamera = new OrthoCamera(0.1f, 1024f);
+    public TopDownCameraController(MapService mapService) {
+        this.mapService = mapService;
+
+        // far enough to see the ground of the deepest map from above its top layer
+        orthographicCamera = new OrthoCamera(0.1f, Map.MAX_MAP_DEPTH * Map.DEFAULT_TILE_SIZE + 1024f);
     }
 
+    /**
+     * Places the camera above the top layer of the open map
+     */
     @Override
     public void setup(BaseCamera oldCamera) {
         orthographicCamera.getWorldMatrix().identity();
-        float camHeight = Map.MAX_MAP_DEPTH * 32 + 64;
+        float camHeight = getMapHeight() + 64;
 
         if (oldCamera == null) {
             orthographicCamera.setPosition(0, camHeight, 0);
@@ -51,11 +59,25 @@ public class TopDownCameraController implements CameraController {
         orthographicCamera.rotate(90.0f, Maths.UNIT_X);
     }
 
+    private float getMapHeight() {
+        if (!mapService.hasMap()) {
+            return Map.DEFAULT_MAP_DEPTH * Map.DEFAULT_TILE_SIZE;
+        }
+
+        Map map = mapService.getMap();
+        return map.getDepth() * map.getTileSize();
+    }
+
     @Override
     public BaseCamera getCamera() {
         return orthographicCamera;
     }
 
+    @Override
+    public boolean hasFixedOrientation() {
+        return true;
+    }
+
     @Override
     public void update(float deltaTime) {
 
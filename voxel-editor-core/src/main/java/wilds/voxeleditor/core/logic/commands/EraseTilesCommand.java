@@ -1,8 +1,7 @@
 package wilds.voxeleditor.core.logic.commands;
 
-import wilds.voxeleditor.core.models.Map;
-import wilds.voxeleditor.core.models.MapCell;
-import wilds.voxeleditor.core.models.mapobjects.MapObject;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTile;
+import wilds.voxeleditor.core.models.storage.MapStorage;
 import wilds.voxeleditor.core.services.MapService;
 
 /**
@@ -13,13 +12,13 @@ public class EraseTilesCommand implements ICommand {
 
     private MapService mapService;
     private int[] tileIndices;
-    private MapObject[] oldMapObjects;
+    private CubeTile[] oldTiles;
 
     public EraseTilesCommand(int[] indices, MapService mapService) {
         this.mapService = mapService;
         this.tileIndices = indices;
 
-        oldMapObjects = new MapObject[indices.length];
+        oldTiles = new CubeTile[indices.length];
     }
 
     @Override
@@ -33,30 +32,28 @@ public class EraseTilesCommand implements ICommand {
             return false;
         }
 
-        Map map = mapService.getMap();
-        MapCell[] mapCells = map.getMapData();
+        MapStorage storage = mapService.getMap().getStorage();
 
         for (int i = 0; i < tileIndices.length; i++) {
             int tileIndex = tileIndices[i];
-            MapCell cell = mapCells[tileIndex];
-            oldMapObjects[i] = cell.getCellObject();
-            cell.setCellObject(null);
+            oldTiles[i] = storage.getCubeTile(tileIndex);
+            storage.clear(tileIndex);
         }
 
+        mapService.notifyChange(tileIndices);
+
         return true;
     }
 
     @Override
     public void undo() {
-        Map map = mapService.getMap();
-        MapCell[] mapCells = map.getMapData();
+        MapStorage storage = mapService.getMap().getStorage();
 
         for (int i = 0; i < tileIndices.length; i++) {
-            int tileIndex = tileIndices[i];
-            MapCell cell = mapCells[tileIndex];
-
-            cell.setCellObject(oldMapObjects[i]);
+            storage.setCubeTile(tileIndices[i], oldTiles[i]);
         }
+
+        mapService.notifyChange(tileIndices);
     }
 }
 
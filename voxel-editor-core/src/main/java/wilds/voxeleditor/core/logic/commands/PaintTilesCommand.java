@@ -1,11 +1,8 @@
 package wilds.voxeleditor.core.logic.commands;
 
-import wilds.voxeleditor.core.models.Map;
-import wilds.voxeleditor.core.models.MapCell;
-import wilds.voxeleditor.core.models.mapobjects.MapObject;
-import wilds.voxeleditor.core.models.mapobjects.operations.MapObjectIdentifierOperation;
 import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTile;
 import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileSide;
+import wilds.voxeleditor.core.models.storage.MapStorage;
 import wilds.voxeleditor.core.services.MapService;
 
 /**
@@ -15,9 +12,8 @@ import wilds.voxeleditor.core.services.MapService;
 public class PaintTilesCommand implements ICommand {
 
     private MapService mapService;
-    private MapObjectIdentifierOperation mapObjectIdentifier;
     private int[] tileIndices;
-    private MapObject[] oldMapObjects;
+    private CubeTile[] oldTiles;
     private int tileId;
     private CubeTileSide side;
 
@@ -27,8 +23,7 @@ public class PaintTilesCommand implements ICommand {
         this.side = side;
         this.tileIndices = indices;
 
-        oldMapObjects = new MapObject[indices.length];
-        mapObjectIdentifier = new MapObjectIdentifierOperation();
+        oldTiles = new CubeTile[indices.length];
     }
 
     @Override
@@ -42,42 +37,30 @@ public class PaintTilesCommand implements ICommand {
             return false;
         }
 
-        Map map = mapService.getMap();
-        MapCell[] mapCells = map.getMapData();
+        MapStorage storage = mapService.getMap().getStorage();
 
         for (int i = 0; i < tileIndices.length; i++) {
             int tileIndex = tileIndices[i];
-            MapCell cell = mapCells[tileIndex];
 
-            oldMapObjects[i] = cell.getCellObject();
-            if (!cell.isEmpty()) {
-                oldMapObjects[i].accept(mapObjectIdentifier);
-
-                if (mapObjectIdentifier.isCubeTile()) {
-                    CubeTile tile = mapObjectIdentifier.getCubeTile();
-
-                    CubeTile newTile = new CubeTile();
-                    newTile.setData(tile);
-                    newTile.setTile(side, null, (short) tileId);
-
-                    cell.setCellObject(newTile);
-                }
+            oldTiles[i] = storage.getCubeTile(tileIndex);
+            if (oldTiles[i] != null) {
+                storage.setTile(tileIndex, side, null, (short) tileId);
             }
         }
 
+        mapService.notifyChange(tileIndices);
+
         return true;
     }
 
     @Override
     public void undo() {
-        Map map = mapService.getMap();
-        MapCell[] mapCells = map.getMapData();
+        MapStorage storage = mapService.getMap().getStorage();
 
         for (int i = 0; i < tileIndices.length; i++) {
-            int tileIndex = tileIndices[i];
-            MapCell cell = mapCells[tileIndex];
-
-            cell.setCellObject(oldMapObjects[i]);
+            storage.setCubeTile(tileIndices[i], oldTiles[i]);
         }
+
+        mapService.notifyChange(tileIndices);
     }
 }
@@ -1,10 +1,7 @@
 package wilds.voxeleditor.core.logic.commands;
 
-import wilds.voxeleditor.core.models.Map;
-import wilds.voxeleditor.core.models.MapCell;
-import wilds.voxeleditor.core.models.mapobjects.MapObject;
-import wilds.voxeleditor.core.models.mapobjects.operations.MapObjectIdentifierOperation;
 import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTile;
+import wilds.voxeleditor.core.models.storage.MapStorage;
 import wilds.voxeleditor.core.services.MapService;
 
 /**
@@ -13,9 +10,8 @@ import wilds.voxeleditor.core.services.MapService;
  */
 public class PlaceTilesCommand implements ICommand {
     private MapService mapService;
-    private MapObjectIdentifierOperation mapObjectIdentifier;
     private int[] tileIndices;
-    private MapObject[] oldMapObjects;
+    private CubeTile[] oldTiles;
     private int tileId;
 
     public PlaceTilesCommand(int[] indices, int tileId, MapService mapService) {
@@ -23,8 +19,7 @@ public class PlaceTilesCommand implements ICommand {
         this.tileId = tileId;
         this.tileIndices = indices;
 
-        oldMapObjects = new MapObject[indices.length];
-        mapObjectIdentifier = new MapObjectIdentifierOperation();
+        oldTiles = new CubeTile[indices.length];
     }
 
     @Override
@@ -38,42 +33,27 @@ public class PlaceTilesCommand implements ICommand {
             return false;
         }
 
-        Map map = mapService.getMap();
-        MapCell[] mapCells = map.getMapData();
-
+        MapStorage storage = mapService.getMap().getStorage();
         for (int i = 0; i < tileIndices.length; i++) {
             int tileIndex = tileIndices[i];
-            MapCell cell = mapCells[tileIndex];
-
-            CubeTile tile = new CubeTile();
-
-            oldMapObjects[i] = cell.getCellObject();
-            if (!cell.isEmpty()) {
-                oldMapObjects[i].accept(mapObjectIdentifier);
-
-                if (mapObjectIdentifier.isCubeTile()) {
-                    tile.setData(mapObjectIdentifier.getCubeTile());
-                }
-            }
-
-            tile.fillCube(null, (short) tileId);
 
-            cell.setCellObject(tile);
+            oldTiles[i] = storage.getCubeTile(tileIndex);
+            storage.fillTile(tileIndex, null, (short) tileId);
         }
 
+        mapService.notifyChange(tileIndices);
+
         return true;
     }
 
     @Override
     public void undo() {
-        Map map = mapService.getMap();
-        MapCell[] mapCells = map.getMapData();
+        MapStorage storage = mapService.getMap().getStorage();
 
         for (int i = 0; i < tileIndices.length; i++) {
-            int tileIndex = tileIndices[i];
-            MapCell cell = mapCells[tileIndex];
-
-            cell.setCellObject(oldMapObjects[i]);
+            storage.setCubeTile(tileIndices[i], oldTiles[i]);
         }
+
+        mapService.notifyChange(tileIndices);
     }
 }
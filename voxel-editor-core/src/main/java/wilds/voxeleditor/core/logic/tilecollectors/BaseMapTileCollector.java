@@ -13,6 +13,7 @@ public abstract class BaseMapTileCollector implements TileCollector {
 
     protected IntSet tileIndices;
     protected Plane workingPlane;
+    private int selectionVersion;
 
     public BaseMapTileCollector(int cacheSize) {
         this.tileIndices = new IntOpenHashSet(cacheSize);
@@ -27,4 +28,24 @@ public abstract class BaseMapTileCollector implements TileCollector {
     public IntSet getTileIndices() {
         return tileIndices;
     }
+
+    @Override
+    public int getSelectionVersion() {
+        return selectionVersion;
+    }
+
+    /**
+     * Should be called by collectors after they changed the tile indices
+     */
+    protected void selectionChanged() {
+        selectionVersion++;
+    }
+
+    @Override
+    public void teardown() {
+        if (!tileIndices.isEmpty()) {
+            tileIndices.clear();
+            selectionChanged();
+        }
+    }
 }
@@ -1,7 +1,7 @@
 package wilds.voxeleditor.core.logic.tilecollectors;
 
 import wilds.voxeleditor.core.models.Map;
-import wilds.voxeleditor.core.models.MapCell;
+import wilds.voxeleditor.core.models.storage.MapStorage;
 
 import wilds.rune.geometry.Plane;
 import wilds.rune.geometry.Ray;
@@ -10,6 +10,8 @@ import wilds.rune.util.Maths;
 import org.joml.Vector3f;
 import org.joml.Vector3i;
 
+import java.util.Arrays;
+
 /**
  * @author Mark "Wilds" van der Wal
  * @since 23-3-2018
@@ -63,13 +65,13 @@ public class BucketTileCollector extends BaseMapTileCollector {
     }
 
     private void floodFill(Map map, Plane workPlane) {
-        MapCell[] mapCells = map.getMapData();
+        MapStorage storage = map.getStorage();
         int index = map.tileToIndex(tileCoords.x, tileCoords.y, tileCoords.z);
         if (!tileIndices.contains(index)) {
             teardown();
         }
 
-        if (floodFillRule.preCondition(mapCells[index])) {
+        if (floodFillRule.preCondition(storage, index)) {
             return;
         }
 
@@ -79,8 +81,8 @@ public class BucketTileCollector extends BaseMapTileCollector {
         Vector3f xAxis = Maths.getAbsHorizontalAxisAligned(workPlane.getNormal());
         Vector3f yAxis = Maths.getAbsVerticalAxisAligned(workPlane.getNormal());
 
-        int width = (int) xAxis.dot(map.getWidth(), Map.MAX_MAP_DEPTH, map.getHeight());
-        int height = (int) yAxis.dot(map.getWidth(), Map.MAX_MAP_DEPTH, map.getHeight());
+        int width = (int) xAxis.dot(map.getWidth(), map.getDepth(), map.getHeight());
+        int height = (int) yAxis.dot(map.getWidth(), map.getDepth(), map.getHeight());
 
         floodFillStack[stackPointer++] = index;
         while (stackPointer > 0) {
@@ -90,7 +92,7 @@ public class BucketTileCollector extends BaseMapTileCollector {
             // find last tile that has the target value
             while (getAxisValue(yAxis, tileCoords) >= 0 &&
                     !tileIndices.contains(index)
-                    && floodFillRule.condition(mapCells[index])) {
+                    && floodFillRule.condition(storage, index)) {
 
                 // get new tile for [x, y - 1]
                 tileCoords.sub((int) yAxis.x, (int) yAxis.z, (int) yAxis.y);
@@ -109,12 +111,13 @@ public class BucketTileCollector extends BaseMapTileCollector {
             boolean spanRight = false;
             while (getAxisValue(yAxis, tileCoords) < height
                     && !tileIndices.contains(index)
-                    && floodFillRule.condition(mapCells[index])) {
+                    && floodFillRule.condition(storage, index)) {
 
                 tileIndices.add(index);
+                selectionChanged();
 
-                spanLeft = checkLeftCell(map, tileCoords, xAxis, mapCells, spanLeft);
-                spanRight = checkRightCell(map, tileCoords, xAxis, mapCells, spanRight, width);
+                spanLeft = checkLeftCell(map, tileCoords, xAxis, storage, spanLeft);
+                spanRight = checkRightCell(map, tileCoords, xAxis, storage, spanRight, width);
 
                 // get new tile for tile coordinates [x, y + 1]
                 tileCoords.add((int) yAxis.x, (int) yAxis.z, (int) yAxis.y);
@@ -126,31 +129,35 @@ public class BucketTileCollector extends BaseMapTileCollector {
     }
 
     // check tile coordinates for [x - 1, y]
-    private boolean checkLeftCell(Map map, Vector3i tileCoords, Vector3f xAxis, MapCell[] mapCells, boolean span) {
+    private boolean checkLeftCell(Map map, Vector3i tileCoords, Vector3f xAxis, MapStorage storage, boolean span) {
         int spanX = tileCoords.x - (int) xAxis.x;
         int spanY = tileCoords.y - (int) xAxis.z;
         int spanZ = tileCoords.z - (int) xAxis.y;
         int tileIndex = map.tileToIndex(spanX, spanY, spanZ);
-        return spawnSeed(mapCells, span, tileIndex,
+        return spawnSeed(storage, span, tileIndex,
                 getAxisValue(xAxis, tileCoords) > 0);
     }
 
     // check tile coordinates for [x + 1, y]
-    private boolean checkRightCell(Map map, Vector3i tileCoords, Vector3f xAxis, MapCell[] mapCells, boolean span, int width) {
+    private boolean checkRightCell(Map map, Vector3i tileCoords, Vector3f xAxis, MapStorage storage, boolean span, int width) {
         int spanX = tileCoords.x + (int) xAxis.x;
         int spanY = tileCoords.y + (int) xAxis.z;
         int spanZ = tileCoords.z + (int) xAxis.y;
         int tileIndex = map.tileToIndex(spanX, spanY, spanZ);
-        return spawnSeed(mapCells, span, tileIndex,
+        return spawnSeed(storage, span, tileIndex,
                 getAxisValue(xAxis, tileCoords) < width - 1);
     }
 
-    private boolean spawnSeed(MapCell[] mapCells, boolean span, int tileIndex, boolean withinBounds) {
+    private boolean spawnSeed(MapStorage storage, boolean span, int tileIndex, boolean withinBounds) {
         if (withinBounds) {
-            if (!span && !tileIndices.contains(tileIndex) && floodFillRule.condition(mapCells[tileIndex])) {
+            if (!span && !tileIndices.contains(tileIndex) && floodFillRule.condition(storage, tileIndex)) {
+                if (stackPointer == floodFillStack.length) {
+                    floodFillStack = Arrays.copyOf(floodFillStack, floodFillStack.length * 2);
+                }
+
                 floodFillStack[stackPointer++] = tileIndex;
                 return true;
-            } else if (span && !floodFillRule.condition(mapCells[tileIndex])) {
+            } else if (span && !floodFillRule.condition(storage, tileIndex)) {
                 return false;
             }
         }
@@ -165,28 +172,23 @@ public class BucketTileCollector extends BaseMapTileCollector {
         return (int) axis.dot(coordinates.x, coordinates.z, coordinates.y);
     }
 
-    @Override
-    public void teardown() {
-        tileIndices.clear();
-    }
-
     private class NullFloodFillRule implements FloodFillRule {
 
         @Override
-        public boolean preCondition(MapCell cell) {
-            return cell.getCellObject() != null;
+        public boolean preCondition(MapStorage storage, int index) {
+            return !storage.isEmpty(index);
         }
 
         @Override
-        public boolean condition(MapCell cell) {
-            return cell.getCellObject() == null;
+        public boolean condition(MapStorage storage, int index) {
+            return storage.isEmpty(index);
         }
     }
 
     public interface FloodFillRule {
 
-        boolean preCondition(MapCell cell);
+        boolean preCondition(MapStorage storage, int index);
 
-        boolean condition(MapCell cell);
+        boolean condition(MapStorage storage, int index);
     }
 }
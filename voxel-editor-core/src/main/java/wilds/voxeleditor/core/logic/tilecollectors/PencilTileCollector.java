@@ -34,7 +34,7 @@ public class PencilTileCollector extends BaseMapTileCollector {
             isDragging = true;
 
             int index = map.tileToIndex(tileCoordinates.x, tileCoordinates.y, tileCoordinates.z);
-            tileIndices.add(index);
+            addTileIndex(index);
         }
     }
 
@@ -45,10 +45,10 @@ public class PencilTileCollector extends BaseMapTileCollector {
 
         if (map.isTileCoordWithinBounds(tileCoordinates.x, tileCoordinates.y, tileCoordinates.z)) {
             int index = map.tileToIndex(tileCoordinates.x, tileCoordinates.y, tileCoordinates.z);
-            if (!isDragging) {
+            if (!isDragging && !(tileIndices.size() == 1 && tileIndices.contains(index))) {
                 teardown();
             }
-            tileIndices.add(index);
+            addTileIndex(index);
         }
     }
 
@@ -58,12 +58,13 @@ public class PencilTileCollector extends BaseMapTileCollector {
 
         if (map.isTileCoordWithinBounds(tileCoordinates.x, tileCoordinates.y, tileCoordinates.z)) {
             int index = map.tileToIndex(tileCoordinates.x, tileCoordinates.y, tileCoordinates.z);
-            tileIndices.add(index);
+            addTileIndex(index);
         }
     }
 
-    @Override
-    public void teardown() {
-        tileIndices.clear();
+    private void addTileIndex(int index) {
+        if (tileIndices.add(index)) {
+            selectionChanged();
+        }
     }
 }
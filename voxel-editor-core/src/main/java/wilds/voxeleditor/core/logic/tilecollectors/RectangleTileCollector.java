@@ -20,6 +20,8 @@ public class RectangleTileCollector extends BaseMapTileCollector {
     private Vector3i startTileCoordinates;
     private Vector3i endTileCoordinates;
     private Vector3i worldAreaDimensions;
+    private Vector3f collectedMin;
+    private Vector3f collectedMax;
 
     private Box area;
 
@@ -30,6 +32,8 @@ public class RectangleTileCollector extends BaseMapTileCollector {
         startTileCoordinates = new Vector3i();
         endTileCoordinates = new Vector3i();
         worldAreaDimensions = new Vector3i();
+        collectedMin = new Vector3f();
+        collectedMax = new Vector3f();
         area = new Box();
     }
 
@@ -82,7 +86,14 @@ public class RectangleTileCollector extends BaseMapTileCollector {
         Vector3f min = area.getMin();
         Vector3f max = area.getMax();
 
+        // moving the mouse within a tile gives the same area, keep the selection so its version does not change
+        if (!tileIndices.isEmpty() && min.equals(collectedMin) && max.equals(collectedMax)) {
+            return;
+        }
+
         teardown();
+        collectedMin.set(min);
+        collectedMax.set(max);
 
         worldAreaDimensions.set((int) max.x, (int) max.y, (int) max.z)
                 .sub((int) min.x, (int) min.y, (int) min.z)
@@ -100,10 +111,7 @@ public class RectangleTileCollector extends BaseMapTileCollector {
             int worldTileIndex = map.tileToIndex((int) min.x + x, (int) min.z + y, (int) min.y + z);
             tileIndices.add(worldTileIndex);
         }
-    }
 
-    @Override
-    public void teardown() {
-        tileIndices.clear();
+        selectionChanged();
     }
 }
@@ -15,6 +15,11 @@ public interface TileCollector {
 
     IntSet getTileIndices();
 
+    /**
+     * @return counter that changes every time the tile indices change, used to cache work done on the selection
+     */
+    int getSelectionVersion();
+
     void setup(Plane plane);
 
     void start(Map map, Ray ray);
@@ -1,5 +1,10 @@
 package wilds.voxeleditor.core.models;
 
+import wilds.voxeleditor.core.models.storage.ChunkDataAllocator;
+import wilds.voxeleditor.core.models.storage.ChunkedMapStorage;
+import wilds.voxeleditor.core.models.storage.HeapChunkDataAllocator;
+import wilds.voxeleditor.core.models.storage.TileLayout;
+
 import wilds.rune.geometry.Box;
 
 import org.joml.Vector3f;
@@ -13,8 +18,11 @@ public class Map {
 
     public final static String DEFAULT_MAP_NAME = "untitled";
     public final static int MAP_STEP = 8;
-    public final static int MAX_MAP_DIMENSION = 128;
-    public final static int MAX_MAP_DEPTH = 8;
+    public final static int DEFAULT_MAP_DIMENSION = 128;
+    public final static int DEFAULT_MAP_DEPTH = 8;
+    public final static int MAX_MAP_DIMENSION = 1024;
+    public final static int MAX_MAP_DEPTH = 64;
+    public final static int DEFAULT_TILE_SIZE = 32;
 
     private final static int VERSION = 1;
 
@@ -22,52 +30,51 @@ public class Map {
     private int version;
     private int width;
     private int height;
+    private int depth;
     private int tileSize;
     private byte collisionData[];
-    private MapCell mapData[];
+    private ChunkedMapStorage storage;
     private Box bounds;
 
     public Map(String mapName, int mapVersion, int w, int h) {
+        this(mapName, mapVersion, w, h, DEFAULT_MAP_DEPTH);
+    }
+
+    public Map(String mapName, int mapVersion, int w, int h, int d) {
+        this(mapName, mapVersion, w, h, d, TileLayout.RowMajor, new HeapChunkDataAllocator());
+    }
+
+    public Map(String mapName, int mapVersion, int w, int h, int d, TileLayout layout, ChunkDataAllocator allocator) {
         version = mapVersion;
         name = mapName;
         width = w;
         height = h;
-        tileSize = 32;
+        depth = d;
+        tileSize = DEFAULT_TILE_SIZE;
         collisionData = new byte[width * height];
-        mapData = new MapCell[width * height * MAX_MAP_DEPTH];
+        storage = new ChunkedMapStorage(width, height, depth, layout, allocator);
         bounds = new Box();
         bounds.grow(0, 0, 0);
-        bounds.grow(width * tileSize, MAX_MAP_DEPTH * tileSize, height * tileSize);
-
-        for (int i = 0; i < width * height * MAX_MAP_DEPTH; i++) {
-            mapData[i] = new MapCell();
-        }
-    }
-
-    public MapCell getMapCell(int x, int y, int z) {
-        int index = tileToIndex(x, y, z);
-        if (index < 0 || index >= mapData.length) {
-            return null;
-        }
-
-        return mapData[index];
+        bounds.grow(width * tileSize, depth * tileSize, height * tileSize);
     }
 
+    /**
+     * Converts tile coordinates to a chunk + local index
+     *
+     * @return index of the tile or -1 if the coordinates are outside of the map
+     */
     public int tileToIndex(int x, int y, int z) {
-        return z * width * height + y * width + x;
+        return storage.tileToIndex(x, y, z);
     }
 
     public void indexToTile(int index, Vector3i tileCoordinates) {
-        int flatSize = width * height;
-        int layerIndex = index % flatSize;
-
-        tileCoordinates.set(layerIndex % width, layerIndex / width, index / flatSize);
+        storage.indexToTile(index, tileCoordinates);
     }
 
     public boolean isTileCoordWithinBounds(int x, int y, int z) {
         return x >= 0 && x < width &&
                 y >= 0 && y < height &&
-                z >= 0 && z < Map.MAX_MAP_DEPTH;
+                z >= 0 && z < depth;
     }
 
     public void worldToTile(Vector3f world, Vector3i tile) {
@@ -108,12 +115,24 @@ public class Map {
         return true;
     }
 
-    public MapCell[] getMapData() {
-        return mapData;
+    /**
+     * Not to be confused with the map format version
+     *
+     * @return version of the last tile write, grows with every write so it can be used to detect changes
+     */
+    public long getChangeVersion() {
+        return storage.getVersion();
+    }
+
+    /**
+     * @return order of the tiles inside of a chunk, chosen when the map was created
+     */
+    public TileLayout getTileLayout() {
+        return storage.getLayout();
     }
 
-    public void setMapData(MapCell[] mapData) {
-        this.mapData = mapData;
+    public ChunkedMapStorage getStorage() {
+        return storage;
     }
 
     public byte[] getCollisionData() {
@@ -148,7 +167,18 @@ public class Map {
         return height;
     }
 
+    public int getDepth() {
+        return depth;
+    }
+
     public Box getBounds() {
         return bounds;
     }
+
+    /**
+     * Releases the tile storage, the map should not be used afterwards
+     */
+    public void dispose() {
+        storage.dispose();
+    }
 }
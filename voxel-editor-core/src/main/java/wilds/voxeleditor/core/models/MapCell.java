@@ -1,24 +0,0 @@
-package wilds.voxeleditor.core.models;
-
-import wilds.voxeleditor.core.models.mapobjects.MapObject;
-
-/**
- * @author Mark "Wilds" van der Wal
- * @since 20-2-2018
- */
-public class MapCell {
-
-    private MapObject cellObject;
-
-    public MapObject getCellObject() {
-        return cellObject;
-    }
-
-    public void setCellObject(MapObject mapObject) {
-        cellObject = mapObject;
-    }
-
-    public boolean isEmpty() {
-        return cellObject == null;
-    }
-}
@@ -11,13 +11,25 @@ import java.awt.image.BufferedImage;
 /**
  * @author Mark "Wilds" van der Wal
  * @since 23-2-2018
+ * <p>
+ * Tile ids run row by row through the tileset image. The texture coordinates of every tile are computed once when
+ * the tileset is created, the image and tile size of a tileset never change.
  */
 public class Tileset {
+
+    /**
+     * Floats per tile in the texture coordinate table: u and v of the tile origin and of the opposite corner
+     */
+    public static final int TEX_COORDS_PER_TILE = 4;
+
     private String name;
     private BufferedImage image;
 
     private Area area;
     private int tileSize;
+    private int tilesPerRow;
+    private int tileRows;
+    private float[] tileTexCoords;
 
     public Tileset(BufferedImage image, String name, int width, int height, int tileSize) {
         this.name = name;
@@ -28,6 +40,26 @@ public class Tileset {
         area.grow(width, height);
 
         this.tileSize = tileSize;
+        buildTileTexCoords(width, height);
+    }
+
+    private void buildTileTexCoords(int width, int height) {
+        tilesPerRow = Math.max(1, width / Math.max(1, tileSize));
+        tileRows = Math.max(1, height / Math.max(1, tileSize));
+        tileTexCoords = new float[tilesPerRow * tileRows * TEX_COORDS_PER_TILE];
+
+        float tileWidth = tileSize / (float) Math.max(1, width);
+        float tileHeight = tileSize / (float) Math.max(1, height);
+
+        for (int row = 0; row < tileRows; row++) {
+            for (int column = 0; column < tilesPerRow; column++) {
+                int offset = (row * tilesPerRow + column) * TEX_COORDS_PER_TILE;
+                tileTexCoords[offset] = column * tileWidth;
+                tileTexCoords[offset + 1] = row * tileHeight;
+                tileTexCoords[offset + 2] = (column + 1) * tileWidth;
+                tileTexCoords[offset + 3] = (row + 1) * tileHeight;
+            }
+        }
     }
 
     public BufferedImage getImage() {
@@ -58,6 +90,45 @@ public class Tileset {
         return tileSize;
     }
 
+    public int getTilesPerRow() {
+        return tilesPerRow;
+    }
+
+    public int getTileRows() {
+        return tileRows;
+    }
+
+    public int getTileCount() {
+        return tilesPerRow * tileRows;
+    }
+
+    /**
+     * @return texture coordinates of all tiles in the tileset image, TEX_COORDS_PER_TILE floats per tile id.
+     * The table is shared and should not be modified.
+     */
+    public float[] getTileTexCoords() {
+        return tileTexCoords;
+    }
+
+    /**
+     * @return true if the tile id is one of the tiles in the tileset image
+     */
+    public boolean hasTile(short tileId) {
+        return tileId >= 0 && tileId < getTileCount();
+    }
+
+    /**
+     * @return offset of the tile in the texture coordinate table
+     * @throws IllegalArgumentException if the tile id is not part of the tileset, see hasTile
+     */
+    public int getTileTexCoordOffset(short tileId) {
+        if (!hasTile(tileId)) {
+            throw new IllegalArgumentException(String.format("Tile %s is not part of tileset %s", tileId, name));
+        }
+
+        return tileId * TEX_COORDS_PER_TILE;
+    }
+
     public void toTilesetCoordinates(Vector2i point) {
         point.x = (int) Math.floor(point.x / tileSize);
         point.y = (int) Math.floor(point.y / tileSize);
@@ -7,9 +7,15 @@ package wilds.voxeleditor.core.models.events;
 public final class MapEvent {
 
     private Type type;
+    private MapRegion region;
 
     public MapEvent(Type type) {
+        this(type, null);
+    }
+
+    public MapEvent(Type type, MapRegion region) {
         this.type = type;
+        this.region = region;
     }
 
     /**
@@ -21,6 +27,24 @@ public final class MapEvent {
         return type;
     }
 
+    /**
+     * Only changed events can carry a region, without one the whole map should be considered changed
+     *
+     * @return true if the event knows which part of the map was affected
+     */
+    public boolean hasRegion() {
+        return region != null;
+    }
+
+    /**
+     * Gets the part of the map that was changed
+     *
+     * @return the changed region or null if the whole map is affected
+     */
+    public MapRegion getRegion() {
+        return region;
+    }
+
     public boolean isMapNew() {
         return type == Type.New;
     }
@@ -0,0 +1,103 @@
+package wilds.voxeleditor.core.models.events;
+
+import wilds.voxeleditor.core.models.Map;
+import wilds.voxeleditor.core.models.storage.MapChunk;
+
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import org.joml.Vector3i;
+
+import java.util.Arrays;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Part of a map affected by a change, the changed tiles with a tight box around them in tile coordinates
+ * and the chunks they touched.
+ */
+public final class MapRegion {
+
+    private final Vector3i min;
+    private final Vector3i max;
+    private final int[] tileIndices;
+    private final int[] chunkIndices;
+
+    private MapRegion(Vector3i min, Vector3i max, int[] tileIndices, int[] chunkIndices) {
+        this.min = min;
+        this.max = max;
+        this.tileIndices = tileIndices;
+        this.chunkIndices = chunkIndices;
+    }
+
+    /**
+     * Creates the region that tightly contains the given tiles
+     *
+     * @param map         the tiles belong to
+     * @param tileIndices of the changed tiles, the array is kept and should not be modified afterwards
+     * @return the region or null if there are no tiles
+     */
+    public static MapRegion fromTileIndices(Map map, int[] tileIndices) {
+        if (tileIndices.length == 0) {
+            return null;
+        }
+
+        Vector3i min = new Vector3i(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        Vector3i max = new Vector3i(Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE);
+        Vector3i tileCoordinates = new Vector3i();
+        IntOpenHashSet chunks = new IntOpenHashSet();
+
+        for (int tileIndex : tileIndices) {
+            map.indexToTile(tileIndex, tileCoordinates);
+            min.set(Math.min(min.x, tileCoordinates.x), Math.min(min.y, tileCoordinates.y), Math.min(min.z, tileCoordinates.z));
+            max.set(Math.max(max.x, tileCoordinates.x), Math.max(max.y, tileCoordinates.y), Math.max(max.z, tileCoordinates.z));
+            chunks.add(tileIndex >>> MapChunk.VOLUME_BITS);
+        }
+
+        int[] chunkIndices = chunks.toIntArray();
+        Arrays.sort(chunkIndices);
+
+        return new MapRegion(min, max, tileIndices, chunkIndices);
+    }
+
+    /**
+     * @return smallest tile coordinates inside of the region
+     */
+    public Vector3i getMin() {
+        return min;
+    }
+
+    /**
+     * @return biggest tile coordinates inside of the region, inclusive
+     */
+    public Vector3i getMax() {
+        return max;
+    }
+
+    /**
+     * @return indices of the changed tiles
+     */
+    public int[] getTileIndices() {
+        return tileIndices;
+    }
+
+    /**
+     * @return sorted indices of the chunks touched by the region
+     */
+    public int[] getChunkIndices() {
+        return chunkIndices;
+    }
+
+    public boolean contains(int x, int y, int z) {
+        return x >= min.x && x <= max.x &&
+                y >= min.y && y <= max.y &&
+                z >= min.z && z <= max.z;
+    }
+
+    /**
+     * Checks if the region overlaps a box of tiles, all coordinates are inclusive
+     */
+    public boolean intersects(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        return minX <= max.x && maxX >= min.x &&
+                minY <= max.y && maxY >= min.y &&
+                minZ <= max.z && maxZ >= min.z;
+    }
+}
@@ -4,54 +4,100 @@ import wilds.voxeleditor.core.models.Tileset;
 import wilds.voxeleditor.core.models.mapobjects.MapObject;
 import wilds.voxeleditor.core.models.mapobjects.operations.IMapObjectOperation;
 
+import java.util.Arrays;
+
 /**
  * @author Mark "Wilds" van der Wal
  * @since 7-3-2018
+ * <p>
+ * Immutable flyweight, instances are shared and can only be obtained through a {@link CubeTileRegistry}.
  */
 public class CubeTile extends MapObject {
 
     public static final short EMPTY_TILE_ID = -1;
 
-    private Tileset[] tilesets;
-    private short[] tileIds;
+    private final Tileset[] tilesets;
+    private final short[] tileIds;
+    private int hash;
 
-    public CubeTile() {
-        CubeTileSide[] tileSides = CubeTileSide.values();
-        int sides = tileSides.length;
+    CubeTile() {
+        int sides = CubeTileSide.values().length;
         tilesets = new Tileset[sides];
         tileIds = new short[sides];
 
-        for (int i = 0; i < sides; i++) {
-            clearTile(tileSides[i]);
-        }
+        Arrays.fill(tileIds, EMPTY_TILE_ID);
+    }
+
+    CubeTile(CubeTile tile) {
+        tilesets = tile.tilesets.clone();
+        tileIds = tile.tileIds.clone();
+        hash = tile.hash;
     }
 
-    public void setData(CubeTile tile) {
+    /**
+     * Only used by the registry to set up its lookup key
+     */
+    void set(CubeTile tile) {
         System.arraycopy(tile.tilesets, 0, tilesets, 0, tilesets.length);
         System.arraycopy(tile.tileIds, 0, tileIds, 0, tileIds.length);
+        hash = tile.hash;
     }
 
-    public void setTile(CubeTileSide side, Tileset tileset, short id) {
+    /**
+     * Only used by the registry to set up its lookup key
+     */
+    void set(CubeTileSide side, Tileset tileset, short id) {
         int ordinal = side.ordinal();
         tilesets[ordinal] = tileset;
         tileIds[ordinal] = id;
-    }
-
-    public void fillCube(Tileset tileset, short id) {
-        setTile(CubeTileSide.Front, tileset, id);
-        setTile(CubeTileSide.Back, tileset, id);
-        setTile(CubeTileSide.Left, tileset, id);
-        setTile(CubeTileSide.Right, tileset, id);
-        setTile(CubeTileSide.Bottom, tileset, id);
-        setTile(CubeTileSide.Top, tileset, id);
+        hash = 0;
     }
 
     public short getTileId(CubeTileSide side) {
         return tileIds[side.ordinal()];
     }
 
-    public void clearTile(CubeTileSide side) {
-        setTile(side, null, EMPTY_TILE_ID);
+    public Tileset getTileset(CubeTileSide side) {
+        return tilesets[side.ordinal()];
+    }
+
+    /**
+     * @return true if none of the sides has a tile
+     */
+    public boolean isEmpty() {
+        for (short tileId : tileIds) {
+            if (tileId != EMPTY_TILE_ID) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Cube tiles are equal when all their sides have the same tileset and tile id
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+
+        if (!(other instanceof CubeTile)) {
+            return false;
+        }
+
+        CubeTile tile = (CubeTile) other;
+        return Arrays.equals(tileIds, tile.tileIds) && Arrays.equals(tilesets, tile.tilesets);
+    }
+
+    @Override
+    public int hashCode() {
+        if (hash == 0) {
+            hash = 31 * Arrays.hashCode(tileIds) + Arrays.hashCode(tilesets);
+        }
+
+        return hash;
     }
 
     @Override
@@ -0,0 +1,113 @@
+package wilds.voxeleditor.core.models.mapobjects.tiles;
+
+import wilds.voxeleditor.core.models.Tileset;
+
+import java.util.HashMap;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Interns cube tiles so every distinct face configuration exists only once per registry.
+ * A configuration without any tile is represented by null.
+ * <p>
+ * Every map storage owns its own registry, it is only used by the thread that writes to that storage
+ * and is cleared together with the storage.
+ */
+public final class CubeTileRegistry {
+
+    private static final CubeTileSide[] tileSides = CubeTileSide.values();
+
+    private final HashMap<CubeTile, CubeTile> tiles;
+    private final CubeTile lookupKey;
+
+    public CubeTileRegistry() {
+        tiles = new HashMap<>();
+        lookupKey = new CubeTile();
+    }
+
+    /**
+     * Gets the cube tile that has the same tile on all of its sides
+     *
+     * @return shared cube tile or null if the id is empty
+     */
+    public CubeTile filled(Tileset tileset, short id) {
+        for (CubeTileSide side : tileSides) {
+            lookupKey.set(side, tileset, id);
+        }
+
+        return intern();
+    }
+
+    /**
+     * Gets the cube tile equal to the given tile but with one side replaced
+     *
+     * @param tile    to base the new tile on, null for an empty tile
+     * @param side    to replace
+     * @param tileset for the side
+     * @param id      for the side
+     * @return shared cube tile or null if no side has a tile anymore
+     */
+    public CubeTile withTile(CubeTile tile, CubeTileSide side, Tileset tileset, short id) {
+        if (tile == null) {
+            for (CubeTileSide tileSide : tileSides) {
+                lookupKey.set(tileSide, null, CubeTile.EMPTY_TILE_ID);
+            }
+        } else {
+            lookupKey.set(tile);
+        }
+
+        lookupKey.set(side, tileset, id);
+        return intern();
+    }
+
+    /**
+     * Gets the cube tile equal to the given tile but with one side cleared
+     *
+     * @return shared cube tile or null if no side has a tile anymore
+     */
+    public CubeTile withoutTile(CubeTile tile, CubeTileSide side) {
+        return withTile(tile, side, null, CubeTile.EMPTY_TILE_ID);
+    }
+
+    /**
+     * Gets the shared cube tile equal to the given tile, tiles from another registry are adopted by this one
+     *
+     * @return shared cube tile or null if the tile is null or has no tile on any side
+     */
+    public CubeTile intern(CubeTile tile) {
+        if (tile == null) {
+            return null;
+        }
+
+        lookupKey.set(tile);
+        return intern();
+    }
+
+    /**
+     * @return amount of distinct cube tiles handed out
+     */
+    public int size() {
+        return tiles.size();
+    }
+
+    /**
+     * Forgets all cube tiles handed out so far, tiles still in use stay valid but are no longer shared
+     */
+    public void clear() {
+        tiles.clear();
+    }
+
+    private CubeTile intern() {
+        if (lookupKey.isEmpty()) {
+            return null;
+        }
+
+        CubeTile tile = tiles.get(lookupKey);
+        if (tile == null) {
+            tile = new CubeTile(lookupKey);
+            tiles.put(tile, tile);
+        }
+
+        return tile;
+    }
+}
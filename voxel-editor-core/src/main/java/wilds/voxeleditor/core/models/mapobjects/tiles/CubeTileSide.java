@@ -41,4 +41,13 @@ public enum CubeTileSide {
     public Vector3f getAxis() {
         return axis;
     }
+
+    /**
+     * Sides come in pairs, the opposite side differs only in the lowest bit of the ordinal
+     *
+     * @return the side facing the other way
+     */
+    public CubeTileSide getOpposite() {
+        return values()[ordinal() ^ 1];
+    }
 }
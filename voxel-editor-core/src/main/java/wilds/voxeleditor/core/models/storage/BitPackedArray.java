@@ -0,0 +1,98 @@
+package wilds.voxeleditor.core.models.storage;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Fixed length array of unsigned values packed into longs. The entry width is always a power of two
+ * (1, 2, 4, 8 or 16 bits) so entries never straddle two longs and get/set stay a shift and a mask.
+ */
+public class BitPackedArray implements PaletteIndexArray {
+
+    public static final int MAX_BITS = 16;
+
+    private final int length;
+    private int bitsPerEntry;
+    private int entriesPerWordShift;
+    private long entryMask;
+    private long[] words;
+
+    public BitPackedArray(int length) {
+        this.length = length;
+        setBitsPerEntry(1);
+        words = new long[wordCount(length)];
+    }
+
+    @Override
+    public int get(int index) {
+        int word = index >>> entriesPerWordShift;
+        int shift = (index & ((1 << entriesPerWordShift) - 1)) * bitsPerEntry;
+
+        return (int) ((words[word] >>> shift) & entryMask);
+    }
+
+    @Override
+    public void set(int index, int value) {
+        int word = index >>> entriesPerWordShift;
+        int shift = (index & ((1 << entriesPerWordShift) - 1)) * bitsPerEntry;
+
+        words[word] = (words[word] & ~(entryMask << shift)) | ((value & entryMask) << shift);
+    }
+
+    /**
+     * Widens the entries so values up to maxValue fit, all existing values are kept
+     */
+    @Override
+    public void ensureCapacity(int maxValue) {
+        if (maxValue <= entryMask) {
+            return;
+        }
+
+        int bits = bitsPerEntry;
+        while (bits < MAX_BITS && (1L << bits) <= maxValue) {
+            bits <<= 1;
+        }
+
+        if ((1L << bits) <= maxValue) {
+            throw new IllegalArgumentException(String.format("Value does not fit in %s bits: %s", MAX_BITS, maxValue));
+        }
+
+        long[] oldWords = words;
+        int oldBits = bitsPerEntry;
+        int oldShift = entriesPerWordShift;
+        long oldMask = entryMask;
+
+        setBitsPerEntry(bits);
+        words = new long[wordCount(length)];
+
+        for (int i = 0; i < length; i++) {
+            int oldOffset = (i & ((1 << oldShift) - 1)) * oldBits;
+            set(i, (int) ((oldWords[i >>> oldShift] >>> oldOffset) & oldMask));
+        }
+    }
+
+    @Override
+    public int getBitsPerEntry() {
+        return bitsPerEntry;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public int getSizeInBytes() {
+        return words.length * Long.BYTES;
+    }
+
+    private void setBitsPerEntry(int bits) {
+        bitsPerEntry = bits;
+        entriesPerWordShift = Integer.numberOfTrailingZeros(Long.SIZE / bits);
+        entryMask = (1L << bits) - 1;
+    }
+
+    private int wordCount(int entries) {
+        int entriesPerWord = 1 << entriesPerWordShift;
+        return (entries + entriesPerWord - 1) / entriesPerWord;
+    }
+}
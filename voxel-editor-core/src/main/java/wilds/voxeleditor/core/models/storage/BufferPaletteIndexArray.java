@@ -0,0 +1,54 @@
+package wilds.voxeleditor.core.models.storage;
+
+import java.nio.ShortBuffer;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Palette indices stored as unsigned shorts in a buffer, the buffer can be a view on a direct ByteBuffer
+ * or on a swap file mapped into memory so the indices live outside of the java heap.
+ * Entries are always 16 bits wide because the buffer can not be resized in place.
+ */
+public class BufferPaletteIndexArray implements PaletteIndexArray {
+
+    public static final int BITS_PER_ENTRY = 16;
+    private static final int MAX_VALUE = (1 << BITS_PER_ENTRY) - 1;
+
+    private final ShortBuffer buffer;
+
+    public BufferPaletteIndexArray(ShortBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public int get(int index) {
+        return buffer.get(index) & MAX_VALUE;
+    }
+
+    @Override
+    public void set(int index, int value) {
+        buffer.put(index, (short) value);
+    }
+
+    @Override
+    public void ensureCapacity(int maxValue) {
+        if (maxValue > MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("Value does not fit in %s bits: %s", BITS_PER_ENTRY, maxValue));
+        }
+    }
+
+    @Override
+    public int getBitsPerEntry() {
+        return BITS_PER_ENTRY;
+    }
+
+    @Override
+    public int length() {
+        return buffer.capacity();
+    }
+
+    @Override
+    public int getSizeInBytes() {
+        return buffer.capacity() * Short.BYTES;
+    }
+}
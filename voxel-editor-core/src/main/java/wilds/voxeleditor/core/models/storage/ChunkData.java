@@ -0,0 +1,94 @@
+package wilds.voxeleditor.core.models.storage;
+
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileRegistry;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Everything a chunk stores per tile: the palette indices with their palette, the occupancy bits
+ * and the exposed sides. Created by a ChunkDataAllocator, which decides where the buffers live.
+ * <p>
+ * When the data lives in a single buffer of BUFFER_BYTES it is laid out as the palette indices
+ * as 16 bit entries, followed by the occupancy words and the exposed sides with one byte per tile.
+ * <p>
+ * Chunk data that was handed to a ChunkSnapshot is never written again, the chunk copies it before its next write.
+ * Allocators may reuse the buffers once the chunk data itself is unreachable, so keep the chunk data around
+ * for as long as its buffers are read.
+ */
+public final class ChunkData {
+
+    public static final int OCCUPANCY_WORDS = MapChunk.VOLUME / Long.SIZE;
+
+    private static final int INDICES_BYTES = MapChunk.VOLUME * Short.BYTES;
+    private static final int OCCUPANCY_BYTES = OCCUPANCY_WORDS * Long.BYTES;
+
+    public static final int BUFFER_BYTES = INDICES_BYTES + OCCUPANCY_BYTES + MapChunk.VOLUME;
+
+    private final PalettedMapStorage tiles;
+    private final LongBuffer occupancy;
+    private final ByteBuffer exposedFaces;
+
+    /**
+     * @param tiles        empty tile data of MapChunk.VOLUME tiles
+     * @param occupancy    OCCUPANCY_WORDS zeroed words
+     * @param exposedFaces MapChunk.VOLUME zeroed bytes
+     */
+    public ChunkData(PalettedMapStorage tiles, LongBuffer occupancy, ByteBuffer exposedFaces) {
+        this.tiles = tiles;
+        this.occupancy = occupancy;
+        this.exposedFaces = exposedFaces;
+    }
+
+    /**
+     * Splits a zeroed buffer of BUFFER_BYTES into the parts of the chunk data, the buffer is not copied
+     */
+    public static ChunkData fromBuffer(ByteBuffer buffer, CubeTileRegistry tileRegistry) {
+        ByteBuffer indices = slice(buffer, 0, INDICES_BYTES);
+        ByteBuffer occupancy = slice(buffer, INDICES_BYTES, OCCUPANCY_BYTES);
+        ByteBuffer exposedFaces = slice(buffer, INDICES_BYTES + OCCUPANCY_BYTES, MapChunk.VOLUME);
+
+        return new ChunkData(new PalettedMapStorage(new BufferPaletteIndexArray(indices.asShortBuffer()), tileRegistry),
+                occupancy.asLongBuffer(), exposedFaces);
+    }
+
+    public PalettedMapStorage getTiles() {
+        return tiles;
+    }
+
+    public LongBuffer getOccupancy() {
+        return occupancy;
+    }
+
+    public ByteBuffer getExposedFaces() {
+        return exposedFaces;
+    }
+
+    /**
+     * Copies all tiles, occupancy bits and exposed sides into other chunk data
+     *
+     * @param target freshly allocated data of the same map
+     */
+    public void copyTo(ChunkData target) {
+        tiles.copyTo(target.tiles);
+
+        for (int i = 0; i < OCCUPANCY_WORDS; i++) {
+            target.occupancy.put(i, occupancy.get(i));
+        }
+
+        ByteBuffer faces = target.exposedFaces.duplicate();
+        faces.clear();
+        faces.put((ByteBuffer) exposedFaces.duplicate().clear());
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(buffer.position() + offset);
+        view.limit(buffer.position() + offset + length);
+
+        return view.slice().order(ByteOrder.nativeOrder());
+    }
+}
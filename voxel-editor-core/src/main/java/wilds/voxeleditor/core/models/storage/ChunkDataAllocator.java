@@ -0,0 +1,26 @@
+package wilds.voxeleditor.core.models.storage;
+
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileRegistry;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Creates the data of chunks, this decides where the tile data, occupancy and exposed sides of a map live.
+ */
+public interface ChunkDataAllocator {
+
+    /**
+     * Creates the data for a chunk that is about to be created, all tiles of the data should be empty
+     * and all occupancy bits and exposed sides cleared
+     *
+     * @param chunkIndex   index of the chunk within the map
+     * @param tileRegistry that interns the cube tiles of the map
+     * @return empty data that can hold MapChunk.VOLUME tiles
+     */
+    ChunkData allocate(int chunkIndex, CubeTileRegistry tileRegistry);
+
+    /**
+     * Releases all resources held by this allocator, data created by it should not be used afterwards
+     */
+    void dispose();
+}
@@ -0,0 +1,14 @@
+package wilds.voxeleditor.core.models.storage;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Picks the ChunkDataAllocator for a map once its size is known, used by readers that create maps.
+ */
+public interface ChunkDataAllocatorFactory {
+
+    /**
+     * @return allocator for the chunk data of a map with the given size in tiles
+     */
+    ChunkDataAllocator create(int width, int height, int depth);
+}
@@ -0,0 +1,185 @@
+package wilds.voxeleditor.core.models.storage;
+
+import wilds.voxeleditor.core.models.Tileset;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTile;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileSide;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.function.Predicate;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Immutable view of a chunk and the layer of tiles around it, safe to read from any thread.
+ * The snapshot shares the data of the chunk instead of copying it, the chunk copies its data
+ * before it is written again so the shared data never changes, see MapChunk.
+ * <p>
+ * The surrounding layer only records which tiles are solid. Every side has SIZE x SIZE bits,
+ * addressed by the two tile coordinates that run along that side in x, y, z order.
+ */
+public final class ChunkSnapshot {
+
+    private static final int BORDER_BITS = MapChunk.SIZE * MapChunk.SIZE;
+
+    private final int chunkIndex;
+    private final int chunkX;
+    private final int chunkY;
+    private final int chunkZ;
+    private final long version;
+    private final TileLayout layout;
+
+    // keeps the buffers below from being reused by the allocator
+    private final ChunkData data;
+    private final PalettedMapStorage tiles;
+    private final LongBuffer occupancy;
+    private final ByteBuffer exposedFaces;
+    private final long[] borderOccupancy;
+
+    ChunkSnapshot(ChunkedMapStorage storage, MapChunk chunk) {
+        chunkIndex = chunk.getChunkIndex();
+        chunkX = chunk.getChunkX();
+        chunkY = chunk.getChunkY();
+        chunkZ = chunk.getChunkZ();
+        version = storage.getVersion();
+        layout = chunk.getLayout();
+
+        data = chunk.share();
+        tiles = data.getTiles();
+        occupancy = data.getOccupancy();
+        exposedFaces = data.getExposedFaces();
+
+        borderOccupancy = new long[CubeTileSide.values().length * BORDER_BITS / Long.SIZE];
+        copyBorder(storage.getChunk(chunkX - 1, chunkY, chunkZ), CubeTileSide.Left);
+        copyBorder(storage.getChunk(chunkX + 1, chunkY, chunkZ), CubeTileSide.Right);
+        copyBorder(storage.getChunk(chunkX, chunkY - 1, chunkZ), CubeTileSide.Front);
+        copyBorder(storage.getChunk(chunkX, chunkY + 1, chunkZ), CubeTileSide.Back);
+        copyBorder(storage.getChunk(chunkX, chunkY, chunkZ - 1), CubeTileSide.Bottom);
+        copyBorder(storage.getChunk(chunkX, chunkY, chunkZ + 1), CubeTileSide.Top);
+    }
+
+    public int getChunkIndex() {
+        return chunkIndex;
+    }
+
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    public int getChunkY() {
+        return chunkY;
+    }
+
+    public int getChunkZ() {
+        return chunkZ;
+    }
+
+    /**
+     * @return storage version at the time the snapshot was taken
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public TileLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * @see TileLayout#toLocalIndex(int, int, int)
+     */
+    public int toLocalIndex(int localX, int localY, int localZ) {
+        return layout.toLocalIndex(localX, localY, localZ);
+    }
+
+    public boolean isSolid(int localIndex) {
+        return (occupancy.get(localIndex >>> 6) & (1L << localIndex)) != 0;
+    }
+
+    /**
+     * Checks if a tile is solid, one of the coordinates may be one step outside of the chunk
+     * to look at the surrounding layer. Tiles outside of the map are never solid.
+     */
+    public boolean isSolid(int localX, int localY, int localZ) {
+        if (localX < 0) {
+            return isBorderSolid(CubeTileSide.Left, localY, localZ);
+        } else if (localX >= MapChunk.SIZE) {
+            return isBorderSolid(CubeTileSide.Right, localY, localZ);
+        } else if (localY < 0) {
+            return isBorderSolid(CubeTileSide.Front, localX, localZ);
+        } else if (localY >= MapChunk.SIZE) {
+            return isBorderSolid(CubeTileSide.Back, localX, localZ);
+        } else if (localZ < 0) {
+            return isBorderSolid(CubeTileSide.Bottom, localX, localY);
+        } else if (localZ >= MapChunk.SIZE) {
+            return isBorderSolid(CubeTileSide.Top, localX, localY);
+        }
+
+        return isSolid(layout.toLocalIndex(localX, localY, localZ));
+    }
+
+    /**
+     * @see MapChunk#getExposedFaces(int)
+     */
+    public int getExposedFaces(int localIndex) {
+        return exposedFaces.get(localIndex);
+    }
+
+    public boolean isFaceExposed(int localIndex, CubeTileSide side) {
+        return (exposedFaces.get(localIndex) & (1 << side.ordinal())) != 0;
+    }
+
+    public short getTileId(int localIndex, CubeTileSide side) {
+        return tiles.getTileId(localIndex, side);
+    }
+
+    public Tileset getTileset(int localIndex, CubeTileSide side) {
+        return tiles.getTileset(localIndex, side);
+    }
+
+    public CubeTile getCubeTile(int localIndex) {
+        return tiles.getCubeTile(localIndex);
+    }
+
+    /**
+     * @return true if any distinct cube tile of the chunk matches, checks the palette instead of every tile
+     */
+    public boolean anyCubeTile(Predicate<CubeTile> predicate) {
+        return tiles.anyPaletteTile(predicate);
+    }
+
+    private boolean isBorderSolid(CubeTileSide side, int first, int second) {
+        int bit = side.ordinal() * BORDER_BITS + (second << MapChunk.SIZE_BITS) + first;
+        return (borderOccupancy[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Copies the solid tiles of the neighbour layer that touches the given side of this chunk
+     */
+    private void copyBorder(MapChunk neighbour, CubeTileSide side) {
+        if (neighbour == null) {
+            return;
+        }
+
+        int layer = side == CubeTileSide.Left || side == CubeTileSide.Front || side == CubeTileSide.Bottom
+                ? MapChunk.SIZE_MASK : 0;
+
+        for (int second = 0; second < MapChunk.SIZE; second++) {
+            for (int first = 0; first < MapChunk.SIZE; first++) {
+                int localIndex;
+                if (side == CubeTileSide.Left || side == CubeTileSide.Right) {
+                    localIndex = neighbour.toLocalIndex(layer, first, second);
+                } else if (side == CubeTileSide.Front || side == CubeTileSide.Back) {
+                    localIndex = neighbour.toLocalIndex(first, layer, second);
+                } else {
+                    localIndex = neighbour.toLocalIndex(first, second, layer);
+                }
+
+                if (neighbour.isSolid(localIndex)) {
+                    int bit = side.ordinal() * BORDER_BITS + (second << MapChunk.SIZE_BITS) + first;
+                    borderOccupancy[bit >>> 6] |= 1L << bit;
+                }
+            }
+        }
+    }
+}
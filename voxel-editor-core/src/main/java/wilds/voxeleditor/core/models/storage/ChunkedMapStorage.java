@@ -0,0 +1,569 @@
+package wilds.voxeleditor.core.models.storage;
+
+import wilds.voxeleditor.core.models.Tileset;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTile;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileRegistry;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileSide;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntCollection;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import org.joml.Vector3i;
+
+import java.util.Collection;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Sparse storage that splits the map up in chunks, chunks are only allocated when a tile
+ * is set inside of them and are dropped again when their last tile is cleared.
+ * <p>
+ * A map index is made up of the chunk index and the local index within that chunk:
+ * (chunkIndex << MapChunk.VOLUME_BITS) | localIndex
+ * <p>
+ * Chunk indices are row major: x, then y, then z. The local index is decided by the TileLayout of the storage.
+ * Where the tile data of the chunks lives is decided by the ChunkDataAllocator.
+ * <p>
+ * Every write stamps the chunk it touched with a new global version, versions only ever grow.
+ * A chunk changed since version v when its version is bigger than v, this still holds after the chunk got dropped.
+ * Writes to the outer layer of a chunk also stamp the border version of that side of the chunk,
+ * so neighbours can tell if a change could have affected them. Chunk snapshots carry the version they
+ * were taken at so renderers can tell if their mesh of a chunk is outdated.
+ * <p>
+ * Writes also update the exposed sides of the written tile and of its six neighbours, see MapChunk.getExposedFaces.
+ * <p>
+ * The storage itself is not thread safe. Other threads read the MapSnapshot that the writing thread publishes
+ * after a batch of writes. Snapshots share the chunk data, a chunk copies its data on the first write after it
+ * got published, see MapChunk.
+ */
+public class ChunkedMapStorage implements MapStorage {
+
+    private static final CubeTileSide[] SIDES = CubeTileSide.values();
+    private static final int BORDER_SIDES = SIDES.length;
+    private static final int[] SIDE_OFFSETS = new int[SIDES.length * 3];
+
+    static {
+        // tile y runs along the world z axis and tile z along the world y axis
+        for (CubeTileSide side : SIDES) {
+            int offset = side.ordinal() * 3;
+            SIDE_OFFSETS[offset] = (int) side.getAxis().x;
+            SIDE_OFFSETS[offset + 1] = (int) side.getAxis().z;
+            SIDE_OFFSETS[offset + 2] = (int) side.getAxis().y;
+        }
+    }
+
+    private final int width;
+    private final int height;
+    private final int depth;
+    private final int chunksX;
+    private final int chunksY;
+    private final int chunksZ;
+    private final TileLayout layout;
+
+    private final int chunkIndexLimit;
+
+    private final Int2ObjectMap<MapChunk> chunks;
+    private final ChunkDataAllocator allocator;
+    private final CubeTileRegistry tileRegistry;
+
+    private final long[] chunkVersions;
+    private final long[] borderVersions;
+    private long version;
+
+    private final IntOpenHashSet changedChunks;
+    private volatile MapSnapshot publishedSnapshot;
+
+    public ChunkedMapStorage(int width, int height, int depth) {
+        this(width, height, depth, TileLayout.RowMajor, new HeapChunkDataAllocator());
+    }
+
+    public ChunkedMapStorage(int width, int height, int depth, TileLayout layout, ChunkDataAllocator allocator) {
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+        this.layout = layout;
+
+        chunksX = (width + MapChunk.SIZE_MASK) >> MapChunk.SIZE_BITS;
+        chunksY = (height + MapChunk.SIZE_MASK) >> MapChunk.SIZE_BITS;
+        chunksZ = (depth + MapChunk.SIZE_MASK) >> MapChunk.SIZE_BITS;
+
+        chunks = new Int2ObjectOpenHashMap<>();
+        this.allocator = allocator;
+        tileRegistry = new CubeTileRegistry();
+
+        long chunkCount = (long) chunksX * chunksY * chunksZ;
+        if (chunkCount > Integer.MAX_VALUE >>> MapChunk.VOLUME_BITS) {
+            throw new IllegalArgumentException(String.format("Map is too big to index: %sx%sx%s", width, height, depth));
+        }
+
+        chunkIndexLimit = (int) chunkCount;
+
+        chunkVersions = new long[chunkIndexLimit];
+        borderVersions = new long[chunkIndexLimit * BORDER_SIDES];
+
+        changedChunks = new IntOpenHashSet();
+        publishedSnapshot = new MapSnapshot(this, chunkIndexLimit);
+    }
+
+    /**
+     * Converts tile coordinates to a map index
+     *
+     * @return index of the tile or -1 if the coordinates are outside of the map
+     */
+    public int tileToIndex(int x, int y, int z) {
+        if (x < 0 || x >= width || y < 0 || y >= height || z < 0 || z >= depth) {
+            return -1;
+        }
+
+        int chunkIndex = toChunkIndex(x >> MapChunk.SIZE_BITS, y >> MapChunk.SIZE_BITS, z >> MapChunk.SIZE_BITS);
+        int localIndex = layout.toLocalIndex(x & MapChunk.SIZE_MASK, y & MapChunk.SIZE_MASK, z & MapChunk.SIZE_MASK);
+
+        return (chunkIndex << MapChunk.VOLUME_BITS) | localIndex;
+    }
+
+    public void indexToTile(int index, Vector3i tileCoordinates) {
+        int chunkIndex = index >>> MapChunk.VOLUME_BITS;
+        int localIndex = index & (MapChunk.VOLUME - 1);
+
+        int chunkX = toChunkX(chunkIndex);
+        int chunkY = toChunkY(chunkIndex);
+        int chunkZ = toChunkZ(chunkIndex);
+
+        tileCoordinates.set((chunkX << MapChunk.SIZE_BITS) | layout.getLocalX(localIndex),
+                (chunkY << MapChunk.SIZE_BITS) | layout.getLocalY(localIndex),
+                (chunkZ << MapChunk.SIZE_BITS) | layout.getLocalZ(localIndex));
+    }
+
+    public int toChunkIndex(int chunkX, int chunkY, int chunkZ) {
+        return (chunkZ * chunksY + chunkY) * chunksX + chunkX;
+    }
+
+    private int toChunkX(int chunkIndex) {
+        return chunkIndex % chunksX;
+    }
+
+    private int toChunkY(int chunkIndex) {
+        return (chunkIndex / chunksX) % chunksY;
+    }
+
+    private int toChunkZ(int chunkIndex) {
+        return chunkIndex / (chunksX * chunksY);
+    }
+
+    /**
+     * Gets the chunk at the given chunk coordinates
+     *
+     * @return the chunk or null if nothing is stored in it
+     */
+    public MapChunk getChunk(int chunkX, int chunkY, int chunkZ) {
+        if (chunkX < 0 || chunkX >= chunksX || chunkY < 0 || chunkY >= chunksY || chunkZ < 0 || chunkZ >= chunksZ) {
+            return null;
+        }
+
+        return chunks.get(toChunkIndex(chunkX, chunkY, chunkZ));
+    }
+
+    /**
+     * @return all allocated chunks, only chunks that have at least one solid tile are kept
+     */
+    public Collection<MapChunk> getChunks() {
+        return chunks.values();
+    }
+
+    public int getChunksX() {
+        return chunksX;
+    }
+
+    public int getChunksY() {
+        return chunksY;
+    }
+
+    public int getChunksZ() {
+        return chunksZ;
+    }
+
+    /**
+     * Checks if the tile at the tile coordinates is solid
+     *
+     * @return true if the tile is inside of the map and solid
+     */
+    public boolean isSolid(int x, int y, int z) {
+        if (x < 0 || x >= width || y < 0 || y >= height || z < 0 || z >= depth) {
+            return false;
+        }
+
+        MapChunk chunk = chunks.get(toChunkIndex(x >> MapChunk.SIZE_BITS, y >> MapChunk.SIZE_BITS, z >> MapChunk.SIZE_BITS));
+        return chunk != null && chunk.isSolid(layout.toLocalIndex(x & MapChunk.SIZE_MASK,
+                y & MapChunk.SIZE_MASK, z & MapChunk.SIZE_MASK));
+    }
+
+    /**
+     * Checks if any tile in a row along the x axis is solid, coordinates are inclusive
+     */
+    public boolean anySolidInRow(int minX, int maxX, int y, int z) {
+        return anySolid(minX, y, z, maxX, y, z);
+    }
+
+    /**
+     * Checks if any tile in the box is solid, coordinates are inclusive and clamped to the map
+     */
+    public boolean anySolid(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        return visitSolid(minX, minY, minZ, maxX, maxY, maxZ, true) > 0;
+    }
+
+    /**
+     * Counts the solid tiles in the box, coordinates are inclusive and clamped to the map
+     */
+    public int countSolid(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        return visitSolid(minX, minY, minZ, maxX, maxY, maxZ, false);
+    }
+
+    private int visitSolid(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, boolean stopAtFirst) {
+        minX = Math.max(minX, 0);
+        minY = Math.max(minY, 0);
+        minZ = Math.max(minZ, 0);
+        maxX = Math.min(maxX, width - 1);
+        maxY = Math.min(maxY, height - 1);
+        maxZ = Math.min(maxZ, depth - 1);
+
+        int count = 0;
+        for (int chunkZ = minZ >> MapChunk.SIZE_BITS; chunkZ <= maxZ >> MapChunk.SIZE_BITS; chunkZ++) {
+            for (int chunkY = minY >> MapChunk.SIZE_BITS; chunkY <= maxY >> MapChunk.SIZE_BITS; chunkY++) {
+                for (int chunkX = minX >> MapChunk.SIZE_BITS; chunkX <= maxX >> MapChunk.SIZE_BITS; chunkX++) {
+                    MapChunk chunk = chunks.get(toChunkIndex(chunkX, chunkY, chunkZ));
+                    if (chunk == null) {
+                        continue;
+                    }
+
+                    int originX = chunkX << MapChunk.SIZE_BITS;
+                    int originY = chunkY << MapChunk.SIZE_BITS;
+                    int originZ = chunkZ << MapChunk.SIZE_BITS;
+
+                    int localMinX = Math.max(minX - originX, 0);
+                    int localMinY = Math.max(minY - originY, 0);
+                    int localMinZ = Math.max(minZ - originZ, 0);
+                    int localMaxX = Math.min(maxX - originX, MapChunk.SIZE_MASK);
+                    int localMaxY = Math.min(maxY - originY, MapChunk.SIZE_MASK);
+                    int localMaxZ = Math.min(maxZ - originZ, MapChunk.SIZE_MASK);
+
+                    if (stopAtFirst) {
+                        if (chunk.anySolid(localMinX, localMinY, localMinZ, localMaxX, localMaxY, localMaxZ)) {
+                            return 1;
+                        }
+                    } else {
+                        count += chunk.countSolid(localMinX, localMinY, localMinZ, localMaxX, localMaxY, localMaxZ);
+                    }
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * @return version of the last write to this storage, 0 if nothing has been written
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return version of the last write to the chunk, 0 if nothing has been written to it
+     */
+    public long getChunkVersion(int chunkIndex) {
+        return chunkVersions[chunkIndex];
+    }
+
+    /**
+     * @return version of the last write to the chunk at the chunk coordinates,
+     * 0 if nothing has been written to it or if it is outside of the map
+     */
+    public long getChunkVersion(int chunkX, int chunkY, int chunkZ) {
+        if (chunkX < 0 || chunkX >= chunksX || chunkY < 0 || chunkY >= chunksY || chunkZ < 0 || chunkZ >= chunksZ) {
+            return 0;
+        }
+
+        return chunkVersions[toChunkIndex(chunkX, chunkY, chunkZ)];
+    }
+
+    /**
+     * Gets the version of the last write to the outer layer of tiles on one side of a chunk
+     *
+     * @return version of the last write to that side, 0 if nothing has been written to it or if it is outside of the map
+     */
+    public long getBorderVersion(int chunkX, int chunkY, int chunkZ, CubeTileSide side) {
+        if (chunkX < 0 || chunkX >= chunksX || chunkY < 0 || chunkY >= chunksY || chunkZ < 0 || chunkZ >= chunksZ) {
+            return 0;
+        }
+
+        return borderVersions[toChunkIndex(chunkX, chunkY, chunkZ) * BORDER_SIDES + side.ordinal()];
+    }
+
+    public boolean isChunkChangedSince(int chunkIndex, long sinceVersion) {
+        return chunkVersions[chunkIndex] > sinceVersion;
+    }
+
+    /**
+     * Collects the indices of all chunks written to after the given version, including dropped chunks
+     *
+     * @param sinceVersion version to compare against, usually the storage version the caller last saw
+     * @param chunkIndices collection to add the chunk indices to
+     */
+    public void getChangedChunks(long sinceVersion, IntCollection chunkIndices) {
+        if (sinceVersion >= version) {
+            return;
+        }
+
+        for (int i = 0; i < chunkVersions.length; i++) {
+            if (chunkVersions[i] > sinceVersion) {
+                chunkIndices.add(i);
+            }
+        }
+    }
+
+    /**
+     * Takes an immutable snapshot of a chunk and the solid tiles around it, the snapshot can be read from other threads.
+     * The chunk copies its data before the next write
+     */
+    ChunkSnapshot snapshot(MapChunk chunk) {
+        return new ChunkSnapshot(this, chunk);
+    }
+
+    /**
+     * Publishes a snapshot with the chunks written since the last publish, should be called by the thread that
+     * writes to the storage. Chunks next to a written border are snapshotted again because their exposed sides
+     * and surrounding layer may have changed.
+     *
+     * @return the published snapshot
+     */
+    public MapSnapshot publish() {
+        if (!changedChunks.isEmpty()) {
+            publishedSnapshot = new MapSnapshot(this, publishedSnapshot, changedChunks);
+            changedChunks.clear();
+        }
+
+        return publishedSnapshot;
+    }
+
+    /**
+     * @return the last published snapshot, can be called from any thread
+     */
+    public MapSnapshot getPublishedSnapshot() {
+        return publishedSnapshot;
+    }
+
+    public TileLayout getLayout() {
+        return layout;
+    }
+
+    public ChunkDataAllocator getAllocator() {
+        return allocator;
+    }
+
+    /**
+     * @return registry that interns the cube tiles of this storage
+     */
+    public CubeTileRegistry getTileRegistry() {
+        return tileRegistry;
+    }
+
+    /**
+     * Drops all chunks and interned cube tiles and releases the resources of the allocator,
+     * the storage should not be used afterwards
+     */
+    public void dispose() {
+        chunks.clear();
+        changedChunks.clear();
+        tileRegistry.clear();
+        allocator.dispose();
+    }
+
+    MapChunk findChunkByIndex(int chunkIndex) {
+        return chunks.get(chunkIndex);
+    }
+
+    private MapChunk findChunk(int index) {
+        return chunks.get(index >>> MapChunk.VOLUME_BITS);
+    }
+
+    private MapChunk getOrCreateChunk(int index) {
+        int chunkIndex = index >>> MapChunk.VOLUME_BITS;
+        MapChunk chunk = chunks.get(chunkIndex);
+
+        if (chunk == null) {
+            if (index < 0 || chunkIndex >= chunkIndexLimit) {
+                throw new IndexOutOfBoundsException(String.format("Tile index is outside of the map: %s", index));
+            }
+
+            chunk = new MapChunk(chunkIndex, toChunkX(chunkIndex), toChunkY(chunkIndex), toChunkZ(chunkIndex),
+                    layout, allocator, tileRegistry);
+            chunks.put(chunkIndex, chunk);
+        }
+
+        return chunk;
+    }
+
+    private void onChunkWritten(MapChunk chunk, int localIndex) {
+        updateExposedFaces(chunk, localIndex);
+
+        int chunkIndex = chunk.getChunkIndex();
+        chunkVersions[chunkIndex] = ++version;
+        changedChunks.add(chunkIndex);
+
+        int localX = layout.getLocalX(localIndex);
+        int localY = layout.getLocalY(localIndex);
+        int localZ = layout.getLocalZ(localIndex);
+        int borders = chunkIndex * BORDER_SIDES;
+
+        // tile y runs along the world z axis and tile z along the world y axis
+        if (localX == 0) {
+            borderVersions[borders + CubeTileSide.Left.ordinal()] = version;
+            markNeighbourChanged(chunk, CubeTileSide.Left);
+        } else if (localX == MapChunk.SIZE_MASK) {
+            borderVersions[borders + CubeTileSide.Right.ordinal()] = version;
+            markNeighbourChanged(chunk, CubeTileSide.Right);
+        }
+
+        if (localY == 0) {
+            borderVersions[borders + CubeTileSide.Front.ordinal()] = version;
+            markNeighbourChanged(chunk, CubeTileSide.Front);
+        } else if (localY == MapChunk.SIZE_MASK) {
+            borderVersions[borders + CubeTileSide.Back.ordinal()] = version;
+            markNeighbourChanged(chunk, CubeTileSide.Back);
+        }
+
+        if (localZ == 0) {
+            borderVersions[borders + CubeTileSide.Bottom.ordinal()] = version;
+            markNeighbourChanged(chunk, CubeTileSide.Bottom);
+        } else if (localZ == MapChunk.SIZE_MASK) {
+            borderVersions[borders + CubeTileSide.Top.ordinal()] = version;
+            markNeighbourChanged(chunk, CubeTileSide.Top);
+        }
+
+        if (chunk.isChunkEmpty()) {
+            chunks.remove(chunk.getChunkIndex());
+        }
+    }
+
+    private void markNeighbourChanged(MapChunk chunk, CubeTileSide side) {
+        int offset = side.ordinal() * 3;
+        int neighbourX = chunk.getChunkX() + SIDE_OFFSETS[offset];
+        int neighbourY = chunk.getChunkY() + SIDE_OFFSETS[offset + 1];
+        int neighbourZ = chunk.getChunkZ() + SIDE_OFFSETS[offset + 2];
+
+        if (neighbourX >= 0 && neighbourX < chunksX && neighbourY >= 0 && neighbourY < chunksY
+                && neighbourZ >= 0 && neighbourZ < chunksZ) {
+            changedChunks.add(toChunkIndex(neighbourX, neighbourY, neighbourZ));
+        }
+    }
+
+    /**
+     * Recomputes the exposed sides of a written tile and flips the facing side of its solid neighbours
+     */
+    private void updateExposedFaces(MapChunk chunk, int localIndex) {
+        int x = (chunk.getChunkX() << MapChunk.SIZE_BITS) | layout.getLocalX(localIndex);
+        int y = (chunk.getChunkY() << MapChunk.SIZE_BITS) | layout.getLocalY(localIndex);
+        int z = (chunk.getChunkZ() << MapChunk.SIZE_BITS) | layout.getLocalZ(localIndex);
+        boolean solid = chunk.isSolid(localIndex);
+        int faces = 0;
+
+        for (CubeTileSide side : SIDES) {
+            int offset = side.ordinal() * 3;
+            int neighbourX = x + SIDE_OFFSETS[offset];
+            int neighbourY = y + SIDE_OFFSETS[offset + 1];
+            int neighbourZ = z + SIDE_OFFSETS[offset + 2];
+
+            MapChunk neighbourChunk = null;
+            if (neighbourX >= 0 && neighbourX < width && neighbourY >= 0 && neighbourY < height
+                    && neighbourZ >= 0 && neighbourZ < depth) {
+                int neighbourChunkX = neighbourX >> MapChunk.SIZE_BITS;
+                int neighbourChunkY = neighbourY >> MapChunk.SIZE_BITS;
+                int neighbourChunkZ = neighbourZ >> MapChunk.SIZE_BITS;
+
+                neighbourChunk = neighbourChunkX == chunk.getChunkX() && neighbourChunkY == chunk.getChunkY()
+                        && neighbourChunkZ == chunk.getChunkZ()
+                        ? chunk : chunks.get(toChunkIndex(neighbourChunkX, neighbourChunkY, neighbourChunkZ));
+            }
+
+            int neighbourIndex = layout.toLocalIndex(neighbourX & MapChunk.SIZE_MASK,
+                    neighbourY & MapChunk.SIZE_MASK, neighbourZ & MapChunk.SIZE_MASK);
+
+            if (neighbourChunk != null && neighbourChunk.isSolid(neighbourIndex)) {
+                neighbourChunk.setFaceExposed(neighbourIndex, side.getOpposite(), !solid);
+            } else {
+                faces |= 1 << side.ordinal();
+            }
+        }
+
+        chunk.setExposedFaces(localIndex, solid ? faces : 0);
+    }
+
+    private static int toLocal(int index) {
+        return index & (MapChunk.VOLUME - 1);
+    }
+
+    @Override
+    public int getCapacity() {
+        return chunkIndexLimit << MapChunk.VOLUME_BITS;
+    }
+
+    @Override
+    public boolean isEmpty(int index) {
+        MapChunk chunk = findChunk(index);
+        return chunk == null || chunk.isEmpty(toLocal(index));
+    }
+
+    @Override
+    public short getTileId(int index, CubeTileSide side) {
+        MapChunk chunk = findChunk(index);
+        return chunk == null ? CubeTile.EMPTY_TILE_ID : chunk.getTileId(toLocal(index), side);
+    }
+
+    @Override
+    public Tileset getTileset(int index, CubeTileSide side) {
+        MapChunk chunk = findChunk(index);
+        return chunk == null ? null : chunk.getTileset(toLocal(index), side);
+    }
+
+    @Override
+    public void setTile(int index, CubeTileSide side, Tileset tileset, short id) {
+        MapChunk chunk = getOrCreateChunk(index);
+        chunk.setTile(toLocal(index), side, tileset, id);
+        onChunkWritten(chunk, toLocal(index));
+    }
+
+    @Override
+    public void fillTile(int index, Tileset tileset, short id) {
+        MapChunk chunk = getOrCreateChunk(index);
+        chunk.fillTile(toLocal(index), tileset, id);
+        onChunkWritten(chunk, toLocal(index));
+    }
+
+    @Override
+    public void clear(int index) {
+        MapChunk chunk = findChunk(index);
+        if (chunk != null) {
+            chunk.clear(toLocal(index));
+            onChunkWritten(chunk, toLocal(index));
+        }
+    }
+
+    @Override
+    public CubeTile getCubeTile(int index) {
+        MapChunk chunk = findChunk(index);
+        return chunk == null ? null : chunk.getCubeTile(toLocal(index));
+    }
+
+    @Override
+    public void setCubeTile(int index, CubeTile tile) {
+        if (tile == null) {
+            clear(index);
+            return;
+        }
+
+        MapChunk chunk = getOrCreateChunk(index);
+        chunk.setCubeTile(toLocal(index), tile);
+        onChunkWritten(chunk, toLocal(index));
+    }
+}
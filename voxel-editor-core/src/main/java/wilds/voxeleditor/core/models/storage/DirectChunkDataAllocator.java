@@ -0,0 +1,23 @@
+package wilds.voxeleditor.core.models.storage;
+
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileRegistry;
+
+import java.nio.ByteBuffer;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Keeps the palette indices, occupancy and exposed sides of chunks in direct buffers outside of the java heap.
+ * The buffers are freed by the garbage collector once their chunk is dropped.
+ */
+public class DirectChunkDataAllocator implements ChunkDataAllocator {
+
+    @Override
+    public ChunkData allocate(int chunkIndex, CubeTileRegistry tileRegistry) {
+        return ChunkData.fromBuffer(ByteBuffer.allocateDirect(ChunkData.BUFFER_BYTES), tileRegistry);
+    }
+
+    @Override
+    public void dispose() {
+    }
+}
@@ -0,0 +1,24 @@
+package wilds.voxeleditor.core.models.storage;
+
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileRegistry;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Keeps chunk data on the java heap with bit packed palette indices, this is the most compact option.
+ */
+public class HeapChunkDataAllocator implements ChunkDataAllocator {
+
+    @Override
+    public ChunkData allocate(int chunkIndex, CubeTileRegistry tileRegistry) {
+        return new ChunkData(new PalettedMapStorage(new BitPackedArray(MapChunk.VOLUME), tileRegistry),
+                LongBuffer.wrap(new long[ChunkData.OCCUPANCY_WORDS]), ByteBuffer.wrap(new byte[MapChunk.VOLUME]));
+    }
+
+    @Override
+    public void dispose() {
+    }
+}
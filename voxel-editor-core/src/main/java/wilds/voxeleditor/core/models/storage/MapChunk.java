@@ -0,0 +1,321 @@
+package wilds.voxeleditor.core.models.storage;
+
+import wilds.voxeleditor.core.models.Tileset;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTile;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileRegistry;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileSide;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * A cube of SIZE x SIZE x SIZE tiles, addressed by a local index that the TileLayout of the map decides.
+ * Keeps an occupancy bitset next to the tile data, bit n is set when local tile n is solid.
+ * <p>
+ * Every solid tile also keeps a mask of its exposed sides, bit n is set when the side with ordinal n borders
+ * an empty tile or the edge of the map. The mask depends on tiles in other chunks so the ChunkedMapStorage keeps it up to date.
+ * <p>
+ * The data of a chunk is copy on write. Once it is shared with a ChunkSnapshot the next write
+ * first copies it to fresh data from the allocator, the snapshot keeps the old data unchanged.
+ */
+public class MapChunk implements MapStorage {
+
+    public static final int SIZE_BITS = 4;
+    public static final int SIZE = 1 << SIZE_BITS;
+    public static final int SIZE_MASK = SIZE - 1;
+    public static final int VOLUME_BITS = SIZE_BITS * 3;
+    public static final int VOLUME = 1 << VOLUME_BITS;
+
+    private final int chunkIndex;
+    private final int chunkX;
+    private final int chunkY;
+    private final int chunkZ;
+    private final TileLayout layout;
+
+    private final ChunkDataAllocator allocator;
+    private final CubeTileRegistry tileRegistry;
+
+    private ChunkData chunkData;
+    private PalettedMapStorage data;
+    private LongBuffer occupancy;
+    private ByteBuffer exposedFaces;
+    private boolean shared;
+    private int solidCount;
+
+    public MapChunk(int chunkIndex, int chunkX, int chunkY, int chunkZ) {
+        this(chunkIndex, chunkX, chunkY, chunkZ, TileLayout.RowMajor, new HeapChunkDataAllocator(), new CubeTileRegistry());
+    }
+
+    /**
+     * @param layout       decides the local index of the tiles
+     * @param allocator    creates the data of this chunk and the copies made when shared data is written
+     * @param tileRegistry that interns the cube tiles of the map
+     */
+    public MapChunk(int chunkIndex, int chunkX, int chunkY, int chunkZ, TileLayout layout,
+                    ChunkDataAllocator allocator, CubeTileRegistry tileRegistry) {
+        this.chunkIndex = chunkIndex;
+        this.chunkX = chunkX;
+        this.chunkY = chunkY;
+        this.chunkZ = chunkZ;
+        this.layout = layout;
+        this.allocator = allocator;
+        this.tileRegistry = tileRegistry;
+
+        setChunkData(allocator.allocate(chunkIndex, tileRegistry));
+    }
+
+    public int toLocalIndex(int localX, int localY, int localZ) {
+        return layout.toLocalIndex(localX, localY, localZ);
+    }
+
+    /**
+     * Converts a local index to the map index of the tile
+     *
+     * @param localIndex of the tile within this chunk
+     * @return index of the tile within the map
+     */
+    public int toMapIndex(int localIndex) {
+        return (chunkIndex << VOLUME_BITS) | localIndex;
+    }
+
+    public int getChunkIndex() {
+        return chunkIndex;
+    }
+
+    /**
+     * @return x coordinate in chunks, multiply by SIZE for tile coordinates
+     */
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    /**
+     * @return y coordinate in chunks, multiply by SIZE for tile coordinates
+     */
+    public int getChunkY() {
+        return chunkY;
+    }
+
+    /**
+     * @return z coordinate in chunks, multiply by SIZE for tile coordinates
+     */
+    public int getChunkZ() {
+        return chunkZ;
+    }
+
+    public TileLayout getLayout() {
+        return layout;
+    }
+
+    public ChunkData getData() {
+        return chunkData;
+    }
+
+    /**
+     * Hands the current data to a snapshot, the data is copied before the next write to this chunk
+     */
+    ChunkData share() {
+        shared = true;
+        return chunkData;
+    }
+
+    public int getSolidCount() {
+        return solidCount;
+    }
+
+    public boolean isChunkEmpty() {
+        return solidCount == 0;
+    }
+
+    public boolean isSolid(int localIndex) {
+        return (occupancy.get(localIndex >>> 6) & (1L << localIndex)) != 0;
+    }
+
+    /**
+     * Finds the next solid tile in local index order, use this to walk the solid tiles without touching empty ones
+     *
+     * @param fromLocalIndex local index to start searching from, inclusive
+     * @return local index of the next solid tile or -1 if there is none
+     */
+    public int nextSolid(int fromLocalIndex) {
+        if (fromLocalIndex >= VOLUME) {
+            return -1;
+        }
+
+        int word = fromLocalIndex >>> 6;
+        long bits = occupancy.get(word) & (-1L << fromLocalIndex);
+
+        while (bits == 0) {
+            if (++word == ChunkData.OCCUPANCY_WORDS) {
+                return -1;
+            }
+
+            bits = occupancy.get(word);
+        }
+
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * Gets the occupancy bits of a row of tiles along the x axis, bit n is local x n
+     */
+    public int getRowBits(int localY, int localZ) {
+        return layout.getRowBits(occupancy, localY, localZ);
+    }
+
+    /**
+     * Counts the solid tiles inside of a box, all coordinates are local and inclusive
+     */
+    public int countSolid(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        if (minX == 0 && minY == 0 && minZ == 0 && maxX == SIZE_MASK && maxY == SIZE_MASK && maxZ == SIZE_MASK) {
+            return solidCount;
+        }
+
+        int xMask = rowMask(minX, maxX);
+        int count = 0;
+
+        for (int z = minZ; z <= maxZ; z++) {
+            for (int y = minY; y <= maxY; y++) {
+                count += Integer.bitCount(getRowBits(y, z) & xMask);
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Checks if any tile inside of a box is solid, all coordinates are local and inclusive
+     */
+    public boolean anySolid(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        if (solidCount == 0) {
+            return false;
+        }
+
+        int xMask = rowMask(minX, maxX);
+
+        for (int z = minZ; z <= maxZ; z++) {
+            for (int y = minY; y <= maxY; y++) {
+                if ((getRowBits(y, z) & xMask) != 0) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @return mask of the exposed sides of a tile, bit n is the side with ordinal n. Always 0 for empty tiles
+     */
+    public int getExposedFaces(int localIndex) {
+        return exposedFaces.get(localIndex);
+    }
+
+    public boolean isFaceExposed(int localIndex, CubeTileSide side) {
+        return (exposedFaces.get(localIndex) & (1 << side.ordinal())) != 0;
+    }
+
+    void setExposedFaces(int localIndex, int faces) {
+        prepareWrite();
+        exposedFaces.put(localIndex, (byte) faces);
+    }
+
+    void setFaceExposed(int localIndex, CubeTileSide side, boolean exposed) {
+        prepareWrite();
+        int faces = exposedFaces.get(localIndex);
+        int bit = 1 << side.ordinal();
+
+        exposedFaces.put(localIndex, (byte) (exposed ? faces | bit : faces & ~bit));
+    }
+
+    private void prepareWrite() {
+        if (shared) {
+            ChunkData copy = allocator.allocate(chunkIndex, tileRegistry);
+            chunkData.copyTo(copy);
+            setChunkData(copy);
+        }
+    }
+
+    private void setChunkData(ChunkData chunkData) {
+        this.chunkData = chunkData;
+        data = chunkData.getTiles();
+        occupancy = chunkData.getOccupancy();
+        exposedFaces = chunkData.getExposedFaces();
+        shared = false;
+    }
+
+    private static int rowMask(int minX, int maxX) {
+        return (int) (((1L << (maxX - minX + 1)) - 1) << minX);
+    }
+
+    @Override
+    public int getCapacity() {
+        return VOLUME;
+    }
+
+    @Override
+    public boolean isEmpty(int index) {
+        return !isSolid(index);
+    }
+
+    @Override
+    public short getTileId(int index, CubeTileSide side) {
+        return data.getTileId(index, side);
+    }
+
+    @Override
+    public Tileset getTileset(int index, CubeTileSide side) {
+        return data.getTileset(index, side);
+    }
+
+    @Override
+    public void setTile(int index, CubeTileSide side, Tileset tileset, short id) {
+        prepareWrite();
+        data.setTile(index, side, tileset, id);
+        updateOccupancy(index);
+    }
+
+    @Override
+    public void fillTile(int index, Tileset tileset, short id) {
+        prepareWrite();
+        data.fillTile(index, tileset, id);
+        updateOccupancy(index);
+    }
+
+    @Override
+    public void clear(int index) {
+        prepareWrite();
+        data.clear(index);
+        updateOccupancy(index);
+    }
+
+    @Override
+    public CubeTile getCubeTile(int index) {
+        return data.getCubeTile(index);
+    }
+
+    @Override
+    public void setCubeTile(int index, CubeTile tile) {
+        prepareWrite();
+        data.setCubeTile(index, tile);
+        updateOccupancy(index);
+    }
+
+    private void updateOccupancy(int index) {
+        int word = index >>> 6;
+        long bit = 1L << index;
+        long bits = occupancy.get(word);
+        boolean wasSolid = (bits & bit) != 0;
+        boolean isSolid = !data.isEmpty(index);
+
+        if (isSolid && !wasSolid) {
+            occupancy.put(word, bits | bit);
+            solidCount++;
+        } else if (!isSolid && wasSolid) {
+            occupancy.put(word, bits & ~bit);
+            solidCount--;
+        }
+    }
+}
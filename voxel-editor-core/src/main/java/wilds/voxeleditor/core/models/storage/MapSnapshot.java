@@ -0,0 +1,199 @@
+package wilds.voxeleditor.core.models.storage;
+
+import it.unimi.dsi.fastutil.ints.IntCollection;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Immutable view of all chunks of a ChunkedMapStorage at one version, safe to read from any thread.
+ * <p>
+ * Chunk snapshots are kept in pages of PAGE_SIZE chunks. A new snapshot only copies the pages that hold
+ * a changed chunk, all other pages are shared with the previous snapshot. Chunk snapshots share the data
+ * of their chunk, so publishing never copies tile data.
+ * <p>
+ * Snapshots are published by the thread that writes to the storage, see ChunkedMapStorage.publish.
+ */
+public final class MapSnapshot {
+
+    private static final int PAGE_BITS = 6;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private final long version;
+    private final int chunksX;
+    private final int chunksY;
+    private final int chunksZ;
+    private final int chunkIndexLimit;
+
+    private final ChunkSnapshot[][] pages;
+    private final int[] pageCounts;
+    private final int chunkCount;
+
+    /**
+     * Creates the empty snapshot of a storage nothing has been written to
+     */
+    MapSnapshot(ChunkedMapStorage storage, int chunkIndexLimit) {
+        version = 0;
+        chunksX = storage.getChunksX();
+        chunksY = storage.getChunksY();
+        chunksZ = storage.getChunksZ();
+        this.chunkIndexLimit = chunkIndexLimit;
+
+        int pageCount = (chunkIndexLimit + PAGE_MASK) >> PAGE_BITS;
+        pages = new ChunkSnapshot[pageCount][];
+        pageCounts = new int[pageCount];
+        chunkCount = 0;
+    }
+
+    /**
+     * Snapshots the changed chunks from the storage and shares the rest with the previous snapshot
+     *
+     * @param changedChunks indices of the chunks written since the previous snapshot, including dropped chunks
+     */
+    MapSnapshot(ChunkedMapStorage storage, MapSnapshot previous, IntCollection changedChunks) {
+        version = storage.getVersion();
+        chunksX = previous.chunksX;
+        chunksY = previous.chunksY;
+        chunksZ = previous.chunksZ;
+        chunkIndexLimit = previous.chunkIndexLimit;
+        pages = previous.pages.clone();
+        pageCounts = previous.pageCounts.clone();
+
+        // a page is copied at most once, the copy can be written freely after that
+        boolean[] copiedPages = new boolean[pages.length];
+        int count = previous.chunkCount;
+
+        IntIterator iterator = changedChunks.iterator();
+        while (iterator.hasNext()) {
+            int chunkIndex = iterator.nextInt();
+            int pageIndex = chunkIndex >> PAGE_BITS;
+            MapChunk chunk = storage.findChunkByIndex(chunkIndex);
+            ChunkSnapshot[] page = pages[pageIndex];
+
+            if (page == null) {
+                if (chunk == null) {
+                    continue;
+                }
+
+                page = new ChunkSnapshot[PAGE_SIZE];
+                pages[pageIndex] = page;
+                copiedPages[pageIndex] = true;
+            } else if (!copiedPages[pageIndex]) {
+                page = page.clone();
+                pages[pageIndex] = page;
+                copiedPages[pageIndex] = true;
+            }
+
+            int slot = chunkIndex & PAGE_MASK;
+            boolean existed = page[slot] != null;
+            page[slot] = chunk == null ? null : storage.snapshot(chunk);
+
+            if (chunk != null && !existed) {
+                pageCounts[pageIndex]++;
+                count++;
+            } else if (chunk == null && existed) {
+                count--;
+                if (--pageCounts[pageIndex] == 0) {
+                    pages[pageIndex] = null;
+                }
+            }
+        }
+
+        chunkCount = count;
+    }
+
+    /**
+     * @return storage version this snapshot was taken at
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return snapshot of the chunk or null if the chunk was empty
+     */
+    public ChunkSnapshot getChunk(int chunkIndex) {
+        if (chunkIndex < 0 || chunkIndex >= chunkIndexLimit) {
+            return null;
+        }
+
+        ChunkSnapshot[] page = pages[chunkIndex >> PAGE_BITS];
+        return page == null ? null : page[chunkIndex & PAGE_MASK];
+    }
+
+    /**
+     * @return snapshot of the chunk at the chunk coordinates or null if the chunk was empty or is outside of the map
+     */
+    public ChunkSnapshot getChunk(int chunkX, int chunkY, int chunkZ) {
+        if (chunkX < 0 || chunkX >= chunksX || chunkY < 0 || chunkY >= chunksY || chunkZ < 0 || chunkZ >= chunksZ) {
+            return null;
+        }
+
+        return getChunk((chunkZ * chunksY + chunkY) * chunksX + chunkX);
+    }
+
+    /**
+     * @return amount of chunks that had solid tiles
+     */
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    /**
+     * @return snapshots of all chunks that had solid tiles, ordered by chunk index. Empty pages are skipped
+     */
+    public Iterable<ChunkSnapshot> getChunks() {
+        return ChunkIterator::new;
+    }
+
+    private final class ChunkIterator implements Iterator<ChunkSnapshot> {
+
+        private int pageIndex;
+        private int slot;
+        private ChunkSnapshot next;
+
+        ChunkIterator() {
+            pageIndex = -1;
+            slot = PAGE_SIZE;
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public ChunkSnapshot next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+
+            ChunkSnapshot chunk = next;
+            advance();
+            return chunk;
+        }
+
+        private void advance() {
+            next = null;
+
+            while (next == null) {
+                if (slot == PAGE_SIZE) {
+                    do {
+                        if (++pageIndex == pages.length) {
+                            return;
+                        }
+                    } while (pages[pageIndex] == null);
+
+                    slot = 0;
+                }
+
+                next = pages[pageIndex][slot++];
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package wilds.voxeleditor.core.models.storage;
+
+import wilds.voxeleditor.core.models.Tileset;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTile;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileSide;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Accessor api for the voxel data of a map. Tiles are addressed by their map index,
+ * a tile is empty when none of its sides has a tile id.
+ */
+public interface MapStorage {
+
+    int getCapacity();
+
+    boolean isEmpty(int index);
+
+    short getTileId(int index, CubeTileSide side);
+
+    Tileset getTileset(int index, CubeTileSide side);
+
+    void setTile(int index, CubeTileSide side, Tileset tileset, short id);
+
+    void fillTile(int index, Tileset tileset, short id);
+
+    void clear(int index);
+
+    /**
+     * Gets the shared cube tile stored at the index
+     *
+     * @param index of the tile
+     * @return the cube tile or null if the tile is empty
+     */
+    CubeTile getCubeTile(int index);
+
+    /**
+     * Stores a reference to the shared cube tile
+     *
+     * @param index of the tile
+     * @param tile  to store, null clears the tile
+     */
+    void setCubeTile(int index, CubeTile tile);
+}
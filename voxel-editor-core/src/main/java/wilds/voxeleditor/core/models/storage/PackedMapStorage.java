@@ -0,0 +1,132 @@
+package wilds.voxeleditor.core.models.storage;
+
+import wilds.voxeleditor.core.models.Tileset;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTile;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileRegistry;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileSide;
+
+import java.util.Arrays;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Struct of arrays storage, every cube side has its own plane of tile ids and tileset slots.
+ * A tile costs 18 bytes whether it is filled or not, no objects are allocated per tile.
+ * <p>
+ * Maps use the chunked palette storage, this flat storage stays as the baseline it is measured against.
+ * Cube tiles are only materialized by getCubeTile and are interned by the registry the storage was given.
+ */
+public class PackedMapStorage implements MapStorage {
+
+    private static final CubeTileSide[] TILE_SIDES = CubeTileSide.values();
+    private static final int SIDES = TILE_SIDES.length;
+
+    /**
+     * A tile id and a tileset slot for every side
+     */
+    public static final int BYTES_PER_TILE = SIDES * (Short.BYTES + Byte.BYTES);
+
+    private final int capacity;
+    private final short[][] tileIdPlanes;
+    private final byte[][] tilesetPlanes;
+    private final TilesetPalette palette;
+    private final CubeTileRegistry tileRegistry;
+
+    public PackedMapStorage(int capacity) {
+        this(capacity, new TilesetPalette(), new CubeTileRegistry());
+    }
+
+    public PackedMapStorage(int capacity, TilesetPalette palette, CubeTileRegistry tileRegistry) {
+        this.capacity = capacity;
+        this.palette = palette;
+        this.tileRegistry = tileRegistry;
+
+        tileIdPlanes = new short[SIDES][capacity];
+        tilesetPlanes = new byte[SIDES][capacity];
+
+        for (int i = 0; i < SIDES; i++) {
+            Arrays.fill(tileIdPlanes[i], CubeTile.EMPTY_TILE_ID);
+        }
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public boolean isEmpty(int index) {
+        for (int i = 0; i < SIDES; i++) {
+            if (tileIdPlanes[i][index] != CubeTile.EMPTY_TILE_ID) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public short getTileId(int index, CubeTileSide side) {
+        return tileIdPlanes[side.ordinal()][index];
+    }
+
+    @Override
+    public Tileset getTileset(int index, CubeTileSide side) {
+        return palette.getTileset(tilesetPlanes[side.ordinal()][index] & 0xFF);
+    }
+
+    @Override
+    public void setTile(int index, CubeTileSide side, Tileset tileset, short id) {
+        int ordinal = side.ordinal();
+        tileIdPlanes[ordinal][index] = id;
+        tilesetPlanes[ordinal][index] = (byte) palette.getSlot(tileset);
+    }
+
+    @Override
+    public void fillTile(int index, Tileset tileset, short id) {
+        byte slot = (byte) palette.getSlot(tileset);
+
+        for (int i = 0; i < SIDES; i++) {
+            tileIdPlanes[i][index] = id;
+            tilesetPlanes[i][index] = slot;
+        }
+    }
+
+    @Override
+    public void clear(int index) {
+        for (int i = 0; i < SIDES; i++) {
+            tileIdPlanes[i][index] = CubeTile.EMPTY_TILE_ID;
+            tilesetPlanes[i][index] = TilesetPalette.EMPTY_SLOT;
+        }
+    }
+
+    @Override
+    public CubeTile getCubeTile(int index) {
+        if (isEmpty(index)) {
+            return null;
+        }
+
+        CubeTile tile = null;
+        for (CubeTileSide side : TILE_SIDES) {
+            tile = tileRegistry.withTile(tile, side, getTileset(index, side), getTileId(index, side));
+        }
+
+        return tile;
+    }
+
+    @Override
+    public void setCubeTile(int index, CubeTile tile) {
+        if (tile == null) {
+            clear(index);
+            return;
+        }
+
+        for (CubeTileSide side : TILE_SIDES) {
+            setTile(index, side, tile.getTileset(side), tile.getTileId(side));
+        }
+    }
+
+    public int getSizeInBytes() {
+        return capacity * BYTES_PER_TILE;
+    }
+}
@@ -0,0 +1,30 @@
+package wilds.voxeleditor.core.models.storage;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Fixed length array of palette indices as used by the PalettedMapStorage.
+ * Implementations decide where the indices live, on the java heap or in native memory.
+ */
+public interface PaletteIndexArray {
+
+    int get(int index);
+
+    void set(int index, int value);
+
+    /**
+     * Makes sure values up to maxValue fit, all existing values are kept
+     *
+     * @param maxValue the biggest value that should fit in an entry
+     */
+    void ensureCapacity(int maxValue);
+
+    int getBitsPerEntry();
+
+    int length();
+
+    /**
+     * @return size of the index data in bytes
+     */
+    int getSizeInBytes();
+}
@@ -0,0 +1,201 @@
+package wilds.voxeleditor.core.models.storage;
+
+import wilds.voxeleditor.core.models.Tileset;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTile;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileRegistry;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileSide;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+import java.util.function.Predicate;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Palette compressed storage. The palette holds the shared cube tiles used in this storage,
+ * tiles only keep a palette index. By default the indices are bit packed and widen as the palette grows.
+ * Palette index 0 is the empty tile. Unused palette entries are recycled.
+ * <p>
+ * The palette always lives on the heap, the index array can live elsewhere.
+ * A new storage expects all of its indices to be 0. Cube tiles are interned by the registry the storage was given,
+ * storages of the same map share one registry.
+ */
+public class PalettedMapStorage implements MapStorage {
+
+    private static final int EMPTY_ENTRY = 0;
+
+    private final PaletteIndexArray indices;
+    private final CubeTileRegistry tileRegistry;
+    private final ObjectArrayList<CubeTile> palette;
+    private final Object2IntOpenHashMap<CubeTile> paletteLookup;
+    private final IntArrayList freeEntries;
+    private int[] referenceCounts;
+
+    public PalettedMapStorage(int capacity) {
+        this(new BitPackedArray(capacity), new CubeTileRegistry());
+    }
+
+    public PalettedMapStorage(PaletteIndexArray indices, CubeTileRegistry tileRegistry) {
+        this.indices = indices;
+        this.tileRegistry = tileRegistry;
+        palette = new ObjectArrayList<>();
+        paletteLookup = new Object2IntOpenHashMap<>();
+        paletteLookup.defaultReturnValue(-1);
+        freeEntries = new IntArrayList();
+        referenceCounts = new int[4];
+
+        palette.add(null);
+        referenceCounts[EMPTY_ENTRY] = indices.length();
+    }
+
+    @Override
+    public int getCapacity() {
+        return indices.length();
+    }
+
+    @Override
+    public boolean isEmpty(int index) {
+        return indices.get(index) == EMPTY_ENTRY;
+    }
+
+    @Override
+    public short getTileId(int index, CubeTileSide side) {
+        CubeTile tile = palette.get(indices.get(index));
+        return tile == null ? CubeTile.EMPTY_TILE_ID : tile.getTileId(side);
+    }
+
+    @Override
+    public Tileset getTileset(int index, CubeTileSide side) {
+        CubeTile tile = palette.get(indices.get(index));
+        return tile == null ? null : tile.getTileset(side);
+    }
+
+    @Override
+    public void setTile(int index, CubeTileSide side, Tileset tileset, short id) {
+        CubeTile tile = palette.get(indices.get(index));
+        setCubeTile(index, tileRegistry.withTile(tile, side, tileset, id));
+    }
+
+    @Override
+    public void fillTile(int index, Tileset tileset, short id) {
+        setCubeTile(index, tileRegistry.filled(tileset, id));
+    }
+
+    @Override
+    public void clear(int index) {
+        setEntry(index, EMPTY_ENTRY);
+    }
+
+    @Override
+    public CubeTile getCubeTile(int index) {
+        return palette.get(indices.get(index));
+    }
+
+    @Override
+    public void setCubeTile(int index, CubeTile tile) {
+        tile = tileRegistry.intern(tile);
+        if (tile == null) {
+            setEntry(index, EMPTY_ENTRY);
+            return;
+        }
+
+        int entry = paletteLookup.getInt(tile);
+        if (entry < 0) {
+            entry = addEntry(tile);
+        }
+
+        setEntry(index, entry);
+    }
+
+    /**
+     * @return amount of palette entries in use, including the empty entry
+     */
+    public int getPaletteSize() {
+        return palette.size() - freeEntries.size();
+    }
+
+    /**
+     * @return true if any cube tile in the palette matches, the empty entry and recycled entries are skipped
+     */
+    public boolean anyPaletteTile(Predicate<CubeTile> predicate) {
+        for (int entry = 1; entry < palette.size(); entry++) {
+            CubeTile tile = palette.get(entry);
+            if (tile != null && predicate.test(tile)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public int getBitsPerEntry() {
+        return indices.getBitsPerEntry();
+    }
+
+    public int getSizeInBytes() {
+        return indices.getSizeInBytes();
+    }
+
+    /**
+     * Copies the palette and all indices of this storage into another storage
+     *
+     * @param target empty storage with the same capacity
+     */
+    public void copyTo(PalettedMapStorage target) {
+        target.palette.clear();
+        target.palette.addAll(palette);
+        target.paletteLookup.clear();
+        target.paletteLookup.putAll(paletteLookup);
+        target.freeEntries.clear();
+        target.freeEntries.addAll(freeEntries);
+        target.referenceCounts = referenceCounts.clone();
+
+        target.indices.ensureCapacity(palette.size() - 1);
+        for (int i = 0; i < indices.length(); i++) {
+            int entry = indices.get(i);
+            if (entry != EMPTY_ENTRY) {
+                target.indices.set(i, entry);
+            }
+        }
+    }
+
+    private int addEntry(CubeTile tile) {
+        int entry;
+        if (freeEntries.isEmpty()) {
+            entry = palette.size();
+            palette.add(tile);
+
+            if (entry >= referenceCounts.length) {
+                int[] counts = new int[referenceCounts.length * 2];
+                System.arraycopy(referenceCounts, 0, counts, 0, referenceCounts.length);
+                referenceCounts = counts;
+            }
+
+            indices.ensureCapacity(entry);
+        } else {
+            entry = freeEntries.popInt();
+            palette.set(entry, tile);
+        }
+
+        paletteLookup.put(tile, entry);
+        return entry;
+    }
+
+    private void setEntry(int index, int entry) {
+        int oldEntry = indices.get(index);
+        if (oldEntry == entry) {
+            return;
+        }
+
+        indices.set(index, entry);
+        referenceCounts[entry]++;
+
+        if (--referenceCounts[oldEntry] == 0 && oldEntry != EMPTY_ENTRY) {
+            paletteLookup.removeInt(palette.get(oldEntry));
+            palette.set(oldEntry, null);
+            freeEntries.add(oldEntry);
+        }
+    }
+}
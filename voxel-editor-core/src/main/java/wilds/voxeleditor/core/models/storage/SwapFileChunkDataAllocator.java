@@ -0,0 +1,164 @@
+package wilds.voxeleditor.core.models.storage;
+
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileRegistry;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Keeps the palette indices, occupancy and exposed sides of chunks in a temporary swap file that is mapped
+ * into memory, so the OS can page that part of the tile data out instead of the java heap holding it.
+ * The file starts empty and is deleted when the allocator is disposed at the latest, on Linux and macOS it is
+ * already unlinked when it is opened. It is not a save format, a map is still read completely from its map file
+ * when it is opened.
+ * <p>
+ * Only the fixed size part of the chunk data moves to the file. Palette indices are always 16 bits per tile,
+ * see BufferPaletteIndexArray, so every allocated chunk takes CHUNK_BYTES of the file however few tiles it uses.
+ * The palettes hold tile references and stay on the heap, as do the chunks themselves. The heap still grows
+ * with the amount of allocated chunks, just by less per chunk.
+ * <p>
+ * The data is stored in slots of CHUNK_BYTES, a chunk gets the slot at its own chunk index when that slot is free,
+ * copies of chunk data made for snapshots take the first free slot. The file is mapped in regions of REGION_CHUNKS
+ * slots when the first slot of a region is handed out, untouched regions never take up memory.
+ * <p>
+ * A slot is freed once the garbage collector found its chunk data unreachable, so data still read
+ * by a snapshot is never overwritten. Reused slots are zeroed before they are handed out again.
+ */
+public class SwapFileChunkDataAllocator implements ChunkDataAllocator {
+
+    private static final Logger LOGGER = LogManager.getLogger(SwapFileChunkDataAllocator.class);
+
+    public static final int CHUNK_BYTES = ChunkData.BUFFER_BYTES;
+    public static final int REGION_CHUNKS = 64;
+
+    private static final byte[] EMPTY_SLOT = new byte[CHUNK_BYTES];
+
+    private final Path path;
+    private final FileChannel channel;
+    private final Int2ObjectMap<MappedByteBuffer> regions;
+
+    private final BitSet usedSlots;
+    private final BitSet dirtySlots;
+    private final Int2ObjectMap<SlotReference> slotReferences;
+    private final ReferenceQueue<ChunkData> releasedData;
+
+    /**
+     * Creates the swap file, an existing file is truncated. The file is deleted when this allocator is disposed
+     *
+     * @param path of the swap file to map the chunk data to
+     * @throws IOException when the file could not be created
+     */
+    public SwapFileChunkDataAllocator(Path path) throws IOException {
+        this.path = path;
+
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        regions = new Int2ObjectOpenHashMap<>();
+
+        usedSlots = new BitSet();
+        dirtySlots = new BitSet();
+        slotReferences = new Int2ObjectOpenHashMap<>();
+        releasedData = new ReferenceQueue<>();
+    }
+
+    @Override
+    public ChunkData allocate(int chunkIndex, CubeTileRegistry tileRegistry) {
+        releaseSlots();
+
+        int slot = usedSlots.get(chunkIndex) ? usedSlots.nextClearBit(0) : chunkIndex;
+        ByteBuffer chunkBuffer = getRegion(slot / REGION_CHUNKS).duplicate();
+        int offset = (slot % REGION_CHUNKS) * CHUNK_BYTES;
+        chunkBuffer.position(offset);
+        chunkBuffer.limit(offset + CHUNK_BYTES);
+
+        ByteBuffer slotBuffer = chunkBuffer.slice();
+        if (dirtySlots.get(slot)) {
+            slotBuffer.duplicate().put(EMPTY_SLOT);
+        }
+
+        ChunkData data = ChunkData.fromBuffer(slotBuffer, tileRegistry);
+        usedSlots.set(slot);
+        dirtySlots.set(slot);
+        slotReferences.put(slot, new SlotReference(data, releasedData, slot));
+
+        return data;
+    }
+
+    /**
+     * @return amount of slots that hold chunk data that may still be read
+     */
+    public int getUsedSlotCount() {
+        releaseSlots();
+        return usedSlots.cardinality();
+    }
+
+    @Override
+    public void dispose() {
+        regions.clear();
+        slotReferences.clear();
+        usedSlots.clear();
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.warn(String.format("Could not close chunk swap file: %s", path), e);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    private void releaseSlots() {
+        Reference<? extends ChunkData> reference;
+        while ((reference = releasedData.poll()) != null) {
+            int slot = ((SlotReference) reference).slot;
+            slotReferences.remove(slot);
+            usedSlots.clear(slot);
+        }
+    }
+
+    private MappedByteBuffer getRegion(int regionIndex) {
+        MappedByteBuffer region = regions.get(regionIndex);
+
+        if (region == null) {
+            long regionBytes = (long) REGION_CHUNKS * CHUNK_BYTES;
+
+            try {
+                region = channel.map(FileChannel.MapMode.READ_WRITE, regionIndex * regionBytes, regionBytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(String.format("Could not map chunk swap file: %s", path), e);
+            }
+
+            regions.put(regionIndex, region);
+        }
+
+        return region;
+    }
+
+    private static final class SlotReference extends PhantomReference<ChunkData> {
+
+        private final int slot;
+
+        SlotReference(ChunkData data, ReferenceQueue<ChunkData> queue, int slot) {
+            super(data, queue);
+            this.slot = slot;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package wilds.voxeleditor.core.models.storage;
+
+import java.nio.LongBuffer;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Decides the local index of a tile within its chunk. The tile data, the occupancy bits and the exposed sides
+ * of a chunk are all addressed by the local index, so the layout orders all three the same way.
+ * <p>
+ * RowMajor is (z << 8) | (y << 4) | x. Neighbours along y are 16 tiles apart and neighbours along z 256.
+ * Morton interleaves the bits of x, y and z as ...z1y1x1z0y0x0 (z-order curve), so every aligned 2x2x2 block
+ * is 8 consecutive tiles and every aligned 4x4x4 block shares one long of occupancy bits.
+ * <p>
+ * Chunk indices are row major in both layouts, a chunk is the unit that is allocated and published.
+ */
+public enum TileLayout {
+    RowMajor {
+        @Override
+        public int toLocalIndex(int localX, int localY, int localZ) {
+            return (localZ << (MapChunk.SIZE_BITS * 2)) | (localY << MapChunk.SIZE_BITS) | localX;
+        }
+
+        @Override
+        public int getLocalX(int localIndex) {
+            return localIndex & MapChunk.SIZE_MASK;
+        }
+
+        @Override
+        public int getLocalY(int localIndex) {
+            return (localIndex >> MapChunk.SIZE_BITS) & MapChunk.SIZE_MASK;
+        }
+
+        @Override
+        public int getLocalZ(int localIndex) {
+            return localIndex >> (MapChunk.SIZE_BITS * 2);
+        }
+
+        @Override
+        int getRowBits(LongBuffer occupancy, int localY, int localZ) {
+            // a row is 16 consecutive bits, 4 rows share one long
+            int row = (localZ << MapChunk.SIZE_BITS) | localY;
+            int shift = (row & 3) << MapChunk.SIZE_BITS;
+
+            return (int) ((occupancy.get(row >>> 2) >>> shift) & 0xffff);
+        }
+    },
+    Morton {
+        @Override
+        public int toLocalIndex(int localX, int localY, int localZ) {
+            return SPREAD[localX] | (SPREAD[localY] << 1) | (SPREAD[localZ] << 2);
+        }
+
+        @Override
+        public int getLocalX(int localIndex) {
+            return compact(localIndex);
+        }
+
+        @Override
+        public int getLocalY(int localIndex) {
+            return compact(localIndex >>> 1);
+        }
+
+        @Override
+        public int getLocalZ(int localIndex) {
+            return compact(localIndex >>> 2);
+        }
+
+        @Override
+        int getRowBits(LongBuffer occupancy, int localY, int localZ) {
+            // x bit n lands on index bit 3n. Bits 0 and 1 of x pick one of 4 bits inside a long,
+            // bits 2 and 3 of x pick one of 4 longs
+            int base = toLocalIndex(0, localY, localZ);
+            int word = base >>> 6;
+            int shift = base & 63;
+            int bits = 0;
+
+            for (int block = 0; block < 4; block++) {
+                long value = occupancy.get(word | (block & 1) | ((block & 2) << 2)) >>> shift;
+                bits |= (int) ((value & 3) | ((value >>> 6) & 0xc)) << (block << 2);
+            }
+
+            return bits;
+        }
+    };
+
+    private static final int[] SPREAD = new int[MapChunk.SIZE];
+
+    static {
+        for (int value = 0; value < MapChunk.SIZE; value++) {
+            SPREAD[value] = (value & 1) | ((value & 2) << 2) | ((value & 4) << 4) | ((value & 8) << 6);
+        }
+    }
+
+    public abstract int toLocalIndex(int localX, int localY, int localZ);
+
+    public abstract int getLocalX(int localIndex);
+
+    public abstract int getLocalY(int localIndex);
+
+    public abstract int getLocalZ(int localIndex);
+
+    /**
+     * Gets the occupancy bits of a row of tiles along the x axis, bit n is local x n
+     */
+    abstract int getRowBits(LongBuffer occupancy, int localY, int localZ);
+
+    private static int compact(int bits) {
+        return (bits & 1) | ((bits >>> 2) & 2) | ((bits >>> 4) & 4) | ((bits >>> 6) & 8);
+    }
+}
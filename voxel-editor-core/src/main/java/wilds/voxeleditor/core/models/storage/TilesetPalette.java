@@ -0,0 +1,57 @@
+package wilds.voxeleditor.core.models.storage;
+
+import wilds.voxeleditor.core.models.Tileset;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Maps tilesets to small slot numbers so the storage only has to keep a byte per tile side.
+ * Slot 0 is reserved for "no tileset".
+ */
+public class TilesetPalette {
+
+    public static final int EMPTY_SLOT = 0;
+    public static final int MAX_SLOTS = 256;
+
+    private final List<Tileset> tilesets;
+
+    public TilesetPalette() {
+        tilesets = new ArrayList<>();
+        tilesets.add(null);
+    }
+
+    /**
+     * Gets the slot of the tileset, registers the tileset if it is not known yet
+     *
+     * @param tileset to get the slot for
+     * @return slot of the tileset
+     */
+    public int getSlot(Tileset tileset) {
+        if (tileset == null) {
+            return EMPTY_SLOT;
+        }
+
+        int slot = tilesets.indexOf(tileset);
+        if (slot >= 0) {
+            return slot;
+        }
+
+        if (tilesets.size() >= MAX_SLOTS) {
+            throw new IllegalStateException(String.format("Tileset palette is full, cannot add: %s", tileset.getName()));
+        }
+
+        tilesets.add(tileset);
+        return tilesets.size() - 1;
+    }
+
+    public Tileset getTileset(int slot) {
+        return tilesets.get(slot);
+    }
+
+    public int size() {
+        return tilesets.size();
+    }
+}
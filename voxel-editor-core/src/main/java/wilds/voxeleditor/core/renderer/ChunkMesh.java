@@ -0,0 +1,291 @@
+package wilds.voxeleditor.core.renderer;
+
+import wilds.voxeleditor.core.models.storage.ChunkSnapshot;
+import wilds.voxeleditor.core.models.storage.MapChunk;
+
+import wilds.rune.renderer.IDisposable;
+
+import com.jogamp.opengl.GL2ES2;
+import org.joml.FrustumIntersection;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * The cached vertices of one chunk in static quad buffers. The mesh remembers the storage version it was last
+ * requested at, it is dirty when a newer snapshot of the chunk has been published. The storage publishes a new
+ * snapshot when the chunk or the facing border of one of its neighbours has been written to.
+ * Meshes are built asynchronously so the uploaded vertices can lag behind the requested version.
+ * <p>
+ * The mesh keeps the bounds of its uploaded vertices, which is tighter than the chunk when it is partially filled.
+ * Vertices are split up in one buffer per atlas page so every page can be drawn with its own texture.
+ * Within a page buffer the quads are ordered by layer. When the quads were split per layer any set of layers is drawn
+ * as a few ranges of that buffer, otherwise a quad can cover several layers and the mesh is drawn as a whole.
+ */
+public class ChunkMesh implements IDisposable {
+
+    /**
+     * Layer mask with all layers of a chunk
+     */
+    public static final int ALL_LAYERS = (1 << MapChunk.SIZE) - 1;
+
+    private final int chunkIndex;
+    private final int chunkX;
+    private final int chunkY;
+    private final int chunkZ;
+
+    private QuadBuffer[] pageBuffers = new QuadBuffer[0];
+    private int[] layerOffsets = new int[0];
+    private int quadCount;
+    private boolean layerSplit;
+    private long builtVersion = -1;
+    private long requestedVersion = -1;
+
+    /**
+     * Min and max corner of the vertices in tiles relative to the chunk origin, in world axes
+     */
+    private final int[] bounds = new int[6];
+
+    public ChunkMesh(ChunkSnapshot chunk) {
+        chunkIndex = chunk.getChunkIndex();
+        chunkX = chunk.getChunkX();
+        chunkY = chunk.getChunkY();
+        chunkZ = chunk.getChunkZ();
+    }
+
+    /**
+     * @param chunk published snapshot of the chunk of this mesh
+     */
+    public boolean isDirty(ChunkSnapshot chunk) {
+        return chunk.getVersion() > requestedVersion;
+    }
+
+    /**
+     * Marks that a new mesh has been requested for the given storage version
+     */
+    public void setRequestedVersion(long requestedVersion) {
+        this.requestedVersion = requestedVersion;
+    }
+
+    /**
+     * Makes the mesh dirty whatever version it was built from, the current vertices are kept
+     * and drawn until new ones are uploaded
+     */
+    public void invalidate() {
+        requestedVersion = -1;
+        builtVersion = -1;
+    }
+
+    /**
+     * Forgets a requested mesh that will never be uploaded, the mesh is dirty again if it is behind its chunk
+     */
+    public void cancelRequest() {
+        requestedVersion = builtVersion;
+    }
+
+    /**
+     * Replaces the vertices of this mesh
+     *
+     * @param vertices     in the packed TileBatch vertex format, ordered by atlas page
+     * @param pageOffsets  byte offset of every page in the vertices, see ChunkMesher.getPageOffsets
+     * @param layerOffsets quad offset of every layer in every page, see ChunkMesher.getLayerOffsets
+     * @param builtVersion storage version the vertices were built from
+     * @param layerSplit   true if every quad stays within one layer
+     */
+    public void upload(GL2ES2 gl, byte[] vertices, int[] pageOffsets, int[] layerOffsets, long builtVersion,
+                       boolean layerSplit) {
+        this.builtVersion = builtVersion;
+        this.layerOffsets = layerOffsets;
+        this.layerSplit = layerSplit;
+        disposeBuffers();
+
+        int pageCount = pageOffsets.length - 1;
+        int quadBytes = TileBatch.PACKED_VERTEX_BYTES * 4;
+        quadCount = pageOffsets[pageCount] / quadBytes;
+        pageBuffers = new QuadBuffer[pageCount];
+
+        if (quadCount == 0) {
+            return;
+        }
+
+        Arrays.fill(bounds, 0, 3, Integer.MAX_VALUE);
+        Arrays.fill(bounds, 3, 6, Integer.MIN_VALUE);
+
+        for (int i = 0; i < pageOffsets[pageCount]; i += TileBatch.PACKED_VERTEX_BYTES) {
+            for (int axis = 0; axis < 3; axis++) {
+                int position = vertices[i + axis] & 0xFF;
+                bounds[axis] = Math.min(bounds[axis], position);
+                bounds[axis + 3] = Math.max(bounds[axis + 3], position);
+            }
+        }
+
+        for (int page = 0; page < pageCount; page++) {
+            int pageBytes = pageOffsets[page + 1] - pageOffsets[page];
+            if (pageBytes > 0) {
+                ByteBuffer pageVertices = ByteBuffer.wrap(vertices, pageOffsets[page], pageBytes);
+                pageBuffers[page] = new QuadBuffer(gl, pageVertices, pageBytes / quadBytes);
+            }
+        }
+    }
+
+    /**
+     * @param tileSize of the map in world units
+     * @return true if the mesh has vertices and its bounds touch the frustum
+     */
+    public boolean isVisible(FrustumIntersection frustum, int tileSize) {
+        if (quadCount == 0) {
+            return false;
+        }
+
+        // world y is tile z and world z is tile y
+        float originX = (chunkX << MapChunk.SIZE_BITS) * tileSize;
+        float originY = (chunkZ << MapChunk.SIZE_BITS) * tileSize;
+        float originZ = (chunkY << MapChunk.SIZE_BITS) * tileSize;
+
+        return frustum.testAab(originX + bounds[0] * tileSize, originY + bounds[1] * tileSize,
+                originZ + bounds[2] * tileSize, originX + bounds[3] * tileSize, originY + bounds[4] * tileSize,
+                originZ + bounds[5] * tileSize);
+    }
+
+    /**
+     * Renders the quads that use the given atlas page, the page texture should be set on the batch
+     */
+    public void render(TileBatch tileBatch, int page) {
+        render(tileBatch, page, ALL_LAYERS);
+    }
+
+    /**
+     * Renders the quads of the given layers that use the given atlas page, every run of consecutive layers
+     * is one draw call. A mesh that is not split per layer draws all of its quads for any layer
+     *
+     * @param layerMask bit n is set to draw layer n of this chunk, counted from the bottom of the chunk
+     */
+    public void render(TileBatch tileBatch, int page, int layerMask) {
+        if (page >= pageBuffers.length || pageBuffers[page] == null) {
+            return;
+        }
+
+        layerMask = getDrawnLayers(layerMask);
+
+        int pageLayers = page * (MapChunk.SIZE + 1);
+        int layer = 0;
+
+        while (layer < MapChunk.SIZE) {
+            if ((layerMask & (1 << layer)) == 0) {
+                layer++;
+                continue;
+            }
+
+            int end = layer + 1;
+            while (end < MapChunk.SIZE && (layerMask & (1 << end)) != 0) {
+                end++;
+            }
+
+            int firstQuad = layerOffsets[pageLayers + layer];
+            int quadCount = layerOffsets[pageLayers + end] - firstQuad;
+            if (quadCount > 0) {
+                tileBatch.renderQuads(pageBuffers[page], chunkX << MapChunk.SIZE_BITS, chunkZ << MapChunk.SIZE_BITS,
+                        chunkY << MapChunk.SIZE_BITS, firstQuad, quadCount);
+            }
+
+            layer = end;
+        }
+    }
+
+    /**
+     * @param layerMask bit n is set for layer n of this chunk, counted from the bottom of the chunk
+     * @return amount of quads in the given layers over all pages
+     */
+    public int getQuadCount(int layerMask) {
+        layerMask = getDrawnLayers(layerMask);
+        if ((layerMask & ALL_LAYERS) == ALL_LAYERS) {
+            return quadCount;
+        }
+
+        int count = 0;
+        for (int page = 0; page < pageBuffers.length; page++) {
+            int pageLayers = page * (MapChunk.SIZE + 1);
+            for (int layer = 0; layer < MapChunk.SIZE; layer++) {
+                if ((layerMask & (1 << layer)) != 0) {
+                    count += layerOffsets[pageLayers + layer + 1] - layerOffsets[pageLayers + layer];
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * A quad of a mesh that is not split per layer can reach into layers that are not drawn,
+     * such a mesh is drawn as a whole until it is built again with split layers
+     */
+    private int getDrawnLayers(int layerMask) {
+        return layerSplit || (layerMask & ALL_LAYERS) == 0 ? layerMask : ALL_LAYERS;
+    }
+
+    /**
+     * @return true if every quad stays within one layer, so layers can be drawn on their own
+     */
+    public boolean isLayerSplit() {
+        return layerSplit;
+    }
+
+    @Override
+    public void dispose() {
+        disposeBuffers();
+        pageBuffers = new QuadBuffer[0];
+        quadCount = 0;
+    }
+
+    private void disposeBuffers() {
+        for (QuadBuffer buffer : pageBuffers) {
+            if (buffer != null) {
+                buffer.dispose();
+            }
+        }
+    }
+
+    public int getChunkIndex() {
+        return chunkIndex;
+    }
+
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    public int getChunkY() {
+        return chunkY;
+    }
+
+    public int getChunkZ() {
+        return chunkZ;
+    }
+
+    public int getQuadCount() {
+        return quadCount;
+    }
+
+    /**
+     * @return size of the vertices of this mesh on the GPU
+     */
+    public int getSizeInBytes() {
+        int size = 0;
+        for (QuadBuffer buffer : pageBuffers) {
+            if (buffer != null) {
+                size += buffer.getSizeInBytes();
+            }
+        }
+
+        return size;
+    }
+
+    public long getBuiltVersion() {
+        return builtVersion;
+    }
+
+    public long getRequestedVersion() {
+        return requestedVersion;
+    }
+}
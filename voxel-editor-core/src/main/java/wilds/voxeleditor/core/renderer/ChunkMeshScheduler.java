@@ -0,0 +1,174 @@
+package wilds.voxeleditor.core.renderer;
+
+import wilds.voxeleditor.core.models.storage.ChunkSnapshot;
+
+import wilds.rune.renderer.IDisposable;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Builds chunk meshes on a pool of worker threads. Workers only read chunk snapshots and produce vertex arrays,
+ * finished meshes are queued until the GL thread polls them for upload.
+ * <p>
+ * Every submit is tagged with a generation, bumping the generation makes all work in flight stale.
+ */
+public class ChunkMeshScheduler implements IDisposable {
+
+    private static final Logger LOGGER = LogManager.getLogger(ChunkMeshScheduler.class);
+
+    private final ExecutorService workers;
+    private final ThreadLocal<ChunkMesher> meshers;
+    private final Queue<ChunkMeshData> finished;
+    private volatile int generation;
+
+    public ChunkMeshScheduler() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    public ChunkMeshScheduler(int workerCount) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, String.format("chunk-mesher-%s", threadCount.incrementAndGet()));
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        };
+
+        workers = Executors.newFixedThreadPool(workerCount, threadFactory);
+        meshers = ThreadLocal.withInitial(ChunkMesher::new);
+        finished = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Queues a chunk to be meshed
+     *
+     * @param hiddenSides sides to leave out of the mesh, see ChunkMesher.build
+     * @param splitLayers true to keep every quad within one layer, see ChunkMesher.build
+     */
+    public void submit(ChunkSnapshot snapshot, TileAtlas atlas, int hiddenSides, boolean splitLayers) {
+        int submitGeneration = generation;
+
+        workers.execute(() -> {
+            if (submitGeneration != generation) {
+                return;
+            }
+
+            try {
+                ChunkMesher mesher = meshers.get();
+                int byteCount = mesher.build(snapshot, atlas, hiddenSides, splitLayers);
+                byte[] vertices = Arrays.copyOf(mesher.getVertices(), byteCount);
+                int[] pageOffsets = mesher.getPageOffsets().clone();
+                int[] layerOffsets = mesher.getLayerOffsets().clone();
+
+                finished.add(new ChunkMeshData(submitGeneration, snapshot.getChunkIndex(), snapshot.getVersion(),
+                        vertices, pageOffsets, layerOffsets, splitLayers));
+            } catch (RuntimeException e) {
+                LOGGER.error(String.format("Could not mesh chunk %s", snapshot.getChunkIndex()), e);
+            }
+        });
+    }
+
+    /**
+     * Gets the next finished mesh of the current generation
+     *
+     * @return the mesh or null if none are ready
+     */
+    public ChunkMeshData poll() {
+        ChunkMeshData data;
+        while ((data = finished.poll()) != null) {
+            if (data.generation == generation) {
+                return data;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Makes all submitted and finished work stale, used when the meshes are thrown away
+     */
+    public void nextGeneration() {
+        generation++;
+        finished.clear();
+    }
+
+    @Override
+    public void dispose() {
+        nextGeneration();
+        workers.shutdownNow();
+    }
+
+    /**
+     * CPU side result of meshing one chunk
+     */
+    public static final class ChunkMeshData {
+        private final int generation;
+        private final int chunkIndex;
+        private final long version;
+        private final byte[] vertices;
+        private final int[] pageOffsets;
+        private final int[] layerOffsets;
+        private final boolean layerSplit;
+
+        ChunkMeshData(int generation, int chunkIndex, long version, byte[] vertices, int[] pageOffsets,
+                      int[] layerOffsets, boolean layerSplit) {
+            this.generation = generation;
+            this.chunkIndex = chunkIndex;
+            this.version = version;
+            this.vertices = vertices;
+            this.pageOffsets = pageOffsets;
+            this.layerOffsets = layerOffsets;
+            this.layerSplit = layerSplit;
+        }
+
+        public int getChunkIndex() {
+            return chunkIndex;
+        }
+
+        /**
+         * @return storage version of the snapshot the mesh was built from
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * @see ChunkMesher#getVertices()
+         */
+        public byte[] getVertices() {
+            return vertices;
+        }
+
+        /**
+         * @see ChunkMesher#getPageOffsets()
+         */
+        public int[] getPageOffsets() {
+            return pageOffsets;
+        }
+
+        /**
+         * @see ChunkMesher#getLayerOffsets()
+         */
+        public int[] getLayerOffsets() {
+            return layerOffsets;
+        }
+
+        /**
+         * @return true if every quad stays within one layer
+         */
+        public boolean isLayerSplit() {
+            return layerSplit;
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package wilds.voxeleditor.core.renderer;
+
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTile;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileSide;
+import wilds.voxeleditor.core.models.storage.ChunkSnapshot;
+import wilds.voxeleditor.core.models.storage.MapChunk;
+
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Builds the vertices of all visible tile sides of a chunk in the packed TileBatch vertex format, 4 vertices per quad.
+ * A side is visible when the storage marked it as exposed, back faces are left to the GPU
+ * so the result does not depend on the camera and can be cached.
+ * <p>
+ * A camera that never changes its orientation can never see some sides at all, those sides can be left out
+ * of the build as a whole. Such a mesh is only valid for that orientation, see TileMapRenderer.setFixedOrientation.
+ * <p>
+ * Visible sides are greedy meshed, for every slice of the chunk adjacent sides with the same tile id and
+ * orientation are merged into one quad. A merged quad keeps the tile origin in its texture coordinate and
+ * counts tiles in its axis texture coordinate, the tile shader repeats the tile with fract.
+ * <p>
+ * Texture coordinates come from the TileAtlas. Sides only merge when they share tileset and tile id, the quads of a build
+ * are ordered by atlas page so every page is one consecutive range of vertices. Sides with a tile id outside of their
+ * tileset are left out.
+ * <p>
+ * Within a page the quads are ordered by layer, the lowest tile z they cover. A mesh built with split layers only
+ * merges sides along the layers within one layer, so any range of layers can be drawn without building the mesh
+ * again. That costs quads on walls and slopes, stepped terrain needs about a third more quads than when sides
+ * merge across layers. Meshes are only built with split layers while layers are hidden or isolated,
+ * see TileMapRenderer.
+ * <p>
+ * All work happens in world axes: x is tile x, y is tile z and z is tile y.
+ * <p>
+ * The mesher only reads chunk snapshots so it can run on any thread, a mesher instance itself is not thread safe.
+ */
+public class ChunkMesher {
+
+    private static final CubeTileSide[] SIDES = CubeTileSide.values();
+    private static final int QUAD_BYTES = TileBatch.PACKED_VERTEX_BYTES * 4;
+    private static final int TEXCOORD_SCALE = 0xFFFF;
+    private static final int EMPTY_KEY = -1;
+
+    /**
+     * Side mask with every side set, bit n is the side with ordinal n
+     */
+    public static final int ALL_SIDES = (1 << SIDES.length) - 1;
+
+    private static final int[] NORMAL_AXES = new int[SIDES.length];
+    private static final int[] U_AXES = new int[SIDES.length];
+    private static final int[] V_AXES = new int[SIDES.length];
+
+    static {
+        for (CubeTileSide side : SIDES) {
+            int sideIndex = side.ordinal();
+            Vector3f axis = side.getAxis();
+            NORMAL_AXES[sideIndex] = axis.x != 0 ? 0 : axis.y != 0 ? 1 : 2;
+
+            // u changes between corner 0 and 3, v changes between corner 0 and 1
+            short[] faceIndices = TileBatch.CUBE_FACE_INDICES[sideIndex];
+            U_AXES[sideIndex] = changedAxis(TileBatch.CUBE_POSITIONS[faceIndices[0]], TileBatch.CUBE_POSITIONS[faceIndices[3]]);
+            V_AXES[sideIndex] = changedAxis(TileBatch.CUBE_POSITIONS[faceIndices[0]], TileBatch.CUBE_POSITIONS[faceIndices[1]]);
+        }
+    }
+
+    private final int[] mask;
+    private final int[] local;
+    private final int[] corner;
+
+    private byte[] vertices;
+    private byte[] sortedVertices;
+    private ByteBuffer vertexWriter;
+    private int[] quadKeys;
+    private int[] pageOffsets;
+    private int[] layerOffsets;
+    private int byteCount;
+    private int quadCount;
+    private int sideCount;
+
+    public ChunkMesher() {
+        mask = new int[MapChunk.SIZE * MapChunk.SIZE];
+        local = new int[3];
+        corner = new int[3];
+        vertices = new byte[QUAD_BYTES * 256];
+        sortedVertices = new byte[vertices.length];
+        vertexWriter = ByteBuffer.wrap(vertices).order(ByteOrder.nativeOrder());
+        quadKeys = new int[256];
+        pageOffsets = new int[2];
+        layerOffsets = new int[MapChunk.SIZE + 1];
+    }
+
+    /**
+     * Builds the vertices of all sides of a chunk, they can be read with getVertices until the next build
+     *
+     * @param atlas to take the texture coordinates from
+     * @return amount of bytes written
+     */
+    public int build(ChunkSnapshot chunk, TileAtlas atlas) {
+        return build(chunk, atlas, 0, false);
+    }
+
+    /**
+     * Builds the vertices of a chunk, they can be read with getVertices until the next build
+     *
+     * @param atlas       to take the texture coordinates from
+     * @param hiddenSides side mask of the sides to leave out, bit n is the side with ordinal n
+     * @param splitLayers true to keep every quad within one layer so layers can be drawn on their own
+     * @return amount of bytes written
+     */
+    public int build(ChunkSnapshot chunk, TileAtlas atlas, int hiddenSides, boolean splitLayers) {
+        byteCount = 0;
+        quadCount = 0;
+        sideCount = 0;
+
+        for (CubeTileSide side : SIDES) {
+            int sideIndex = side.ordinal();
+            if ((hiddenSides & 1 << sideIndex) != 0) {
+                continue;
+            }
+
+            int normalAxis = NORMAL_AXES[sideIndex];
+            int axisA = normalAxis == 0 ? 1 : 0;
+            int axisB = normalAxis == 2 ? 1 : 2;
+
+            // world y runs through the layers
+            int maxWidth = splitLayers && axisA == 1 ? 1 : MapChunk.SIZE;
+            int maxHeight = splitLayers && axisB == 1 ? 1 : MapChunk.SIZE;
+
+            for (int slice = 0; slice < MapChunk.SIZE; slice++) {
+                if (!fillMask(chunk, atlas, side, slice, normalAxis, axisA, axisB)) {
+                    continue;
+                }
+
+                // greedy merge the mask into rectangles
+                for (int b = 0; b < MapChunk.SIZE; b++) {
+                    for (int a = 0; a < MapChunk.SIZE; ) {
+                        int key = mask[b * MapChunk.SIZE + a];
+                        if (key == EMPTY_KEY) {
+                            a++;
+                            continue;
+                        }
+
+                        int width = 1;
+                        while (width < maxWidth && a + width < MapChunk.SIZE
+                                && mask[b * MapChunk.SIZE + a + width] == key) {
+                            width++;
+                        }
+
+                        int height = 1;
+                        while (height < maxHeight && b + height < MapChunk.SIZE
+                                && isRowEqual(key, a, b + height, width)) {
+                            height++;
+                        }
+
+                        for (int clearB = b; clearB < b + height; clearB++) {
+                            Arrays.fill(mask, clearB * MapChunk.SIZE + a, clearB * MapChunk.SIZE + a + width, EMPTY_KEY);
+                        }
+
+                        TileAtlas.Region region = atlas.getRegion(key >>> Short.SIZE);
+                        short tileId = (short) key;
+                        putQuad(side, slice, axisA, a, width, axisB, b, height, region.getPage(),
+                                region.getTexCoordX(tileId), region.getTexCoordY(tileId));
+
+                        a += width;
+                    }
+                }
+            }
+        }
+
+        sortQuads(atlas.getPageCount());
+        return byteCount;
+    }
+
+    /**
+     * Positions are relative to the chunk origin, see TileBatch for the vertex format
+     *
+     * @return packed vertices of the last build ordered by atlas page
+     */
+    public byte[] getVertices() {
+        return vertices;
+    }
+
+    /**
+     * The vertices of page n are the bytes from getPageOffsets()[n] up to getPageOffsets()[n + 1]
+     *
+     * @return byte offsets of every page in the vertices of the last build, one more than the amount of pages
+     */
+    public int[] getPageOffsets() {
+        return pageOffsets;
+    }
+
+    /**
+     * The quads of layer n in page p are the quads from getLayerOffsets()[p * (SIZE + 1) + n] up to
+     * getLayerOffsets()[p * (SIZE + 1) + n + 1], counted from the start of the page
+     *
+     * @return quad offsets of every layer in every page of the last build, SIZE + 1 per page
+     */
+    public int[] getLayerOffsets() {
+        return layerOffsets;
+    }
+
+    /**
+     * @return amount of quads written by the last build
+     */
+    public int getQuadCount() {
+        return quadCount;
+    }
+
+    /**
+     * @return amount of visible tile sides covered by the last build, one quad per side without merging
+     */
+    public int getSideCount() {
+        return sideCount;
+    }
+
+    /**
+     * Fills the mask with the atlas region and tile id of the visible sides in one slice of the chunk
+     *
+     * @return true if at least one side is visible
+     */
+    private boolean fillMask(ChunkSnapshot chunk, TileAtlas atlas, CubeTileSide side, int slice, int normalAxis,
+                             int axisA, int axisB) {
+        boolean anyVisible = false;
+        local[normalAxis] = slice;
+
+        for (int b = 0; b < MapChunk.SIZE; b++) {
+            local[axisB] = b;
+
+            for (int a = 0; a < MapChunk.SIZE; a++) {
+                local[axisA] = a;
+
+                int key = EMPTY_KEY;
+                int localIndex = chunk.toLocalIndex(local[0], local[2], local[1]);
+
+                if (chunk.isFaceExposed(localIndex, side)) {
+                    short tileId = chunk.getTileId(localIndex, side);
+
+                    TileAtlas.Region region = atlas.getRegion(chunk.getTileset(localIndex, side));
+
+                    if (tileId != CubeTile.EMPTY_TILE_ID && region.hasTile(tileId)) {
+                        key = (region.getIndex() << Short.SIZE) | (tileId & 0xFFFF);
+                        anyVisible = true;
+                        sideCount++;
+                    }
+                }
+
+                mask[b * MapChunk.SIZE + a] = key;
+            }
+        }
+
+        return anyVisible;
+    }
+
+    private boolean isRowEqual(int key, int a, int b, int width) {
+        int rowStart = b * MapChunk.SIZE + a;
+        for (int i = 0; i < width; i++) {
+            if (mask[rowStart + i] != key) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void putQuad(CubeTileSide side, int slice, int axisA, int a, int width, int axisB, int b, int height,
+                         int page, float texCoordX, float texCoordY) {
+        ensureCapacity(byteCount + QUAD_BYTES);
+
+        int sideIndex = side.ordinal();
+        int normalAxis = NORMAL_AXES[sideIndex];
+        int layer = normalAxis == 1 ? slice : axisA == 1 ? a : b;
+        quadKeys[quadCount] = page * MapChunk.SIZE + layer;
+
+        short[] faceIndices = TileBatch.CUBE_FACE_INDICES[sideIndex];
+
+        int extentU = U_AXES[sideIndex] == axisA ? width : height;
+        int extentV = V_AXES[sideIndex] == axisA ? width : height;
+        short u = (short) Math.round(texCoordX * TEXCOORD_SCALE);
+        short v = (short) Math.round(texCoordY * TEXCOORD_SCALE);
+
+        for (int cornerIndex = 0; cornerIndex < 4; cornerIndex++) {
+            Vector3f position = TileBatch.CUBE_POSITIONS[faceIndices[cornerIndex]];
+            Vector2f axisTexCoord = TileBatch.AXIS_TEXTURE_COORDINATES[cornerIndex];
+
+            corner[0] = (int) position.x;
+            corner[1] = (int) position.y;
+            corner[2] = (int) position.z;
+            corner[normalAxis] = slice + corner[normalAxis];
+            corner[axisA] = a + corner[axisA] * width;
+            corner[axisB] = b + corner[axisB] * height;
+
+            vertexWriter.position(byteCount);
+            vertexWriter.put((byte) corner[0]);
+            vertexWriter.put((byte) corner[1]);
+            vertexWriter.put((byte) corner[2]);
+            vertexWriter.put((byte) sideIndex);
+            vertexWriter.putShort(u);
+            vertexWriter.putShort(v);
+            vertexWriter.put((byte) (axisTexCoord.x * extentU));
+            vertexWriter.put((byte) (axisTexCoord.y * extentV));
+            byteCount += TileBatch.PACKED_VERTEX_BYTES;
+        }
+
+        quadCount++;
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (bytes > vertices.length) {
+            vertices = Arrays.copyOf(vertices, Math.max(bytes, vertices.length * 2));
+            sortedVertices = new byte[vertices.length];
+            vertexWriter = ByteBuffer.wrap(vertices).order(ByteOrder.nativeOrder());
+        }
+
+        if (quadCount >= quadKeys.length) {
+            quadKeys = Arrays.copyOf(quadKeys, quadKeys.length * 2);
+        }
+    }
+
+    /**
+     * Counting sort of the quads on their page and layer, quads keep their order within a layer
+     */
+    private void sortQuads(int pageCount) {
+        int layerStride = MapChunk.SIZE + 1;
+        if (pageOffsets.length != pageCount + 1) {
+            pageOffsets = new int[pageCount + 1];
+            layerOffsets = new int[pageCount * layerStride];
+        } else {
+            Arrays.fill(pageOffsets, 0);
+            Arrays.fill(layerOffsets, 0);
+        }
+
+        for (int quad = 0; quad < quadCount; quad++) {
+            int page = quadKeys[quad] / MapChunk.SIZE;
+            int layer = quadKeys[quad] % MapChunk.SIZE;
+            pageOffsets[page + 1] += QUAD_BYTES;
+            layerOffsets[page * layerStride + layer + 1]++;
+        }
+
+        for (int page = 0; page < pageCount; page++) {
+            pageOffsets[page + 1] += pageOffsets[page];
+
+            for (int layer = 0; layer < MapChunk.SIZE; layer++) {
+                layerOffsets[page * layerStride + layer + 1] += layerOffsets[page * layerStride + layer];
+            }
+        }
+
+        int[] cursors = new int[pageCount * MapChunk.SIZE];
+        for (int page = 0; page < pageCount; page++) {
+            for (int layer = 0; layer < MapChunk.SIZE; layer++) {
+                cursors[page * MapChunk.SIZE + layer] = pageOffsets[page]
+                        + layerOffsets[page * layerStride + layer] * QUAD_BYTES;
+            }
+        }
+
+        for (int quad = 0; quad < quadCount; quad++) {
+            int key = quadKeys[quad];
+            System.arraycopy(vertices, quad * QUAD_BYTES, sortedVertices, cursors[key], QUAD_BYTES);
+            cursors[key] += QUAD_BYTES;
+        }
+
+        byte[] swap = vertices;
+        vertices = sortedVertices;
+        sortedVertices = swap;
+        vertexWriter = ByteBuffer.wrap(vertices).order(ByteOrder.nativeOrder());
+    }
+
+    private static int changedAxis(Vector3f from, Vector3f to) {
+        return from.x != to.x ? 0 : from.y != to.y ? 1 : 2;
+    }
+}
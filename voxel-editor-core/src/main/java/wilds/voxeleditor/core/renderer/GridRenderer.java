@@ -0,0 +1,153 @@
+package wilds.voxeleditor.core.renderer;
+
+import wilds.rune.renderer.IDisposable;
+import wilds.rune.renderer.IRenderer;
+import wilds.rune.renderer.gl.ShaderProgram;
+import wilds.rune.renderer.gl.VertexAttribute;
+import wilds.rune.renderer.gl.VertexBuffer;
+import wilds.rune.renderer.gl.states.BlendState;
+
+import com.jogamp.opengl.GL2ES2;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Draws the tile grid of a map layer from a static line buffer. The lines are stored in tiles on layer 0,
+ * the shader scales them by the tile size and lifts them to the layer, so the buffer only has to be rebuilt
+ * when the width or height of the map changes. Lines fade out with their distance to the camera.
+ */
+public class GridRenderer implements IDisposable {
+
+    private final IRenderer<GL2ES2> renderer;
+    private final Vector3f lineVertex = new Vector3f();
+
+    private final String gridVertShader = "attribute vec3 " + ShaderProgram.POSITION_ATTRIBUTE + ";" +
+            "uniform mat4 " + ShaderProgram.VIEW_MATRIX_UNIFORM + ";" +
+            "uniform mat4 " + ShaderProgram.PROJECTION_MATRIX_UNIFORM + ";" +
+            "uniform float u_worldTileSize;" +
+            "uniform float u_layer;" +
+            "varying float distanceToVertex;" +
+
+            "void main()" +
+            "{" +
+            "vec3 position = vec3(" + ShaderProgram.POSITION_ATTRIBUTE + ".x, u_layer, " +
+            ShaderProgram.POSITION_ATTRIBUTE + ".z) * u_worldTileSize;" +
+            "vec4 cameraSpaceVertex = " + ShaderProgram.VIEW_MATRIX_UNIFORM + " * vec4(position, 1);" +
+            "distanceToVertex = length(cameraSpaceVertex);" +
+
+            "gl_Position = " + ShaderProgram.PROJECTION_MATRIX_UNIFORM + " * cameraSpaceVertex;" +
+            "}";
+
+    private final String gridFragShader = "precision mediump float;" +
+            "varying float distanceToVertex;" +
+            "uniform vec4 u_color;" +
+            "uniform float u_fadeStart;" +
+            "uniform float u_fadeEnd;" +
+
+            "void main()" +
+            "{" +
+            "float fade = 1.0 - smoothstep(u_fadeStart, u_fadeEnd, distanceToVertex);" +
+            "gl_FragColor = vec4(u_color.rgb, u_color.a * fade);" +
+            "}";
+
+    private ShaderProgram shader;
+    private VertexBuffer lineBuffer;
+    private int builtWidth = -1;
+    private int builtHeight = -1;
+
+    private float red = 0.5f;
+    private float green = 0.5f;
+    private float blue = 0.5f;
+    private float alpha = 1f;
+    private float fadeStart = 1024f;
+    private float fadeEnd = 4096f;
+
+    public GridRenderer(IRenderer<GL2ES2> renderer) {
+        this.renderer = renderer;
+    }
+
+    public void create() {
+        shader = ShaderProgram.createShaderProgram(renderer.getGL(), gridVertShader, gridFragShader);
+    }
+
+    @Override
+    public void dispose() {
+        shader.dispose();
+
+        if (lineBuffer != null) {
+            lineBuffer.dispose();
+            lineBuffer = null;
+        }
+    }
+
+    /**
+     * Draws the grid of one layer in a single draw call
+     *
+     * @param width    of the map in tiles
+     * @param height   of the map in tiles
+     * @param tileSize of the map in world units
+     * @param layer    tile z of the layer, the grid lies on the bottom of the tiles of that layer
+     */
+    public void render(Matrix4f view, Matrix4f projection, int width, int height, int tileSize, int layer) {
+        if (width != builtWidth || height != builtHeight) {
+            buildLines(width, height);
+        }
+
+        renderer.pushBlendState(BlendState.NonPreMultiplied);
+
+        shader.bind();
+        shader.setUniformf(ShaderProgram.VIEW_MATRIX_UNIFORM, view);
+        shader.setUniformf(ShaderProgram.PROJECTION_MATRIX_UNIFORM, projection);
+        shader.setUniformf("u_worldTileSize", tileSize);
+        shader.setUniformf("u_layer", layer);
+        shader.setUniformf("u_color", red, green, blue, alpha);
+        shader.setUniformf("u_fadeStart", fadeStart);
+        shader.setUniformf("u_fadeEnd", fadeEnd);
+
+        lineBuffer.bind(shader);
+        lineBuffer.render(GL2ES2.GL_LINES);
+        lineBuffer.unbind(shader);
+        shader.unbind();
+
+        renderer.popBlendState();
+    }
+
+    public void setColor(float red, float green, float blue, float alpha) {
+        this.red = red;
+        this.green = green;
+        this.blue = blue;
+        this.alpha = alpha;
+    }
+
+    /**
+     * Lines closer than fadeStart are fully visible and lines further away than fadeEnd are invisible
+     */
+    public void setFadeDistance(float fadeStart, float fadeEnd) {
+        this.fadeStart = fadeStart;
+        this.fadeEnd = fadeEnd;
+    }
+
+    private void buildLines(int width, int height) {
+        if (lineBuffer != null) {
+            lineBuffer.dispose();
+        }
+
+        int vertexCount = (width + height + 2) * 2;
+        lineBuffer = VertexBuffer.createVertexBuffer(renderer.getGL(), true, vertexCount, VertexAttribute.POSITION);
+
+        for (int x = 0; x <= width; x++) {
+            lineBuffer.putVector3(lineVertex.set(x, 0, 0));
+            lineBuffer.putVector3(lineVertex.set(x, 0, height));
+        }
+
+        for (int y = 0; y <= height; y++) {
+            lineBuffer.putVector3(lineVertex.set(0, 0, y));
+            lineBuffer.putVector3(lineVertex.set(width, 0, y));
+        }
+
+        builtWidth = width;
+        builtHeight = height;
+    }
+}
@@ -0,0 +1,297 @@
+package wilds.voxeleditor.core.renderer;
+
+import wilds.voxeleditor.core.models.Map;
+import wilds.voxeleditor.core.models.Tileset;
+import wilds.voxeleditor.core.models.events.MapEvent;
+import wilds.voxeleditor.core.models.events.MapRegion;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTile;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileSide;
+import wilds.voxeleditor.core.models.storage.ChunkedMapStorage;
+import wilds.voxeleditor.core.models.storage.MapChunk;
+import wilds.voxeleditor.core.services.MapService;
+import wilds.voxeleditor.core.services.TilesetService;
+
+import org.joml.Vector3i;
+import rx.Subscription;
+import rx.functions.Action1;
+import rx.subjects.PublishSubject;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.IdentityHashMap;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Keeps a top down overview image of the current map with one pixel per tile column. A pixel has the average color
+ * of the top side of the highest tile in the column, darkened by how deep that tile is. Change events only update
+ * the columns they touch, so painting a few tiles on a large map costs a few column scans.
+ * <p>
+ * The image is updated in place, readers may see a column that is halfway through an update
+ * and should repaint when they are notified.
+ */
+public class MinimapCache {
+
+    public static final int DEFAULT_BACKGROUND_COLOR = 0xFF404040;
+
+    /**
+     * Brightness of a tile at the bottom of the map, tiles at the top have full brightness
+     */
+    private static final float MIN_BRIGHTNESS = 0.55f;
+
+    private final MapService mapService;
+    private final TilesetService tilesetService;
+    private final PublishSubject<Rectangle> minimapChanged;
+    private final Subscription mapSubscription;
+    private final IdentityHashMap<Tileset, int[]> tileColors;
+    private final Vector3i tileCoordinates;
+
+    private Map map;
+    private BufferedImage image;
+    private int[] pixels;
+    private int backgroundColor = DEFAULT_BACKGROUND_COLOR;
+
+    public MinimapCache(MapService mapService, TilesetService tilesetService) {
+        this.mapService = mapService;
+        this.tilesetService = tilesetService;
+        minimapChanged = PublishSubject.create();
+        tileColors = new IdentityHashMap<>();
+        tileCoordinates = new Vector3i();
+        mapSubscription = mapService.onMapChanged(this::onMapChanged);
+    }
+
+    public void dispose() {
+        mapSubscription.unsubscribe();
+    }
+
+    /**
+     * Called with the part of the image that changed in image coordinates, an empty rectangle when the map
+     * was closed. May be called from any thread.
+     */
+    public Subscription onMinimapChanged(Action1<Rectangle> action) {
+        return minimapChanged.subscribe(action);
+    }
+
+    private synchronized void onMapChanged(MapEvent event) {
+        if (event.isMapClosed()) {
+            map = null;
+            image = null;
+            pixels = null;
+            minimapChanged.onNext(new Rectangle());
+            return;
+        }
+
+        // the subject replays the last event, so the map may already be open when the cache is created
+        if (event.isMapFresh() || map != mapService.getMap()) {
+            rebuild();
+            return;
+        }
+
+        if (event.isMapChanged()) {
+            if (event.hasRegion()) {
+                updateRegion(event.getRegion());
+            } else {
+                rebuild();
+            }
+        }
+    }
+
+    /**
+     * Scans every column of the current map again
+     */
+    public synchronized void rebuild() {
+        map = mapService.getMap();
+        if (map == null) {
+            image = null;
+            pixels = null;
+            return;
+        }
+
+        int width = map.getWidth();
+        int height = map.getHeight();
+        if (image == null || image.getWidth() != width || image.getHeight() != height) {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        }
+
+        ChunkedMapStorage storage = map.getStorage();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                pixels[y * width + x] = getColumnColor(storage, x, y);
+            }
+        }
+
+        minimapChanged.onNext(new Rectangle(0, 0, width, height));
+    }
+
+    /**
+     * Rescans the columns of the changed tiles, or every column under the region when it has no tile indices
+     */
+    private void updateRegion(MapRegion region) {
+        if (map == null) {
+            return;
+        }
+
+        ChunkedMapStorage storage = map.getStorage();
+        Vector3i min = region.getMin();
+        Vector3i max = region.getMax();
+        int minX = Math.max(0, min.x);
+        int minY = Math.max(0, min.y);
+        int maxX = Math.min(map.getWidth() - 1, max.x);
+        int maxY = Math.min(map.getHeight() - 1, max.y);
+
+        if (minX > maxX || minY > maxY) {
+            return;
+        }
+
+        long columns = (long) (maxX - minX + 1) * (maxY - minY + 1);
+        if (region.getTileIndices().length < columns) {
+            // a column can be scanned more than once when several tiles in it changed, that is still cheaper
+            // than scanning all columns under a sparse stroke
+            for (int tileIndex : region.getTileIndices()) {
+                map.indexToTile(tileIndex, tileCoordinates);
+                updateColumn(storage, tileCoordinates.x, tileCoordinates.y);
+            }
+        } else {
+            for (int y = minY; y <= maxY; y++) {
+                for (int x = minX; x <= maxX; x++) {
+                    updateColumn(storage, x, y);
+                }
+            }
+        }
+
+        minimapChanged.onNext(new Rectangle(minX, minY, maxX - minX + 1, maxY - minY + 1));
+    }
+
+    private void updateColumn(ChunkedMapStorage storage, int x, int y) {
+        if (x < 0 || y < 0 || x >= map.getWidth() || y >= map.getHeight()) {
+            return;
+        }
+
+        pixels[y * map.getWidth() + x] = getColumnColor(storage, x, y);
+    }
+
+    /**
+     * Walks down the column from the top of the map, layers of a chunk that does not exist are skipped at once
+     */
+    private int getColumnColor(ChunkedMapStorage storage, int x, int y) {
+        int chunkX = x >> MapChunk.SIZE_BITS;
+        int chunkY = y >> MapChunk.SIZE_BITS;
+        int depth = map.getDepth();
+
+        for (int z = depth - 1; z >= 0; z--) {
+            if (storage.getChunk(chunkX, chunkY, z >> MapChunk.SIZE_BITS) == null) {
+                z &= ~MapChunk.SIZE_MASK;
+                continue;
+            }
+
+            int index = map.tileToIndex(x, y, z);
+            if (storage.isEmpty(index)) {
+                continue;
+            }
+
+            short tileId = storage.getTileId(index, CubeTileSide.Top);
+            if (tileId == CubeTile.EMPTY_TILE_ID) {
+                continue;
+            }
+
+            int color = getTileColor(storage.getTileset(index, CubeTileSide.Top), tileId);
+            return shade(color, MIN_BRIGHTNESS + (1f - MIN_BRIGHTNESS) * (z + 1) / depth);
+        }
+
+        return backgroundColor;
+    }
+
+    /**
+     * The average colors of all tiles in a tileset are computed the first time the tileset is seen
+     */
+    private int getTileColor(Tileset tileset, short tileId) {
+        if (tileset == null) {
+            tileset = tilesetService.getDefaultTileset();
+        }
+
+        int[] colors = tileColors.get(tileset);
+        if (colors == null) {
+            colors = computeTileColors(tileset);
+            tileColors.put(tileset, colors);
+        }
+
+        return colors[tileId >= 0 && tileId < colors.length ? tileId : 0];
+    }
+
+    /**
+     * Tile ids run row by row through the tileset image, see Tileset.
+     * Transparent pixels are left out of the average.
+     */
+    private int[] computeTileColors(Tileset tileset) {
+        BufferedImage tilesetImage = tileset.getImage();
+        int tileSize = tileset.getTileSize();
+        int tilesPerRow = tileset.getTilesPerRow();
+        int sampleWidth = Math.min(tileSize, tilesetImage.getWidth());
+        int sampleHeight = Math.min(tileSize, tilesetImage.getHeight());
+
+        int[] colors = new int[tileset.getTileCount()];
+        int[] tilePixels = new int[sampleWidth * sampleHeight];
+
+        for (int tileId = 0; tileId < colors.length; tileId++) {
+            tilesetImage.getRGB((tileId % tilesPerRow) * tileSize, (tileId / tilesPerRow) * tileSize,
+                    sampleWidth, sampleHeight, tilePixels, 0, sampleWidth);
+
+            long red = 0;
+            long green = 0;
+            long blue = 0;
+            int count = 0;
+
+            for (int argb : tilePixels) {
+                if ((argb >>> 24) == 0) {
+                    continue;
+                }
+
+                red += (argb >> 16) & 0xFF;
+                green += (argb >> 8) & 0xFF;
+                blue += argb & 0xFF;
+                count++;
+            }
+
+            colors[tileId] = count == 0 ? backgroundColor :
+                    0xFF000000 | (int) (red / count) << 16 | (int) (green / count) << 8 | (int) (blue / count);
+        }
+
+        return colors;
+    }
+
+    private static int shade(int color, float brightness) {
+        int red = (int) (((color >> 16) & 0xFF) * brightness);
+        int green = (int) (((color >> 8) & 0xFF) * brightness);
+        int blue = (int) ((color & 0xFF) * brightness);
+        return 0xFF000000 | red << 16 | green << 8 | blue;
+    }
+
+    /**
+     * @return the overview image with one pixel per tile column, tile y runs down the image. Null without a map.
+     */
+    public synchronized BufferedImage getImage() {
+        return image;
+    }
+
+    /**
+     * Color of columns without tiles, applies to columns scanned after the change
+     */
+    public synchronized void setBackgroundColor(int backgroundColor) {
+        this.backgroundColor = backgroundColor;
+        tileColors.clear();
+    }
+
+    public synchronized int getBackgroundColor() {
+        return backgroundColor;
+    }
+
+    /**
+     * Throws away the cached tile colors, for when a tileset image has been changed
+     */
+    public synchronized void clearTileColors() {
+        tileColors.clear();
+        rebuild();
+    }
+}
@@ -0,0 +1,64 @@
+package wilds.voxeleditor.core.renderer;
+
+import wilds.rune.renderer.IDisposable;
+
+import com.jogamp.opengl.GL2ES2;
+
+import java.nio.ByteBuffer;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Static vertex buffer of quads in the packed tile vertex format, 4 vertices per quad.
+ * The quads are drawn with the shared quad index buffer of the TileBatch, see TileBatch.renderQuads.
+ */
+public class QuadBuffer implements IDisposable {
+
+    private final GL2ES2 gl;
+    private final int quadCount;
+    private int bufferId;
+
+    /**
+     * @param vertices  packed vertices from position to limit, 4 per quad
+     * @param quadCount amount of quads in the vertices
+     */
+    public QuadBuffer(GL2ES2 gl, ByteBuffer vertices, int quadCount) {
+        if (quadCount > TileBatch.MAX_QUADS_PER_BUFFER) {
+            throw new IllegalArgumentException(String.format("Too many quads for one buffer: %s", quadCount));
+        }
+
+        this.gl = gl;
+        this.quadCount = quadCount;
+
+        int[] ids = new int[1];
+        gl.glGenBuffers(1, ids, 0);
+        bufferId = ids[0];
+
+        gl.glBindBuffer(GL2ES2.GL_ARRAY_BUFFER, bufferId);
+        gl.glBufferData(GL2ES2.GL_ARRAY_BUFFER, vertices.remaining(), vertices, GL2ES2.GL_STATIC_DRAW);
+        gl.glBindBuffer(GL2ES2.GL_ARRAY_BUFFER, 0);
+    }
+
+    public int getQuadCount() {
+        return quadCount;
+    }
+
+    /**
+     * @return size of the vertices on the GPU
+     */
+    public int getSizeInBytes() {
+        return quadCount * 4 * TileBatch.PACKED_VERTEX_BYTES;
+    }
+
+    void bind() {
+        gl.glBindBuffer(GL2ES2.GL_ARRAY_BUFFER, bufferId);
+    }
+
+    @Override
+    public void dispose() {
+        if (bufferId != 0) {
+            gl.glDeleteBuffers(1, new int[]{bufferId}, 0);
+            bufferId = 0;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package wilds.voxeleditor.core.renderer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Records the counters of the last frames in a ring buffer. Counters are added on the render thread between
+ * beginFrame and endFrame, a finished frame is published to the ring buffer so other threads can read the
+ * rolling percentiles or export the frames to a CSV file.
+ * <p>
+ * Garbage collection time is the collection time all collectors report between the begin of the previous and
+ * the begin of the current frame, it includes time spent by concurrent collectors.
+ */
+public class RenderProfiler {
+
+    public static final int DEFAULT_FRAME_WINDOW = 600;
+
+    public enum Metric {
+        FrameTime("Frame time", "ms", 1e-6),
+        ChunksDrawn("Chunks drawn", "", 1),
+        ChunksCulled("Chunks culled", "", 1),
+        FacesDrawn("Faces drawn", "", 1),
+        FacesCulled("Faces culled", "", 1),
+        DrawCalls("Draw calls", "", 1),
+        ChunksMeshed("Chunks meshed", "", 1),
+        VerticesUploaded("Vertices uploaded", "", 1),
+        GcTime("GC time", "ms", 1e-6);
+
+        private final String description;
+        private final String unit;
+        private final double scale;
+
+        Metric(String description, String unit, double scale) {
+            this.description = description;
+            this.unit = unit;
+            this.scale = scale;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * @return unit of the scaled value, empty for counts
+         */
+        public String getUnit() {
+            return unit;
+        }
+
+        /**
+         * Times are recorded in nanoseconds and scaled to milliseconds, counts are not scaled
+         */
+        public double scale(long value) {
+            return value * scale;
+        }
+    }
+
+    private static final Metric[] METRICS = Metric.values();
+
+    private final int frameWindow;
+    private final long[][] samples;
+    private final long[] frameNumbers;
+    private final long[] current;
+    private final long[] sortBuffer;
+    private final List<GarbageCollectorMXBean> collectors;
+
+    private long frameCount;
+    private long frameStart;
+    private long gcTime = -1;
+    private boolean frameStarted;
+
+    public RenderProfiler() {
+        this(DEFAULT_FRAME_WINDOW);
+    }
+
+    /**
+     * @param frameWindow amount of frames to keep for the percentiles and the export
+     */
+    public RenderProfiler(int frameWindow) {
+        if (frameWindow <= 0) {
+            throw new IllegalArgumentException(String.format("Frame window should be positive: %s", frameWindow));
+        }
+
+        this.frameWindow = frameWindow;
+        samples = new long[METRICS.length][frameWindow];
+        frameNumbers = new long[frameWindow];
+        current = new long[METRICS.length];
+        sortBuffer = new long[frameWindow];
+        collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    }
+
+    /**
+     * Resets the counters of the current frame and starts the frame timer
+     */
+    public void beginFrame() {
+        Arrays.fill(current, 0);
+
+        long collectionTime = getCollectionTime();
+        if (gcTime >= 0) {
+            current[Metric.GcTime.ordinal()] = (collectionTime - gcTime) * 1_000_000L;
+        }
+
+        gcTime = collectionTime;
+        frameStarted = true;
+        frameStart = System.nanoTime();
+    }
+
+    /**
+     * Stops the frame timer and publishes the counters of the frame
+     */
+    public void endFrame() {
+        if (!frameStarted) {
+            return;
+        }
+
+        current[Metric.FrameTime.ordinal()] = System.nanoTime() - frameStart;
+        frameStarted = false;
+
+        synchronized (this) {
+            int slot = (int) (frameCount % frameWindow);
+            for (int i = 0; i < METRICS.length; i++) {
+                samples[i][slot] = current[i];
+            }
+
+            frameNumbers[slot] = frameCount;
+            frameCount++;
+        }
+    }
+
+    /**
+     * Adds to a counter of the current frame, should only be called from the render thread
+     */
+    public void add(Metric metric, long amount) {
+        current[metric.ordinal()] += amount;
+    }
+
+    public void increment(Metric metric) {
+        current[metric.ordinal()]++;
+    }
+
+    /**
+     * @return amount of frames recorded since the profiler was created or cleared
+     */
+    public synchronized long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * @return amount of frames in the window
+     */
+    public synchronized int getSampleCount() {
+        return (int) Math.min(frameCount, frameWindow);
+    }
+
+    /**
+     * @return value of the metric in the last recorded frame, 0 if no frame has been recorded
+     */
+    public synchronized long getLast(Metric metric) {
+        if (frameCount == 0) {
+            return 0;
+        }
+
+        return samples[metric.ordinal()][(int) ((frameCount - 1) % frameWindow)];
+    }
+
+    /**
+     * Percentiles are picked with the nearest rank method over the frames in the window
+     *
+     * @param percentiles between 0 and 100
+     * @return value of the metric at every percentile, zeroes if no frame has been recorded
+     */
+    public synchronized long[] getPercentiles(Metric metric, double... percentiles) {
+        long[] values = new long[percentiles.length];
+        int sampleCount = getSampleCount();
+        if (sampleCount == 0) {
+            return values;
+        }
+
+        System.arraycopy(samples[metric.ordinal()], 0, sortBuffer, 0, sampleCount);
+        Arrays.sort(sortBuffer, 0, sampleCount);
+
+        for (int i = 0; i < percentiles.length; i++) {
+            double percentile = Math.max(0, Math.min(100, percentiles[i]));
+            int rank = (int) Math.ceil(percentile / 100.0 * sampleCount);
+            values[i] = sortBuffer[Math.max(0, rank - 1)];
+        }
+
+        return values;
+    }
+
+    public synchronized long getMax(Metric metric) {
+        long max = 0;
+        for (int i = 0; i < getSampleCount(); i++) {
+            max = Math.max(max, samples[metric.ordinal()][i]);
+        }
+
+        return max;
+    }
+
+    public synchronized void clear() {
+        for (long[] metricSamples : samples) {
+            Arrays.fill(metricSamples, 0);
+        }
+
+        frameCount = 0;
+    }
+
+    /**
+     * Writes the frames in the window from oldest to newest, one row per frame with scaled values
+     */
+    public void exportCsv(Path path) throws IOException {
+        long[][] frames;
+        long[] numbers;
+
+        // copy first so the render thread is not blocked on the disk
+        synchronized (this) {
+            int sampleCount = getSampleCount();
+            int oldest = (int) ((frameCount - sampleCount) % frameWindow);
+            frames = new long[sampleCount][METRICS.length];
+            numbers = new long[sampleCount];
+
+            for (int frame = 0; frame < sampleCount; frame++) {
+                int slot = (oldest + frame) % frameWindow;
+                numbers[frame] = frameNumbers[slot];
+                for (int i = 0; i < METRICS.length; i++) {
+                    frames[frame][i] = samples[i][slot];
+                }
+            }
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            writer.write("frame");
+            for (Metric metric : METRICS) {
+                writer.write(',');
+                writer.write(metric.name());
+                if (!metric.getUnit().isEmpty()) {
+                    writer.write(String.format(" (%s)", metric.getUnit()));
+                }
+            }
+            writer.newLine();
+
+            for (int frame = 0; frame < frames.length; frame++) {
+                writer.write(Long.toString(numbers[frame]));
+                for (Metric metric : METRICS) {
+                    writer.write(',');
+                    writer.write(formatValue(metric, frames[frame][metric.ordinal()]));
+                }
+                writer.newLine();
+            }
+        }
+    }
+
+    private static String formatValue(Metric metric, long value) {
+        if (metric.getUnit().isEmpty()) {
+            return Long.toString(value);
+        }
+
+        return String.format(Locale.ROOT, "%.3f", metric.scale(value));
+    }
+
+    private long getCollectionTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            // -1 when the collector does not report its time
+            time += Math.max(0, collector.getCollectionTime());
+        }
+
+        return time;
+    }
+}
@@ -0,0 +1,247 @@
+package wilds.voxeleditor.core.renderer;
+
+import wilds.voxeleditor.core.models.Map;
+
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import org.joml.Vector3f;
+import org.joml.Vector3i;
+
+import java.util.Arrays;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Builds the outer surface of a tile selection. Every selected tile is a box, sides shared by two selected boxes
+ * are dropped and the remaining sides are merged into rectangles per slice, like the chunk mesher does for tiles.
+ * A rectangular selection becomes six quads no matter how many tiles it covers.
+ * <p>
+ * Boxes only touch their neighbours along the axes where they fill the whole tile, along other axes
+ * every box keeps both sides and sides are not merged.
+ */
+public class SelectionMesher {
+
+    /**
+     * Three corners of two triangles with three floats each
+     */
+    public static final int QUAD_FLOATS = 18;
+
+    private final Vector3i tileCoordinates = new Vector3i();
+    private final int[] min = new int[3];
+    private final int[] max = new int[3];
+    private final int[] size = new int[3];
+    private final float[] boxOffset = new float[3];
+    private final float[] boxSize = new float[3];
+    private final boolean[] touching = new boolean[3];
+    private final float[] corner = new float[3];
+    private final int[] cell = new int[3];
+
+    private boolean[] cells = new boolean[0];
+    private boolean[] mask = new boolean[0];
+    private float[] vertices = new float[QUAD_FLOATS * 64];
+    private int quadCount;
+
+    /**
+     * @param tileIndices map indices of the selected tiles
+     * @param cellOffset  offset of a selection box from the origin of its tile in world units, in world axes
+     * @param cellSize    size of a selection box in world units, in world axes
+     * @return amount of quads built
+     */
+    public int build(Map map, IntSet tileIndices, Vector3f cellOffset, Vector3f cellSize) {
+        quadCount = 0;
+        if (tileIndices.isEmpty()) {
+            return 0;
+        }
+
+        int tileSize = map.getTileSize();
+        boxOffset[0] = cellOffset.x;
+        boxOffset[1] = cellOffset.y;
+        boxOffset[2] = cellOffset.z;
+        boxSize[0] = cellSize.x;
+        boxSize[1] = cellSize.y;
+        boxSize[2] = cellSize.z;
+
+        for (int axis = 0; axis < 3; axis++) {
+            touching[axis] = boxSize[axis] >= tileSize;
+        }
+
+        fillCells(map, tileIndices);
+
+        for (int axis = 0; axis < 3; axis++) {
+            for (int sign = -1; sign <= 1; sign += 2) {
+                for (int slice = 0; slice < size[axis]; slice++) {
+                    buildSlice(axis, sign, slice, tileSize);
+                }
+            }
+        }
+
+        return quadCount;
+    }
+
+    /**
+     * Marks the selected tiles in a grid over the bounds of the selection, in world axes
+     */
+    private void fillCells(Map map, IntSet tileIndices) {
+        Arrays.fill(min, Integer.MAX_VALUE);
+        Arrays.fill(max, Integer.MIN_VALUE);
+
+        IntIterator iterator = tileIndices.iterator();
+        while (iterator.hasNext()) {
+            toWorldCell(map, iterator.nextInt());
+            for (int axis = 0; axis < 3; axis++) {
+                min[axis] = Math.min(min[axis], (int) corner[axis]);
+                max[axis] = Math.max(max[axis], (int) corner[axis]);
+            }
+        }
+
+        for (int axis = 0; axis < 3; axis++) {
+            size[axis] = max[axis] - min[axis] + 1;
+        }
+
+        int volume = size[0] * size[1] * size[2];
+        if (cells.length < volume) {
+            cells = new boolean[volume];
+        } else {
+            Arrays.fill(cells, 0, volume, false);
+        }
+
+        iterator = tileIndices.iterator();
+        while (iterator.hasNext()) {
+            toWorldCell(map, iterator.nextInt());
+            cells[cellIndex((int) corner[0] - min[0], (int) corner[1] - min[1], (int) corner[2] - min[2])] = true;
+        }
+    }
+
+    /**
+     * Merges the exposed sides facing sign along axis in one slice of the grid
+     */
+    private void buildSlice(int axis, int sign, int slice, int tileSize) {
+        int axisU = (axis + 1) % 3;
+        int axisV = (axis + 2) % 3;
+        int sizeU = size[axisU];
+        int sizeV = size[axisV];
+
+        if (mask.length < sizeU * sizeV) {
+            mask = new boolean[sizeU * sizeV];
+        }
+
+        int neighbourSlice = slice + sign;
+        boolean hasNeighbourSlice = touching[axis] && neighbourSlice >= 0 && neighbourSlice < size[axis];
+        boolean anyExposed = false;
+
+        for (int v = 0; v < sizeV; v++) {
+            for (int u = 0; u < sizeU; u++) {
+                cell[axis] = slice;
+                cell[axisU] = u;
+                cell[axisV] = v;
+                boolean exposed = cells[cellIndex(cell[0], cell[1], cell[2])];
+
+                if (exposed && hasNeighbourSlice) {
+                    cell[axis] = neighbourSlice;
+                    exposed = !cells[cellIndex(cell[0], cell[1], cell[2])];
+                }
+
+                mask[v * sizeU + u] = exposed;
+                anyExposed |= exposed;
+            }
+        }
+
+        if (!anyExposed) {
+            return;
+        }
+
+        float position = (min[axis] + slice) * tileSize + boxOffset[axis] + (sign > 0 ? boxSize[axis] : 0);
+
+        for (int v = 0; v < sizeV; v++) {
+            for (int u = 0; u < sizeU; u++) {
+                if (!mask[v * sizeU + u]) {
+                    continue;
+                }
+
+                int width = 1;
+                while (touching[axisU] && u + width < sizeU && mask[v * sizeU + u + width]) {
+                    width++;
+                }
+
+                int height = 1;
+                while (touching[axisV] && v + height < sizeV && isRowSet(v + height, u, width, sizeU)) {
+                    height++;
+                }
+
+                for (int row = v; row < v + height; row++) {
+                    Arrays.fill(mask, row * sizeU + u, row * sizeU + u + width, false);
+                }
+
+                float startU = (min[axisU] + u) * tileSize + boxOffset[axisU];
+                float endU = (min[axisU] + u + width - 1) * tileSize + boxOffset[axisU] + boxSize[axisU];
+                float startV = (min[axisV] + v) * tileSize + boxOffset[axisV];
+                float endV = (min[axisV] + v + height - 1) * tileSize + boxOffset[axisV] + boxSize[axisV];
+
+                addQuad(axis, axisU, axisV, position, startU, endU, startV, endV);
+            }
+        }
+    }
+
+    private boolean isRowSet(int row, int u, int width, int sizeU) {
+        for (int i = u; i < u + width; i++) {
+            if (!mask[row * sizeU + i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void addQuad(int axis, int axisU, int axisV, float position, float startU, float endU,
+                         float startV, float endV) {
+        if ((quadCount + 1) * QUAD_FLOATS > vertices.length) {
+            vertices = Arrays.copyOf(vertices, vertices.length * 2);
+        }
+
+        int offset = quadCount * QUAD_FLOATS;
+        offset = putCorner(offset, axis, axisU, axisV, position, startU, startV);
+        offset = putCorner(offset, axis, axisU, axisV, position, endU, startV);
+        offset = putCorner(offset, axis, axisU, axisV, position, endU, endV);
+        offset = putCorner(offset, axis, axisU, axisV, position, startU, startV);
+        offset = putCorner(offset, axis, axisU, axisV, position, endU, endV);
+        putCorner(offset, axis, axisU, axisV, position, startU, endV);
+
+        quadCount++;
+    }
+
+    private int putCorner(int offset, int axis, int axisU, int axisV, float position, float u, float v) {
+        corner[axis] = position;
+        corner[axisU] = u;
+        corner[axisV] = v;
+
+        vertices[offset] = corner[0];
+        vertices[offset + 1] = corner[1];
+        vertices[offset + 2] = corner[2];
+        return offset + 3;
+    }
+
+    /**
+     * Stores the world cell of the tile in the corner, tile y runs along world z and tile z along world y
+     */
+    private void toWorldCell(Map map, int tileIndex) {
+        map.indexToTile(tileIndex, tileCoordinates);
+        corner[0] = tileCoordinates.x;
+        corner[1] = tileCoordinates.z;
+        corner[2] = tileCoordinates.y;
+    }
+
+    private int cellIndex(int x, int y, int z) {
+        return (z * size[1] + y) * size[0] + x;
+    }
+
+    /**
+     * @return positions of the built quads in world units, QUAD_FLOATS per quad
+     */
+    public float[] getVertices() {
+        return vertices;
+    }
+
+    public int getQuadCount() {
+        return quadCount;
+    }
+}
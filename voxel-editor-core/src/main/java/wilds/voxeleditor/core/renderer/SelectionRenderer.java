@@ -0,0 +1,146 @@
+package wilds.voxeleditor.core.renderer;
+
+import wilds.voxeleditor.core.models.Map;
+
+import wilds.rune.renderer.IDisposable;
+import wilds.rune.renderer.IRenderer;
+import wilds.rune.renderer.gl.ShaderProgram;
+import wilds.rune.renderer.gl.VertexAttribute;
+import wilds.rune.renderer.gl.VertexBuffer;
+import wilds.rune.renderer.gl.states.BlendState;
+import wilds.rune.renderer.gl.states.RasterizerState;
+
+import com.jogamp.opengl.GL2ES2;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Draws the surface of a tile selection from a static buffer in a single draw call. The surface is built by the
+ * SelectionMesher and only has to be rebuilt when the selection or the layout of the selection boxes changes.
+ */
+public class SelectionRenderer implements IDisposable {
+
+    private final IRenderer<GL2ES2> renderer;
+    private final SelectionMesher mesher = new SelectionMesher();
+    private final Vector3f vertex = new Vector3f();
+
+    private final String selectionVertShader = "attribute vec3 " + ShaderProgram.POSITION_ATTRIBUTE + ";" +
+            "uniform mat4 " + ShaderProgram.VIEW_MATRIX_UNIFORM + ";" +
+            "uniform mat4 " + ShaderProgram.PROJECTION_MATRIX_UNIFORM + ";" +
+
+            "void main()" +
+            "{" +
+            "gl_Position = " + ShaderProgram.PROJECTION_MATRIX_UNIFORM + " * " + ShaderProgram.VIEW_MATRIX_UNIFORM +
+            " * vec4(" + ShaderProgram.POSITION_ATTRIBUTE + ", 1);" +
+            "}";
+
+    private final String selectionFragShader = "precision mediump float;" +
+            "uniform vec4 u_color;" +
+
+            "void main()" +
+            "{" +
+            "gl_FragColor = u_color;" +
+            "}";
+
+    private ShaderProgram shader;
+    private VertexBuffer surfaceBuffer;
+    private int quadCount;
+
+    private float red = 1f;
+    private float green = 1f;
+    private float blue = 1f;
+    private float alpha = 0.5f;
+
+    public SelectionRenderer(IRenderer<GL2ES2> renderer) {
+        this.renderer = renderer;
+    }
+
+    public void create() {
+        shader = ShaderProgram.createShaderProgram(renderer.getGL(), selectionVertShader, selectionFragShader);
+    }
+
+    @Override
+    public void dispose() {
+        shader.dispose();
+        disposeSurface();
+    }
+
+    /**
+     * Rebuilds the surface of the selection, see SelectionMesher.build
+     *
+     * @param cellOffset offset of a selection box from the origin of its tile in world units, in world axes
+     * @param cellSize   size of a selection box in world units, in world axes
+     */
+    public void setSelection(Map map, IntSet tileIndices, Vector3f cellOffset, Vector3f cellSize) {
+        disposeSurface();
+        quadCount = mesher.build(map, tileIndices, cellOffset, cellSize);
+
+        if (quadCount == 0) {
+            return;
+        }
+
+        float[] vertices = mesher.getVertices();
+        int floatCount = quadCount * SelectionMesher.QUAD_FLOATS;
+        surfaceBuffer = VertexBuffer.createVertexBuffer(renderer.getGL(), true, floatCount / 3,
+                VertexAttribute.POSITION);
+
+        for (int i = 0; i < floatCount; i += 3) {
+            surfaceBuffer.putVector3(vertex.set(vertices[i], vertices[i + 1], vertices[i + 2]));
+        }
+    }
+
+    public void clearSelection() {
+        disposeSurface();
+    }
+
+    /**
+     * Draws the selection on top of the map
+     */
+    public void render(Matrix4f view, Matrix4f projection) {
+        if (surfaceBuffer == null) {
+            return;
+        }
+
+        renderer.pushBlendState(BlendState.NonPreMultiplied);
+        renderer.pushRasterizerState(RasterizerState.DepthAlways);
+
+        shader.bind();
+        shader.setUniformf(ShaderProgram.VIEW_MATRIX_UNIFORM, view);
+        shader.setUniformf(ShaderProgram.PROJECTION_MATRIX_UNIFORM, projection);
+        shader.setUniformf("u_color", red, green, blue, alpha);
+
+        surfaceBuffer.bind(shader);
+        surfaceBuffer.render(GL2ES2.GL_TRIANGLES);
+        surfaceBuffer.unbind(shader);
+        shader.unbind();
+
+        renderer.popRasterizerState();
+        renderer.popBlendState();
+    }
+
+    public void setColor(float red, float green, float blue, float alpha) {
+        this.red = red;
+        this.green = green;
+        this.blue = blue;
+        this.alpha = alpha;
+    }
+
+    /**
+     * @return amount of quads in the surface of the current selection
+     */
+    public int getQuadCount() {
+        return quadCount;
+    }
+
+    private void disposeSurface() {
+        if (surfaceBuffer != null) {
+            surfaceBuffer.dispose();
+            surfaceBuffer = null;
+        }
+
+        quadCount = 0;
+    }
+}
@@ -0,0 +1,674 @@
+package wilds.voxeleditor.core.renderer;
+
+import wilds.voxeleditor.core.models.Map;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileSide;
+import wilds.voxeleditor.core.models.storage.ChunkSnapshot;
+import wilds.voxeleditor.core.models.storage.MapChunk;
+import wilds.voxeleditor.core.models.storage.MapSnapshot;
+
+import org.joml.Matrix4f;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Renders a map into a BufferedImage on the CPU, no GL context is needed. Used for thumbnails, previews and
+ * comparing renders in tests.
+ * <p>
+ * Chunks are meshed by the ChunkMesher like the GPU path and textured from the pages of a TileAtlas, so both
+ * renderers draw the same quads with the same texture coordinates and lighting. The grid is not drawn.
+ * <p>
+ * Both stages run on a fork/join pool: chunks are meshed and projected in parallel, then the image is split
+ * into bands of rows that are rasterized in parallel. Triangles are binned into the bands they touch once after
+ * projection, a band only reads its own bin and only writes its own rows, so bands never share pixels or depth values.
+ * <p>
+ * The last published snapshot of the map is rendered, so rendering can happen on any thread while the map is edited.
+ */
+public class SoftwareMapRenderer {
+
+    /**
+     * Cameras that frame the whole map, see setupCamera
+     */
+    public enum CameraView {
+        TopDown,
+        Isometric,
+        Perspective
+    }
+
+    private static final CubeTileSide[] SIDES = CubeTileSide.values();
+    private static final float[] EMPTY_TRIANGLES = new float[0];
+    private static final float TEXCOORD_SCALE = 0xFFFF;
+    private static final float PERSPECTIVE_FOV = (float) Math.toRadians(60);
+    private static final int BAND_HEIGHT = 16;
+    private static final int CHUNKS_PER_TASK = 4;
+
+    /**
+     * A projected triangle: screen x, screen y, depth, 1 / w, axis u / w and axis v / w for every corner,
+     * followed by the atlas page, tile origin in the page in pixels, tile size in pixels and the light factor
+     */
+    private static final int VERTEX_FLOATS = 6;
+    private static final int TRIANGLE_FLOATS = VERTEX_FLOATS * 3 + 5;
+    private static final int PAGE = VERTEX_FLOATS * 3;
+    private static final int TEXEL_X = PAGE + 1;
+    private static final int TEXEL_Y = PAGE + 2;
+    private static final int TILE_SIZE = PAGE + 3;
+    private static final int LIGHT = PAGE + 4;
+
+    /**
+     * A clip space polygon corner: x, y, z, w, axis u and axis v
+     */
+    private static final int CLIP_FLOATS = 6;
+
+    private final TileAtlas atlas;
+    private final ForkJoinPool pool;
+    private final int[][] pagePixels;
+    private final float[] sideLight;
+    private final ThreadLocal<ChunkMesher> meshers;
+    private final ThreadLocal<float[][]> clipBuffers;
+
+    private int backgroundColor = 0xFF404040;
+
+    public SoftwareMapRenderer(TileAtlas atlas) {
+        this(atlas, ForkJoinPool.commonPool());
+    }
+
+    public SoftwareMapRenderer(TileAtlas atlas, ForkJoinPool pool) {
+        this.atlas = atlas;
+        this.pool = pool;
+        meshers = ThreadLocal.withInitial(ChunkMesher::new);
+
+        // a quad clipped by the near plane has at most 5 corners
+        clipBuffers = ThreadLocal.withInitial(() -> new float[2][5 * CLIP_FLOATS]);
+
+        pagePixels = new int[atlas.getPageCount()][];
+        for (TileAtlas.Page page : atlas.getPages()) {
+            BufferedImage image = page.getImage();
+            pagePixels[page.getIndex()] = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0,
+                    image.getWidth());
+        }
+
+        // same lighting as the tile shader
+        sideLight = new float[SIDES.length];
+        for (CubeTileSide side : SIDES) {
+            float lightFactor = Math.max(0, -TileBatch.LIGHT_DIRECTION.dot(side.getAxis()));
+            sideLight[side.ordinal()] = 0.5f + 0.5f * lightFactor;
+        }
+    }
+
+    /**
+     * Renders the whole map with one of the default cameras
+     */
+    public BufferedImage render(Map map, CameraView cameraView, int width, int height) {
+        Matrix4f view = new Matrix4f();
+        Matrix4f projection = new Matrix4f();
+        setupCamera(map, cameraView, width / (float) height, view, projection);
+
+        return render(map, view, projection, width, height);
+    }
+
+    /**
+     * Renders the last published snapshot of the map, writes that were not published yet are not drawn
+     *
+     * @param view       world to camera transform, like BaseCamera.getViewMatrix
+     * @param projection camera to clip space transform with GL conventions
+     */
+    public BufferedImage render(Map map, Matrix4f view, Matrix4f projection, int width, int height) {
+        return render(map, view, projection, width, height, null);
+    }
+
+    /**
+     * Renders the last published snapshot of the map and keeps the depth of every pixel
+     *
+     * @param depth width * height floats to write the depth to, row by row like the image. Depth is the clip space
+     *              z divided by w, pixels without tiles get positive infinity. Null to leave the depth out
+     */
+    public BufferedImage render(Map map, Matrix4f view, Matrix4f projection, int width, int height, float[] depth) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid image size: %sx%s", width, height));
+        }
+
+        if (depth != null && depth.length < width * height) {
+            throw new IllegalArgumentException(String.format("Depth buffer of %s floats is too small for %sx%s",
+                    depth.length, width, height));
+        }
+
+        Matrix4f viewProjection = projection.mul(view, new Matrix4f());
+
+        MapSnapshot snapshot = map.getStorage().getPublishedSnapshot();
+        List<ChunkSnapshot> snapshots = new ArrayList<>(snapshot.getChunkCount());
+        for (ChunkSnapshot chunk : snapshot.getChunks()) {
+            snapshots.add(chunk);
+        }
+
+        float[][] chunkTriangles = new float[snapshots.size()][];
+        pool.invoke(new MeshTask(snapshots, chunkTriangles, viewProjection, map.getTileSize(), width, height,
+                0, snapshots.size()));
+
+        int floatCount = 0;
+        for (float[] triangles : chunkTriangles) {
+            floatCount += triangles.length;
+        }
+
+        float[] triangles = new float[floatCount];
+        int offset = 0;
+        for (float[] chunk : chunkTriangles) {
+            System.arraycopy(chunk, 0, triangles, offset, chunk.length);
+            offset += chunk.length;
+        }
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        if (depth == null) {
+            depth = new float[width * height];
+        }
+
+        Arrays.fill(pixels, backgroundColor);
+        Arrays.fill(depth, 0, width * height, Float.POSITIVE_INFINITY);
+
+        int bandCount = (height + BAND_HEIGHT - 1) / BAND_HEIGHT;
+        int[] bandStarts = new int[bandCount + 1];
+        int[] bandTriangles = binTriangles(triangles, height, bandCount, bandStarts);
+        pool.invoke(new RasterTask(triangles, bandTriangles, bandStarts, pixels, depth, width, height, 0, bandCount));
+
+        return image;
+    }
+
+    /**
+     * Sets up a camera that fits the bounds of the map in an image with the given aspect ratio.
+     * Top down and isometric cameras are orthographic, the perspective camera looks down on the map at 45 degrees.
+     */
+    public static void setupCamera(Map map, CameraView cameraView, float aspect, Matrix4f view, Matrix4f projection) {
+        int tileSize = map.getTileSize();
+        float sizeX = map.getWidth() * tileSize;
+        float sizeY = map.getDepth() * tileSize;
+        float sizeZ = map.getHeight() * tileSize;
+        float centerX = sizeX / 2;
+        float centerY = sizeY / 2;
+        float centerZ = sizeZ / 2;
+        float radius = (float) Math.sqrt(sizeX * sizeX + sizeY * sizeY + sizeZ * sizeZ) / 2;
+
+        switch (cameraView) {
+            case TopDown: {
+                // tile y runs down the image like in the tileset and the editor top down view
+                float halfWidth = Math.max(sizeX / 2, sizeZ / 2 * aspect);
+                float halfHeight = halfWidth / aspect;
+                view.setLookAt(centerX, sizeY + radius, centerZ, centerX, centerY, centerZ, 0, 0, -1);
+                projection.setOrtho(-halfWidth, halfWidth, -halfHeight, halfHeight, 0, sizeY + radius * 2);
+                break;
+            }
+            case Isometric: {
+                float halfHeight = aspect >= 1 ? radius : radius / aspect;
+                float halfWidth = halfHeight * aspect;
+                float distance = radius * 2;
+                float offset = distance / (float) Math.sqrt(3);
+                view.setLookAt(centerX + offset, centerY + offset, centerZ + offset, centerX, centerY, centerZ,
+                        0, 1, 0);
+                projection.setOrtho(-halfWidth, halfWidth, -halfHeight, halfHeight, distance - radius,
+                        distance + radius);
+                break;
+            }
+            case Perspective: {
+                float horizontalFov = 2 * (float) Math.atan(Math.tan(PERSPECTIVE_FOV / 2) * aspect);
+                float distance = radius / (float) Math.sin(Math.min(PERSPECTIVE_FOV, horizontalFov) / 2);
+                float offset = distance / (float) Math.sqrt(2);
+                view.setLookAt(centerX, centerY + offset, centerZ + offset, centerX, centerY, centerZ, 0, 1, 0);
+                projection.setPerspective(PERSPECTIVE_FOV, aspect, Math.max(1, distance - radius),
+                        distance + radius);
+                break;
+            }
+        }
+    }
+
+    /**
+     * @param backgroundColor ARGB color of pixels without tiles
+     */
+    public void setBackgroundColor(int backgroundColor) {
+        this.backgroundColor = backgroundColor;
+    }
+
+    public int getBackgroundColor() {
+        return backgroundColor;
+    }
+
+    /**
+     * Meshes a chunk and projects its quads to screen space triangles, back faces and quads outside of the
+     * image are dropped
+     */
+    private float[] buildTriangles(ChunkSnapshot chunk, Matrix4f viewProjection, int tileSize, int width,
+                                   int height) {
+        ChunkMesher mesher = meshers.get();
+        int byteCount = mesher.build(chunk, atlas);
+        if (byteCount == 0) {
+            return EMPTY_TRIANGLES;
+        }
+
+        ByteBuffer reader = ByteBuffer.wrap(mesher.getVertices(), 0, byteCount).order(ByteOrder.nativeOrder());
+        int[] pageOffsets = mesher.getPageOffsets();
+        float[][] clip = clipBuffers.get();
+        TriangleWriter writer = new TriangleWriter(mesher.getQuadCount() * 2);
+
+        // column major, m[4] is m10
+        float[] m = viewProjection.get(new float[16]);
+
+        // world y is tile z and world z is tile y
+        float originX = chunk.getChunkX() << MapChunk.SIZE_BITS;
+        float originY = chunk.getChunkZ() << MapChunk.SIZE_BITS;
+        float originZ = chunk.getChunkY() << MapChunk.SIZE_BITS;
+
+        for (int page = 0; page + 1 < pageOffsets.length; page++) {
+            TileAtlas.Page atlasPage = atlas.getPages().get(page);
+
+            int quadBytes = TileBatch.PACKED_VERTEX_BYTES * 4;
+            for (int quad = pageOffsets[page]; quad < pageOffsets[page + 1]; quad += quadBytes) {
+                for (int corner = 0; corner < 4; corner++) {
+                    int vertex = quad + corner * TileBatch.PACKED_VERTEX_BYTES;
+                    float x = (originX + (reader.get(vertex) & 0xFF)) * tileSize;
+                    float y = (originY + (reader.get(vertex + 1) & 0xFF)) * tileSize;
+                    float z = (originZ + (reader.get(vertex + 2) & 0xFF)) * tileSize;
+
+                    float[] polygon = clip[0];
+                    int offset = corner * CLIP_FLOATS;
+                    polygon[offset] = m[0] * x + m[4] * y + m[8] * z + m[12];
+                    polygon[offset + 1] = m[1] * x + m[5] * y + m[9] * z + m[13];
+                    polygon[offset + 2] = m[2] * x + m[6] * y + m[10] * z + m[14];
+                    polygon[offset + 3] = m[3] * x + m[7] * y + m[11] * z + m[15];
+                    polygon[offset + 4] = reader.get(vertex + TileBatch.PACKED_AXIS_TEXCOORD_OFFSET) & 0xFF;
+                    polygon[offset + 5] = reader.get(vertex + TileBatch.PACKED_AXIS_TEXCOORD_OFFSET + 1) & 0xFF;
+                }
+
+                int cornerCount = clipNearPlane(clip[0], 4, clip[1]);
+                if (cornerCount < 3) {
+                    continue;
+                }
+
+                float[] polygon = clip[1];
+                toScreen(polygon, cornerCount, width, height);
+                if (isBackFacing(polygon, cornerCount) || isOutside(polygon, cornerCount, width, height)) {
+                    continue;
+                }
+
+                int face = reader.get(quad + 3) & 0xFF;
+                float texelX = Math.round((reader.getShort(quad + TileBatch.PACKED_TEXCOORD_OFFSET) & 0xFFFF)
+                        / TEXCOORD_SCALE * atlasPage.getWidth());
+                float texelY = Math.round((reader.getShort(quad + TileBatch.PACKED_TEXCOORD_OFFSET + 2) & 0xFFFF)
+                        / TEXCOORD_SCALE * atlasPage.getHeight());
+
+                for (int corner = 2; corner < cornerCount; corner++) {
+                    writer.add(polygon, 0, corner - 1, corner, page, texelX, texelY, atlasPage.getTileSize(),
+                            sideLight[face]);
+                }
+            }
+        }
+
+        return writer.toArray();
+    }
+
+    /**
+     * Clips a convex polygon against the near plane z = -w
+     *
+     * @return amount of corners written to the output
+     */
+    private static int clipNearPlane(float[] input, int cornerCount, float[] output) {
+        int outputCount = 0;
+
+        for (int corner = 0; corner < cornerCount; corner++) {
+            int current = corner * CLIP_FLOATS;
+            int next = ((corner + 1) % cornerCount) * CLIP_FLOATS;
+            float currentDistance = input[current + 2] + input[current + 3];
+            float nextDistance = input[next + 2] + input[next + 3];
+
+            if (currentDistance >= 0) {
+                System.arraycopy(input, current, output, outputCount++ * CLIP_FLOATS, CLIP_FLOATS);
+            }
+
+            if ((currentDistance >= 0) != (nextDistance >= 0)) {
+                float t = currentDistance / (currentDistance - nextDistance);
+                int offset = outputCount++ * CLIP_FLOATS;
+                for (int i = 0; i < CLIP_FLOATS; i++) {
+                    output[offset + i] = input[current + i] + (input[next + i] - input[current + i]) * t;
+                }
+            }
+        }
+
+        return outputCount;
+    }
+
+    /**
+     * Replaces the clip space corners with screen x, screen y, depth, 1 / w and the axis coordinates divided by w
+     */
+    private static void toScreen(float[] polygon, int cornerCount, int width, int height) {
+        for (int corner = 0; corner < cornerCount; corner++) {
+            int offset = corner * CLIP_FLOATS;
+            float inverseW = 1 / polygon[offset + 3];
+
+            polygon[offset] = (polygon[offset] * inverseW * 0.5f + 0.5f) * width;
+            polygon[offset + 1] = (0.5f - polygon[offset + 1] * inverseW * 0.5f) * height;
+            polygon[offset + 2] = polygon[offset + 2] * inverseW;
+            polygon[offset + 3] = inverseW;
+            polygon[offset + 4] *= inverseW;
+            polygon[offset + 5] *= inverseW;
+        }
+    }
+
+    /**
+     * Front faces wind counter clockwise like on the GPU, the image y axis points down so they have a negative area
+     */
+    private static boolean isBackFacing(float[] polygon, int cornerCount) {
+        float area = 0;
+        for (int corner = 0; corner < cornerCount; corner++) {
+            int current = corner * CLIP_FLOATS;
+            int next = ((corner + 1) % cornerCount) * CLIP_FLOATS;
+            area += polygon[current] * polygon[next + 1] - polygon[next] * polygon[current + 1];
+        }
+
+        return area >= 0;
+    }
+
+    private static boolean isOutside(float[] polygon, int cornerCount, int width, int height) {
+        float minX = Float.POSITIVE_INFINITY;
+        float minY = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY;
+        float maxY = Float.NEGATIVE_INFINITY;
+
+        for (int corner = 0; corner < cornerCount; corner++) {
+            int offset = corner * CLIP_FLOATS;
+            minX = Math.min(minX, polygon[offset]);
+            maxX = Math.max(maxX, polygon[offset]);
+            minY = Math.min(minY, polygon[offset + 1]);
+            maxY = Math.max(maxY, polygon[offset + 1]);
+        }
+
+        return maxX < 0 || maxY < 0 || minX > width || minY > height;
+    }
+
+    /**
+     * Sorts the triangles into the bands of rows they touch, a triangle is added to every band it spans.
+     * Triangles keep their order within a band so the image does not depend on how bands are scheduled.
+     *
+     * @param bandStarts filled with the offset of the bin of every band, the last entry is the total size
+     * @return offsets of the triangles in the triangle array, grouped by band
+     */
+    private static int[] binTriangles(float[] triangles, int height, int bandCount, int[] bandStarts) {
+        int triangleCount = triangles.length / TRIANGLE_FLOATS;
+        int[] firstBands = new int[triangleCount];
+        int[] lastBands = new int[triangleCount];
+
+        for (int i = 0; i < triangleCount; i++) {
+            int triangle = i * TRIANGLE_FLOATS;
+            float y0 = triangles[triangle + 1];
+            float y1 = triangles[triangle + VERTEX_FLOATS + 1];
+            float y2 = triangles[triangle + VERTEX_FLOATS * 2 + 1];
+
+            // pixel centers are at +0.5
+            int minY = Math.max(0, (int) Math.ceil(Math.min(y0, Math.min(y1, y2)) - 0.5f));
+            int maxY = Math.min(height - 1, (int) Math.floor(Math.max(y0, Math.max(y1, y2)) - 0.5f));
+            if (minY > maxY) {
+                firstBands[i] = 0;
+                lastBands[i] = -1;
+                continue;
+            }
+
+            firstBands[i] = minY / BAND_HEIGHT;
+            lastBands[i] = maxY / BAND_HEIGHT;
+            for (int band = firstBands[i]; band <= lastBands[i]; band++) {
+                bandStarts[band + 1]++;
+            }
+        }
+
+        for (int band = 0; band < bandCount; band++) {
+            bandStarts[band + 1] += bandStarts[band];
+        }
+
+        int[] bandTriangles = new int[bandStarts[bandCount]];
+        int[] bandSizes = new int[bandCount];
+        for (int i = 0; i < triangleCount; i++) {
+            for (int band = firstBands[i]; band <= lastBands[i]; band++) {
+                bandTriangles[bandStarts[band] + bandSizes[band]++] = i * TRIANGLE_FLOATS;
+            }
+        }
+
+        return bandTriangles;
+    }
+
+    /**
+     * Rasterizes the triangles binned into one band
+     */
+    private void rasterizeBand(float[] triangles, int[] bandTriangles, int[] bandStarts, int[] pixels, float[] depth,
+                               int width, int height, int band) {
+        int bandStart = band * BAND_HEIGHT;
+        int bandEnd = Math.min(height, bandStart + BAND_HEIGHT);
+
+        for (int i = bandStarts[band]; i < bandStarts[band + 1]; i++) {
+            int triangle = bandTriangles[i];
+            float x0 = triangles[triangle];
+            float y0 = triangles[triangle + 1];
+            float x1 = triangles[triangle + VERTEX_FLOATS];
+            float y1 = triangles[triangle + VERTEX_FLOATS + 1];
+            float x2 = triangles[triangle + VERTEX_FLOATS * 2];
+            float y2 = triangles[triangle + VERTEX_FLOATS * 2 + 1];
+
+            // pixel centers are at +0.5
+            int minY = Math.max(bandStart, (int) Math.ceil(Math.min(y0, Math.min(y1, y2)) - 0.5f));
+            int maxY = Math.min(bandEnd - 1, (int) Math.floor(Math.max(y0, Math.max(y1, y2)) - 0.5f));
+            if (minY > maxY) {
+                continue;
+            }
+
+            int minX = Math.max(0, (int) Math.ceil(Math.min(x0, Math.min(x1, x2)) - 0.5f));
+            int maxX = Math.min(width - 1, (int) Math.floor(Math.max(x0, Math.max(x1, x2)) - 0.5f));
+            if (minX > maxX) {
+                continue;
+            }
+
+            float area = (x1 - x0) * (y2 - y0) - (x2 - x0) * (y1 - y0);
+            if (area == 0) {
+                continue;
+            }
+
+            rasterizeTriangle(triangles, triangle, 1 / area, minX, maxX, minY, maxY, pixels, depth, width);
+        }
+    }
+
+    private void rasterizeTriangle(float[] triangles, int triangle, float inverseArea, int minX, int maxX,
+                                   int minY, int maxY, int[] pixels, float[] depth, int width) {
+        int v0 = triangle;
+        int v1 = triangle + VERTEX_FLOATS;
+        int v2 = triangle + VERTEX_FLOATS * 2;
+
+        // barycentric weights are linear in screen space: weight = a * x + b * y + c
+        float a0 = (triangles[v1 + 1] - triangles[v2 + 1]) * inverseArea;
+        float b0 = (triangles[v2] - triangles[v1]) * inverseArea;
+        float c0 = (triangles[v1] * triangles[v2 + 1] - triangles[v2] * triangles[v1 + 1]) * inverseArea;
+        float a1 = (triangles[v2 + 1] - triangles[v0 + 1]) * inverseArea;
+        float b1 = (triangles[v0] - triangles[v2]) * inverseArea;
+        float c1 = (triangles[v2] * triangles[v0 + 1] - triangles[v0] * triangles[v2 + 1]) * inverseArea;
+
+        int[] page = pagePixels[(int) triangles[triangle + PAGE]];
+        int pageWidth = atlas.getPages().get((int) triangles[triangle + PAGE]).getWidth();
+        int pageHeight = page.length / pageWidth;
+        int texelX = (int) triangles[triangle + TEXEL_X];
+        int texelY = (int) triangles[triangle + TEXEL_Y];
+        int tileSize = (int) triangles[triangle + TILE_SIZE];
+        float light = triangles[triangle + LIGHT];
+
+        for (int y = minY; y <= maxY; y++) {
+            float centerY = y + 0.5f;
+
+            for (int x = minX; x <= maxX; x++) {
+                float centerX = x + 0.5f;
+                float weight0 = a0 * centerX + b0 * centerY + c0;
+                float weight1 = a1 * centerX + b1 * centerY + c1;
+                float weight2 = 1 - weight0 - weight1;
+
+                if (weight0 < 0 || weight1 < 0 || weight2 < 0) {
+                    continue;
+                }
+
+                float z = weight0 * triangles[v0 + 2] + weight1 * triangles[v1 + 2] + weight2 * triangles[v2 + 2];
+                int pixel = y * width + x;
+                if (z < -1 || z > 1 || z >= depth[pixel]) {
+                    continue;
+                }
+
+                // perspective correct axis coordinates
+                float inverseW = weight0 * triangles[v0 + 3] + weight1 * triangles[v1 + 3]
+                        + weight2 * triangles[v2 + 3];
+                float axisU = (weight0 * triangles[v0 + 4] + weight1 * triangles[v1 + 4]
+                        + weight2 * triangles[v2 + 4]) / inverseW;
+                float axisV = (weight0 * triangles[v0 + 5] + weight1 * triangles[v1 + 5]
+                        + weight2 * triangles[v2 + 5]) / inverseW;
+
+                int sampleX = Math.min(pageWidth - 1, texelX + (int) (fract(axisU) * tileSize));
+                int sampleY = Math.min(pageHeight - 1, texelY + (int) (fract(axisV) * tileSize));
+                int texel = page[sampleY * pageWidth + sampleX];
+
+                // fully transparent texels are skipped so the tiles behind them stay visible
+                if ((texel >>> 24) == 0) {
+                    continue;
+                }
+
+                depth[pixel] = z;
+                pixels[pixel] = shade(texel, light);
+            }
+        }
+    }
+
+    private static float fract(float value) {
+        return value - (float) Math.floor(value);
+    }
+
+    private static int shade(int texel, float light) {
+        int red = Math.min(255, (int) (((texel >> 16) & 0xFF) * light));
+        int green = Math.min(255, (int) (((texel >> 8) & 0xFF) * light));
+        int blue = Math.min(255, (int) ((texel & 0xFF) * light));
+        return 0xFF000000 | red << 16 | green << 8 | blue;
+    }
+
+    /**
+     * Growable array of projected triangles
+     */
+    private static final class TriangleWriter {
+        private float[] triangles;
+        private int size;
+
+        TriangleWriter(int triangleCapacity) {
+            triangles = new float[Math.max(1, triangleCapacity) * TRIANGLE_FLOATS];
+        }
+
+        void add(float[] polygon, int corner0, int corner1, int corner2, int page, float texelX, float texelY,
+                 int tileSize, float light) {
+            if (size + TRIANGLE_FLOATS > triangles.length) {
+                triangles = Arrays.copyOf(triangles, triangles.length * 2);
+            }
+
+            System.arraycopy(polygon, corner0 * CLIP_FLOATS, triangles, size, VERTEX_FLOATS);
+            System.arraycopy(polygon, corner1 * CLIP_FLOATS, triangles, size + VERTEX_FLOATS, VERTEX_FLOATS);
+            System.arraycopy(polygon, corner2 * CLIP_FLOATS, triangles, size + VERTEX_FLOATS * 2, VERTEX_FLOATS);
+            triangles[size + PAGE] = page;
+            triangles[size + TEXEL_X] = texelX;
+            triangles[size + TEXEL_Y] = texelY;
+            triangles[size + TILE_SIZE] = tileSize;
+            triangles[size + LIGHT] = light;
+            size += TRIANGLE_FLOATS;
+        }
+
+        float[] toArray() {
+            return size == 0 ? EMPTY_TRIANGLES : Arrays.copyOf(triangles, size);
+        }
+    }
+
+    /**
+     * Meshes and projects a range of chunks, ranges are split until they are small enough
+     */
+    private final class MeshTask extends RecursiveAction {
+        private final List<ChunkSnapshot> snapshots;
+        private final float[][] chunkTriangles;
+        private final Matrix4f viewProjection;
+        private final int tileSize;
+        private final int width;
+        private final int height;
+        private final int start;
+        private final int end;
+
+        MeshTask(List<ChunkSnapshot> snapshots, float[][] chunkTriangles, Matrix4f viewProjection, int tileSize,
+                 int width, int height, int start, int end) {
+            this.snapshots = snapshots;
+            this.chunkTriangles = chunkTriangles;
+            this.viewProjection = viewProjection;
+            this.tileSize = tileSize;
+            this.width = width;
+            this.height = height;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= CHUNKS_PER_TASK) {
+                for (int i = start; i < end; i++) {
+                    chunkTriangles[i] = buildTriangles(snapshots.get(i), viewProjection, tileSize, width, height);
+                }
+
+                return;
+            }
+
+            int middle = (start + end) >>> 1;
+            invokeAll(new MeshTask(snapshots, chunkTriangles, viewProjection, tileSize, width, height, start, middle),
+                    new MeshTask(snapshots, chunkTriangles, viewProjection, tileSize, width, height, middle, end));
+        }
+    }
+
+    /**
+     * Rasterizes a range of bands, ranges are split until they are one band
+     */
+    private final class RasterTask extends RecursiveAction {
+        private final float[] triangles;
+        private final int[] bandTriangles;
+        private final int[] bandStarts;
+        private final int[] pixels;
+        private final float[] depth;
+        private final int width;
+        private final int height;
+        private final int startBand;
+        private final int endBand;
+
+        RasterTask(float[] triangles, int[] bandTriangles, int[] bandStarts, int[] pixels, float[] depth, int width,
+                   int height, int startBand, int endBand) {
+            this.triangles = triangles;
+            this.bandTriangles = bandTriangles;
+            this.bandStarts = bandStarts;
+            this.pixels = pixels;
+            this.depth = depth;
+            this.width = width;
+            this.height = height;
+            this.startBand = startBand;
+            this.endBand = endBand;
+        }
+
+        @Override
+        protected void compute() {
+            if (endBand - startBand <= 1) {
+                for (int band = startBand; band < endBand; band++) {
+                    rasterizeBand(triangles, bandTriangles, bandStarts, pixels, depth, width, height, band);
+                }
+
+                return;
+            }
+
+            int middle = (startBand + endBand) >>> 1;
+            invokeAll(new RasterTask(triangles, bandTriangles, bandStarts, pixels, depth, width, height, startBand,
+                            middle),
+                    new RasterTask(triangles, bandTriangles, bandStarts, pixels, depth, width, height, middle,
+                            endBand));
+        }
+    }
+}
@@ -0,0 +1,429 @@
+package wilds.voxeleditor.core.renderer;
+
+import wilds.voxeleditor.core.models.Tileset;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Packs the images of tilesets into a few atlas pages. Tilesets are packed whole on shelves and only share a page with
+ * tilesets of the same tile size, so one page needs one set of tile texture coordinate uniforms.
+ * <p>
+ * Every tileset gets a region with its texture coordinate table remapped into its page, see Tileset.getTileTexCoords.
+ * Tiles without a tileset or with a tileset that is not in the atlas use the default tileset. Tile ids outside of their
+ * tileset have no texture coordinates, see Region.hasTile.
+ * <p>
+ * An atlas is immutable once built so mesh workers can read it, the GL textures for the pages are owned by the renderer.
+ * Tilesets loaded later are appended to a new atlas that shares everything that did not change, see append.
+ */
+public final class TileAtlas {
+
+    private static final Logger LOGGER = LogManager.getLogger(TileAtlas.class);
+
+    public static final int MAX_PAGE_SIZE = 2048;
+
+    private final List<Page> pages;
+    private final List<Region> regions;
+    private final IdentityHashMap<Tileset, Region> tilesetRegions;
+    private final Tileset defaultTileset;
+    private final Region defaultRegion;
+
+    private TileAtlas(List<Page> pages, List<Region> regions, IdentityHashMap<Tileset, Region> tilesetRegions,
+                      Tileset defaultTileset) {
+        this.pages = pages;
+        this.regions = regions;
+        this.tilesetRegions = tilesetRegions;
+        this.defaultTileset = defaultTileset;
+        defaultRegion = tilesetRegions.get(defaultTileset);
+    }
+
+    /**
+     * Packs the default tileset and the given tilesets into pages
+     *
+     * @param defaultTileset used for tiles without a known tileset
+     * @param tilesets       to pack, the default tileset may be part of it
+     */
+    public static TileAtlas build(Tileset defaultTileset, Collection<Tileset> tilesets) {
+        List<Tileset> added = new ArrayList<>();
+        added.add(defaultTileset);
+        for (Tileset tileset : tilesets) {
+            if (tileset != defaultTileset && tileset.getImage() != null) {
+                added.add(tileset);
+            }
+        }
+
+        return pack(Collections.emptyList(), Collections.emptyList(), new IdentityHashMap<>(), defaultTileset, added);
+    }
+
+    /**
+     * Packs the tilesets that are not part of this atlas yet into the free space of the existing pages
+     * or into new pages. Pages without new tilesets are shared with this atlas.
+     * <p>
+     * A region is shared as well as long as its page did not grow, so a tileset moved in the atlas
+     * when getRegion returns a different region for it in both atlases.
+     *
+     * @param tilesets all tilesets that should be in the atlas, tilesets already in it are skipped
+     * @return the new atlas or this atlas if there was nothing to add
+     */
+    public TileAtlas append(Collection<Tileset> tilesets) {
+        List<Tileset> added = new ArrayList<>();
+        for (Tileset tileset : tilesets) {
+            if (!tilesetRegions.containsKey(tileset) && tileset.getImage() != null) {
+                added.add(tileset);
+            }
+        }
+
+        if (added.isEmpty()) {
+            return this;
+        }
+
+        return pack(pages, regions, tilesetRegions, defaultTileset, added);
+    }
+
+    private static TileAtlas pack(List<Page> basePages, List<Region> baseRegions,
+                                  IdentityHashMap<Tileset, Region> baseTilesetRegions, Tileset defaultTileset,
+                                  List<Tileset> added) {
+        // group on tile size, then pack the tallest images first to waste less space on the shelves
+        added.sort(Comparator.comparingInt(Tileset::getTileSize)
+                .thenComparing(Comparator.comparingInt((Tileset tileset) -> tileset.getImage().getHeight()).reversed()));
+
+        List<PageBuilder> pageBuilders = new ArrayList<>();
+        for (Page page : basePages) {
+            pageBuilders.add(new PageBuilder(page));
+        }
+
+        int regionCount = baseRegions.size();
+
+        for (Tileset tileset : added) {
+            PageBuilder pageBuilder = null;
+            for (PageBuilder candidate : pageBuilders) {
+                if (candidate.fits(tileset)) {
+                    pageBuilder = candidate;
+                    break;
+                }
+            }
+
+            if (pageBuilder == null) {
+                pageBuilder = new PageBuilder(tileset.getTileSize());
+                pageBuilders.add(pageBuilder);
+
+                BufferedImage image = tileset.getImage();
+                if (image.getWidth() > MAX_PAGE_SIZE || image.getHeight() > MAX_PAGE_SIZE) {
+                    LOGGER.warn(String.format("Tileset %s is bigger than an atlas page, it gets a page of its own",
+                            tileset.getName()));
+                }
+            }
+
+            pageBuilder.add(tileset, regionCount++);
+        }
+
+        List<Page> pages = new ArrayList<>();
+        Region[] regions = baseRegions.toArray(new Region[regionCount]);
+        IdentityHashMap<Tileset, Region> tilesetRegions = new IdentityHashMap<>(baseTilesetRegions);
+
+        for (int pageIndex = 0; pageIndex < pageBuilders.size(); pageIndex++) {
+            PageBuilder pageBuilder = pageBuilders.get(pageIndex);
+            Page page = pageBuilder.build(pageIndex, regions);
+            pages.add(page);
+
+            for (Region region : page.regions) {
+                tilesetRegions.put(region.getTileset(), region);
+            }
+        }
+
+        LOGGER.debug(String.format("Packed %s tilesets into %s atlas pages", added.size(), pages.size()));
+        return new TileAtlas(Collections.unmodifiableList(pages), Collections.unmodifiableList(Arrays.asList(regions)),
+                tilesetRegions, defaultTileset);
+    }
+
+    public List<Page> getPages() {
+        return pages;
+    }
+
+    public int getPageCount() {
+        return pages.size();
+    }
+
+    public int getRegionCount() {
+        return regions.size();
+    }
+
+    /**
+     * @return region of the tileset, the default region if the tileset is null or not part of this atlas
+     */
+    public Region getRegion(Tileset tileset) {
+        if (tileset == null) {
+            return defaultRegion;
+        }
+
+        Region region = tilesetRegions.get(tileset);
+        return region == null ? defaultRegion : region;
+    }
+
+    public Region getRegion(int regionIndex) {
+        return regions.get(regionIndex);
+    }
+
+    /**
+     * One image of packed tilesets that all share the same tile size
+     */
+    public static final class Page {
+        private final int index;
+        private final int tileSize;
+        private final BufferedImage image;
+
+        // packing state, pages get more tilesets when the atlas is appended to
+        private final List<Region> regions;
+        private final List<int[]> offsets;
+        private final int cursorX;
+        private final int shelfY;
+        private final int shelfHeight;
+
+        Page(int index, int tileSize, BufferedImage image, List<Region> regions, List<int[]> offsets, int cursorX,
+             int shelfY, int shelfHeight) {
+            this.index = index;
+            this.tileSize = tileSize;
+            this.image = image;
+            this.regions = regions;
+            this.offsets = offsets;
+            this.cursorX = cursorX;
+            this.shelfY = shelfY;
+            this.shelfHeight = shelfHeight;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public int getTileSize() {
+            return tileSize;
+        }
+
+        public BufferedImage getImage() {
+            return image;
+        }
+
+        public int getWidth() {
+            return image.getWidth();
+        }
+
+        public int getHeight() {
+            return image.getHeight();
+        }
+
+        /**
+         * @return width of one tile in texture coordinates
+         */
+        public float getTileTexCoordWidth() {
+            return tileSize / (float) image.getWidth();
+        }
+
+        /**
+         * @return height of one tile in texture coordinates
+         */
+        public float getTileTexCoordHeight() {
+            return tileSize / (float) image.getHeight();
+        }
+    }
+
+    /**
+     * Where a tileset ended up in the atlas, with the texture coordinate table of the tileset remapped into its page.
+     * The table is indexed the same way as the table of the tileset.
+     */
+    public static final class Region {
+        private final int index;
+        private final int page;
+        private final Tileset tileset;
+        private final float[] texCoords;
+
+        Region(int index, int page, Tileset tileset, float[] texCoords) {
+            this.index = index;
+            this.page = page;
+            this.tileset = tileset;
+            this.texCoords = texCoords;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public int getPage() {
+            return page;
+        }
+
+        public Tileset getTileset() {
+            return tileset;
+        }
+
+        public int getTileCount() {
+            return tileset.getTileCount();
+        }
+
+        public boolean hasTile(short tileId) {
+            return tileset.hasTile(tileId);
+        }
+
+        /**
+         * @return u of the tile origin in the page
+         * @throws IllegalArgumentException if the tile id is not part of the tileset, see hasTile
+         */
+        public float getTexCoordX(short tileId) {
+            return texCoords[tileset.getTileTexCoordOffset(tileId)];
+        }
+
+        /**
+         * @return v of the tile origin in the page
+         * @throws IllegalArgumentException if the tile id is not part of the tileset, see hasTile
+         */
+        public float getTexCoordY(short tileId) {
+            return texCoords[tileset.getTileTexCoordOffset(tileId) + 1];
+        }
+    }
+
+    /**
+     * Places tileset images on shelves from top to bottom, a new shelf starts when an image does not fit the row.
+     * A builder can continue packing an existing page, the page is only drawn again when tilesets were added to it.
+     */
+    private static final class PageBuilder {
+        private final int tileSize;
+        private final Page basePage;
+        private final List<Tileset> tilesets;
+        private final List<int[]> offsets;
+        private final IntArrayList regionIndices;
+
+        private int cursorX;
+        private int shelfY;
+        private int shelfHeight;
+        private int width;
+        private int height;
+
+        PageBuilder(int tileSize) {
+            this(tileSize, null);
+        }
+
+        PageBuilder(Page page) {
+            this(page.tileSize, page);
+
+            for (int i = 0; i < page.regions.size(); i++) {
+                tilesets.add(page.regions.get(i).getTileset());
+                offsets.add(page.offsets.get(i));
+                regionIndices.add(page.regions.get(i).getIndex());
+            }
+
+            cursorX = page.cursorX;
+            shelfY = page.shelfY;
+            shelfHeight = page.shelfHeight;
+            width = page.getWidth();
+            height = page.getHeight();
+        }
+
+        private PageBuilder(int tileSize, Page basePage) {
+            this.tileSize = tileSize;
+            this.basePage = basePage;
+            tilesets = new ArrayList<>();
+            offsets = new ArrayList<>();
+            regionIndices = new IntArrayList();
+        }
+
+        boolean fits(Tileset tileset) {
+            if (tileset.getTileSize() != tileSize) {
+                return false;
+            }
+
+            BufferedImage image = tileset.getImage();
+            if (cursorX + image.getWidth() <= MAX_PAGE_SIZE) {
+                return shelfY + image.getHeight() <= MAX_PAGE_SIZE;
+            }
+
+            return shelfY + shelfHeight + image.getHeight() <= MAX_PAGE_SIZE && image.getWidth() <= MAX_PAGE_SIZE;
+        }
+
+        void add(Tileset tileset, int regionIndex) {
+            BufferedImage image = tileset.getImage();
+
+            if (cursorX > 0 && cursorX + image.getWidth() > MAX_PAGE_SIZE) {
+                shelfY += shelfHeight;
+                cursorX = 0;
+                shelfHeight = 0;
+            }
+
+            offsets.add(new int[]{cursorX, shelfY});
+            cursorX += image.getWidth();
+            shelfHeight = Math.max(shelfHeight, image.getHeight());
+            width = Math.max(width, cursorX);
+            height = Math.max(height, shelfY + shelfHeight);
+
+            tilesets.add(tileset);
+            regionIndices.add(regionIndex);
+        }
+
+        /**
+         * @param regions to put the regions of this page in by region index, regions of a page that kept its size
+         *                are already in there and stay as they are
+         */
+        Page build(int pageIndex, Region[] regions) {
+            if (basePage != null && tilesets.size() == basePage.regions.size()) {
+                return basePage;
+            }
+
+            BufferedImage image = new BufferedImage(Math.max(1, width), Math.max(1, height), BufferedImage.TYPE_INT_ARGB);
+            boolean moved = basePage == null || basePage.getWidth() != image.getWidth()
+                    || basePage.getHeight() != image.getHeight();
+
+            Graphics2D graphics = image.createGraphics();
+            List<Region> pageRegions = new ArrayList<>();
+
+            for (int i = 0; i < tilesets.size(); i++) {
+                Tileset tileset = tilesets.get(i);
+                int[] offset = offsets.get(i);
+                int regionIndex = regionIndices.getInt(i);
+                graphics.drawImage(tileset.getImage(), offset[0], offset[1], null);
+
+                if (moved || regions[regionIndex] == null) {
+                    regions[regionIndex] = new Region(regionIndex, pageIndex, tileset,
+                            texCoords(tileset, offset, image.getWidth(), image.getHeight()));
+                }
+
+                pageRegions.add(regions[regionIndex]);
+            }
+
+            graphics.dispose();
+            return new Page(pageIndex, tileSize, image, Collections.unmodifiableList(pageRegions),
+                    Collections.unmodifiableList(new ArrayList<>(offsets)), cursorX, shelfY, shelfHeight);
+        }
+
+        /**
+         * Scales the table of the tileset from its own image to the page, the u and v of every entry are
+         * moved to where the image of the tileset was drawn
+         */
+        private float[] texCoords(Tileset tileset, int[] offset, int pageWidth, int pageHeight) {
+            float[] tilesetTexCoords = tileset.getTileTexCoords();
+            float[] texCoords = new float[tilesetTexCoords.length];
+
+            float scaleX = tileset.getWidth() / (float) pageWidth;
+            float scaleY = tileset.getHeight() / (float) pageHeight;
+            float offsetX = offset[0] / (float) pageWidth;
+            float offsetY = offset[1] / (float) pageHeight;
+
+            for (int i = 0; i < texCoords.length; i += 2) {
+                texCoords[i] = offsetX + tilesetTexCoords[i] * scaleX;
+                texCoords[i + 1] = offsetY + tilesetTexCoords[i + 1] * scaleY;
+            }
+
+            return texCoords;
+        }
+    }
+}
@@ -4,8 +4,6 @@ import wilds.rune.renderer.IDisposable;
 import wilds.rune.renderer.IRenderer;
 import wilds.rune.renderer.gl.ShaderProgram;
 import wilds.rune.renderer.gl.Texture2D;
-import wilds.rune.renderer.gl.VertexAttribute;
-import wilds.rune.renderer.gl.VertexBuffer;
 import wilds.rune.renderer.gl.states.CullingState;
 
 import com.jogamp.opengl.GL2ES2;
@@ -15,29 +13,47 @@ import org.joml.Matrix4f;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 /**
  * @author Mark "Wilds" van der Wal
  * @since 6-3-2018
  * <p>
- * todo: sort on texture, create intermediate structure
+ * Tiles are drawn from one texture at a time, usually a TileAtlas page. Switching the texture flushes the batch
+ * so callers should group their tiles per texture, cached chunk meshes are already split up per atlas page.
+ * <p>
+ * Cached meshes use a packed vertex format of PACKED_VERTEX_BYTES per vertex and are drawn as indexed quads,
+ * 4 vertices per quad with one static index buffer shared by all quads:
+ * <pre>
+ * 0  x, y, z   unsigned bytes, tile corner relative to the chunk origin in world axes
+ * 3  face      unsigned byte, CubeTileSide ordinal, the shader derives the normal from it
+ * 4  u, v      normalized unsigned shorts, tile origin in the texture
+ * 8  axis u, v unsigned bytes, tile counts along the quad
+ * 10 padding
+ * </pre>
  */
 public class TileBatch implements IDisposable {
 
     private static final Logger LOGGER = LogManager.getLogger(TileBatch.class);
 
-    private final int decalVertexCount = 65536;
-    private final IRenderer<GL2ES2> renderer;
-    private final Vector3f lightVector = new Vector3f(-0.5f, -0.9f, 0.7f).normalize();
-    private final Vector3f cubeFaceNormal = new Vector3f();
+    static final int PACKED_VERTEX_BYTES = 12;
+    static final int PACKED_TEXCOORD_OFFSET = 4;
+    static final int PACKED_AXIS_TEXCOORD_OFFSET = 8;
+
+    /**
+     * Indices are unsigned shorts so a buffer can hold 65536 vertices, a chunk has at most 12288 visible sides
+     */
+    static final int MAX_QUADS_PER_BUFFER = 65536 / 4;
 
-    private final Vector3f[] cubePositions = new Vector3f[]{
+    static final Vector3f[] CUBE_POSITIONS = new Vector3f[]{
             // front
             new Vector3f(0, 0, 0), new Vector3f(0, 1, 0), new Vector3f(1, 1, 0), new Vector3f(1, 0, 0),
             // back
             new Vector3f(1, 0, 1), new Vector3f(1, 1, 1), new Vector3f(0, 1, 1), new Vector3f(0, 0, 1)
     };
 
-    private final short[][] cubeFaceIndices = new short[][]{
+    static final short[][] CUBE_FACE_INDICES = new short[][]{
 
             {0, 1, 2, 3}, // front
             {4, 5, 6, 7}, // back
@@ -47,40 +63,17 @@ public class TileBatch implements IDisposable {
             {1, 6, 5, 2} // top
     };
 
-    private final Vector2f[] axisTextureCoordinates = new Vector2f[]{
+    static final Vector2f[] AXIS_TEXTURE_COORDINATES = new Vector2f[]{
             new Vector2f(0, 1), new Vector2f(0, 0), new Vector2f(1, 0), new Vector2f(1, 1)
     };
 
-    private final Vector3f[] tilePositions = new Vector3f[]{
-            new Vector3f(), new Vector3f(), new Vector3f(), new Vector3f()
-    };
-
-    private final Vector2f[] tileTextureCoordinates = new Vector2f[]{
-            new Vector2f(), new Vector2f(), new Vector2f(), new Vector2f()
-    };
-
-    private final String tileVertShader = "attribute vec3 " + ShaderProgram.POSITION_ATTRIBUTE + ";" +
-            "attribute vec2 " + ShaderProgram.TEXCOORD0_ATTRIBUTE + ";" +
-            "attribute vec2 " + ShaderProgram.TEXCOORDAXIS_ATTRIBUTE + ";" +
-            "attribute vec3 " + ShaderProgram.NORMAL_ATTRIBUTE + ";" +
-            "uniform mat4 " + ShaderProgram.VIEW_MATRIX_UNIFORM + ";" +
-            "uniform mat4 " + ShaderProgram.PROJECTION_MATRIX_UNIFORM + ";" +
-            "varying vec2 texCoord;" +
-            "varying vec2 texCoordAxis;" +
-            "varying vec3 camNormal;" +
-            "varying float distanceToVertex;" +
-
-            "void main()" +
-            "{" +
-            "camNormal = " + ShaderProgram.NORMAL_ATTRIBUTE + ";" +
-            "texCoord = " + ShaderProgram.TEXCOORD0_ATTRIBUTE + ";" +
-            "texCoordAxis = " + ShaderProgram.TEXCOORDAXIS_ATTRIBUTE + ";" +
-            "vec4 cameraSpaceVertex = " + ShaderProgram.VIEW_MATRIX_UNIFORM +
-            " * vec4(" + ShaderProgram.POSITION_ATTRIBUTE + ", 1);" +
-            "distanceToVertex = length(cameraSpaceVertex);" +
+    /**
+     * Direction of the light the tile shader lights sides with, do not modify
+     */
+    static final Vector3f LIGHT_DIRECTION = new Vector3f(-0.5f, -0.9f, 0.7f).normalize();
 
-            "gl_Position = " + ShaderProgram.PROJECTION_MATRIX_UNIFORM + " * cameraSpaceVertex;" +
-            "}";
+    private final IRenderer<GL2ES2> renderer;
+    private final Vector3f lightVector = new Vector3f(LIGHT_DIRECTION);
 
     private final String tileFragShader = "precision mediump float;" +
             "varying vec2 texCoord;" +
@@ -91,28 +84,66 @@ public class TileBatch implements IDisposable {
             "uniform vec3 u_lightVector;" +
             "uniform float u_lineWidth;" +
             "uniform float u_tileSize;" +
+            "uniform float u_tileTexWidth;" +
+            "uniform float u_tileTexHeight;" +
             "uniform float u_gridEnabled;" +
+            "uniform float u_opacity;" +
 
             "void main()" +
             "{" +
-            "vec2 st = texCoordAxis * u_tileSize;" +
+            "vec2 tileCoord = fract(texCoordAxis);" +
+            "vec2 st = tileCoord * u_tileSize;" +
             "vec2 bl = step(vec2(u_lineWidth), st);" +
             "vec2 tr = step(vec2(u_lineWidth), u_tileSize - st);" +
 
             "float distanceFactor = smoothstep(1024, 0, distanceToVertex);" +
             "float gridPixel = bl.x * bl.y * tr.x * tr.y * distanceFactor * u_gridEnabled;" +
 
-            "vec4 rgbaColor = texture2D(" + ShaderProgram.TEXUNIT0_UNIFORM + ", texCoord);" +
+            "vec2 tileTexCoord = texCoord + tileCoord * vec2(u_tileTexWidth, u_tileTexHeight);" +
+            "vec4 rgbaColor = texture2D(" + ShaderProgram.TEXUNIT0_UNIFORM + ", tileTexCoord);" +
             "float baseFactor = 0.5;" +
             "float lightFactor = baseFactor * max(0, dot(-u_lightVector, camNormal));" +
             "float gridFactor = 0.2 * gridPixel;" +
 
-            "gl_FragColor = vec4(rgbaColor.rgb * (baseFactor + lightFactor + gridFactor), rgbaColor.a);" +
+            "gl_FragColor = vec4(rgbaColor.rgb * (baseFactor + lightFactor + gridFactor), rgbaColor.a * u_opacity);" +
+            "}";
+
+    private final String packedVertShader = "attribute vec4 " + ShaderProgram.POSITION_ATTRIBUTE + ";" +
+            "attribute vec2 " + ShaderProgram.TEXCOORD0_ATTRIBUTE + ";" +
+            "attribute vec2 " + ShaderProgram.TEXCOORDAXIS_ATTRIBUTE + ";" +
+            "uniform mat4 " + ShaderProgram.VIEW_MATRIX_UNIFORM + ";" +
+            "uniform mat4 " + ShaderProgram.PROJECTION_MATRIX_UNIFORM + ";" +
+            "uniform vec3 u_chunkOrigin;" +
+            "uniform float u_worldTileSize;" +
+            "varying vec2 texCoord;" +
+            "varying vec2 texCoordAxis;" +
+            "varying vec3 camNormal;" +
+            "varying float distanceToVertex;" +
+
+            "void main()" +
+            "{" +
+            // front and back face along z, left and right along x, bottom and top along y
+            "float face = " + ShaderProgram.POSITION_ATTRIBUTE + ".w;" +
+            "float axis = floor(face / 2.0);" +
+            "float direction = mod(face, 2.0) * 2.0 - 1.0;" +
+            "camNormal = direction * vec3(float(axis == 1.0), float(axis == 2.0), float(axis == 0.0));" +
+            "texCoord = " + ShaderProgram.TEXCOORD0_ATTRIBUTE + ";" +
+            "texCoordAxis = " + ShaderProgram.TEXCOORDAXIS_ATTRIBUTE + ";" +
+            "vec3 position = (u_chunkOrigin + " + ShaderProgram.POSITION_ATTRIBUTE + ".xyz) * u_worldTileSize;" +
+            "vec4 cameraSpaceVertex = " + ShaderProgram.VIEW_MATRIX_UNIFORM + " * vec4(position, 1);" +
+            "distanceToVertex = length(cameraSpaceVertex);" +
+
+            "gl_Position = " + ShaderProgram.PROJECTION_MATRIX_UNIFORM + " * cameraSpaceVertex;" +
             "}";
 
-    private ShaderProgram shaderDefault;
-    private VertexBuffer tileBuffer;
+    private ShaderProgram shaderPacked;
     private boolean beginEndPair;
+    private int drawCalls;
+
+    private int quadIndexBufferId;
+    private int packedPositionLocation = -1;
+    private int packedTexCoordLocation = -1;
+    private int packedAxisTexCoordLocation = -1;
 
     public TileBatch(IRenderer<GL2ES2> renderer) {
         this.renderer = renderer;
@@ -120,17 +151,51 @@ public class TileBatch implements IDisposable {
 
     public void create() {
         GL2ES2 gl = renderer.getGL();
-        shaderDefault = ShaderProgram.createShaderProgram(gl, tileVertShader, tileFragShader);
-        tileBuffer = VertexBuffer.createVertexBuffer(gl, false, decalVertexCount,
-                VertexAttribute.POSITION, VertexAttribute.TEX_COORD0, VertexAttribute.TEX_COORD_AXIS, VertexAttribute.NORMAL);
+        shaderPacked = ShaderProgram.createShaderProgram(gl, packedVertShader, tileFragShader);
+        createQuadIndexBuffer(gl);
     }
 
     @Override
     public void dispose() {
-        shaderDefault.dispose();
-        tileBuffer.dispose();
+        shaderPacked.dispose();
+        renderer.getGL().glDeleteBuffers(1, new int[]{quadIndexBufferId}, 0);
+    }
+
+    /**
+     * Every quad is two triangles over its 4 vertices: 0, 1, 2 and 0, 2, 3
+     */
+    private void createQuadIndexBuffer(GL2ES2 gl) {
+        ByteBuffer indices = ByteBuffer.allocateDirect(MAX_QUADS_PER_BUFFER * 6 * Short.BYTES)
+                .order(ByteOrder.nativeOrder());
+
+        for (int quad = 0; quad < MAX_QUADS_PER_BUFFER; quad++) {
+            int vertex = quad * 4;
+            indices.putShort((short) vertex);
+            indices.putShort((short) (vertex + 1));
+            indices.putShort((short) (vertex + 2));
+            indices.putShort((short) vertex);
+            indices.putShort((short) (vertex + 2));
+            indices.putShort((short) (vertex + 3));
+        }
+
+        indices.flip();
+
+        int[] ids = new int[1];
+        gl.glGenBuffers(1, ids, 0);
+        quadIndexBufferId = ids[0];
+
+        gl.glBindBuffer(GL2ES2.GL_ELEMENT_ARRAY_BUFFER, quadIndexBufferId);
+        gl.glBufferData(GL2ES2.GL_ELEMENT_ARRAY_BUFFER, indices.remaining(), indices, GL2ES2.GL_STATIC_DRAW);
+        gl.glBindBuffer(GL2ES2.GL_ELEMENT_ARRAY_BUFFER, 0);
     }
 
+    /**
+     * Texture coordinates are the origin of a tile in the texture, axis texture coordinates count tiles.
+     * The shader repeats the tile for every whole axis texture coordinate so merged quads still show every tile.
+     * A texture has to be set before anything is rendered.
+     *
+     * @param tileSize of the map in world units, used for the grid
+     */
     public void begin(Matrix4f modelView, Matrix4f projection, int tileSize, float lineWidth, boolean grid) {
         if (beginEndPair) {
             LOGGER.warn("Cannot nest begin calls on a single batch!");
@@ -138,159 +203,136 @@ public class TileBatch implements IDisposable {
         }
 
         beginEndPair = true;
+        drawCalls = 0;
 
         renderer.pushCullingState(CullingState.CullClockwise);
 
-        shaderDefault.bind();
-        shaderDefault.setUniformf("u_lightVector", lightVector);
-        shaderDefault.setUniformf("u_lineWidth", lineWidth);
-        shaderDefault.setUniformf("u_tileSize", tileSize);
-        shaderDefault.setUniformf("u_gridEnabled", grid ? 1.0f : 0.0f);
-        shaderDefault.setUniformf(ShaderProgram.VIEW_MATRIX_UNIFORM, modelView);
-        shaderDefault.setUniformf(ShaderProgram.PROJECTION_MATRIX_UNIFORM, projection);
+        shaderPacked.bind();
+        shaderPacked.setUniformf("u_lightVector", lightVector);
+        shaderPacked.setUniformf("u_lineWidth", lineWidth);
+        shaderPacked.setUniformf("u_tileSize", tileSize);
+        shaderPacked.setUniformf("u_gridEnabled", grid ? 1.0f : 0.0f);
+        shaderPacked.setUniformf("u_opacity", 1.0f);
+        shaderPacked.setUniformf(ShaderProgram.VIEW_MATRIX_UNIFORM, modelView);
+        shaderPacked.setUniformf(ShaderProgram.PROJECTION_MATRIX_UNIFORM, projection);
+        shaderPacked.setUniformf("u_worldTileSize", tileSize);
+
+        if (packedPositionLocation < 0) {
+            findPackedAttributeLocations();
+        }
     }
 
     public void end() {
         if (isBeginCalled()) {
-            flushBatch(tileBuffer, GL2ES2.GL_TRIANGLES);
-
             renderer.popCullingState();
-            shaderDefault.unbind();
+            shaderPacked.unbind();
         }
 
         beginEndPair = false;
     }
 
-    private boolean isBeginCalled() {
-        if (!beginEndPair) {
-            LOGGER.warn("Begin must be called before trying to render anything!");
-            return false;
+    /**
+     * Sets the texture to draw the next tiles with
+     *
+     * @param textureTileSize size of one tile in the texture in pixels
+     */
+    public void setTexture(Texture2D texture, int textureTileSize) {
+        if (!isBeginCalled()) {
+            return;
         }
 
-        return true;
-    }
-
-    private void flushBatch(VertexBuffer buffer, int primitive) {
-        buffer.bind(shaderDefault);
-        buffer.render(primitive);
-        buffer.unbind(shaderDefault);
+        texture.bind();
+        shaderPacked.setUniformf("u_tileTexWidth", textureTileSize / (float) texture.getWidth());
+        shaderPacked.setUniformf("u_tileTexHeight", textureTileSize / (float) texture.getHeight());
     }
 
-    public void tileAxisAligned(int tileX, int tileY, int tileZ, int tilesetX, int tilesetY, int tileSize,
-                                int sideIndex, Texture2D texture2D) {
-        if (texture2D == null) {
-            LOGGER.error("drawTexture: Texture is null!");
+    /**
+     * Sets the opacity of the next tiles, begin resets it to fully opaque.
+     * Tiles are only blended when a blend state is pushed on the renderer.
+     */
+    public void setOpacity(float opacity) {
+        if (!isBeginCalled()) {
             return;
         }
 
-        if (isBeginCalled()) {
-            int texWidth = texture2D.getWidth();
-            int texHeight = texture2D.getHeight();
-            int size = tilePositions.length;
-
-            float srcTextCoordX = tilesetX * tileSize / (float) texWidth;
-            float srcTextCoordY = tilesetY * tileSize / (float) texHeight;
-            float srcTexCoordWidth = tileSize / (float) texWidth;
-            float srcTexCoordHeight = tileSize / (float) texHeight;
-
-            setFaceNormal(sideIndex);
-            fillTileTexCoords(FlipAxis.None, srcTextCoordX, srcTextCoordY, srcTexCoordWidth, srcTexCoordHeight);
-            fillTileVertices(sideIndex, tileX, tileY, tileZ, tileSize);
-
-            if (!tileBuffer.doVerticesFit(size + 2)) {
-                flushBatch(tileBuffer, GL2ES2.GL_TRIANGLES);
-            }
-
-            putTileVertices(0);
-            putTileVertices(1);
-            putTileVertices(2);
-
-            putTileVertices(0);
-            putTileVertices(2);
-            putTileVertices(3);
-        }
+        shaderPacked.setUniformf("u_opacity", opacity);
     }
 
-    private void putTileVertices(int index) {
-        tileBuffer.putVector3(tilePositions[index]);
-        tileBuffer.putVector2(tileTextureCoordinates[index]);
-        tileBuffer.putVector2(axisTextureCoordinates[index]);
-        tileBuffer.putVector3(cubeFaceNormal);
-    }
+    /**
+     * rune binds attributes by name, the packed buffers are set up by hand so their locations are looked up once
+     */
+    private void findPackedAttributeLocations() {
+        GL2ES2 gl = renderer.getGL();
+        int[] program = new int[1];
 
-    private void setFaceNormal(int sideIndex) {
-        switch (sideIndex) {
-            case 0:
-                cubeFaceNormal.set(0, 0, -1);
-                break;
-            case 1:
-                cubeFaceNormal.set(0, 0, 1);
-                break;
-            case 2:
-                cubeFaceNormal.set(-1, 0, 0);
-                break;
-            case 3:
-                cubeFaceNormal.set(1, 0, 0);
-                break;
-            case 4:
-                cubeFaceNormal.set(0, -1, 0);
-                break;
-            case 5:
-                cubeFaceNormal.set(0, 1, 0);
-                break;
-        }
+        gl.glGetIntegerv(GL2ES2.GL_CURRENT_PROGRAM, program, 0);
+
+        packedPositionLocation = gl.glGetAttribLocation(program[0], ShaderProgram.POSITION_ATTRIBUTE);
+        packedTexCoordLocation = gl.glGetAttribLocation(program[0], ShaderProgram.TEXCOORD0_ATTRIBUTE);
+        packedAxisTexCoordLocation = gl.glGetAttribLocation(program[0], ShaderProgram.TEXCOORDAXIS_ATTRIBUTE);
     }
 
-    private void fillTileTexCoords(FlipAxis flip, float texPosX, float texPosY, float texWidth, float texHeight) {
-        int flipValue = flip.ordinal();
+    private boolean isBeginCalled() {
+        if (!beginEndPair) {
+            LOGGER.warn("Begin must be called before trying to render anything!");
+            return false;
+        }
 
-        tileTextureCoordinates[flipValue].set(texPosX + axisTextureCoordinates[0].x * texWidth, texPosY + axisTextureCoordinates[0].y * texHeight);
-        tileTextureCoordinates[1 ^ flipValue].set(texPosX + axisTextureCoordinates[1].x * texWidth, texPosY + axisTextureCoordinates[1].y * texHeight);
-        tileTextureCoordinates[2 ^ flipValue].set(texPosX + axisTextureCoordinates[2].x * texWidth, texPosY + axisTextureCoordinates[2].y * texHeight);
-        tileTextureCoordinates[3 ^ flipValue].set(texPosX + axisTextureCoordinates[3].x * texWidth, texPosY + axisTextureCoordinates[3].y * texHeight);
+        return true;
     }
 
-    private void fillTileVertices(int sideIndex, float x, float y, float z, float tileSize) {
-        short[] faceIndices = cubeFaceIndices[sideIndex];
+    /**
+     * Renders packed quads with the shared quad index buffer
+     *
+     * @param originX chunk origin along the world x axis in tiles
+     * @param originY chunk origin along the world y axis in tiles
+     * @param originZ chunk origin along the world z axis in tiles
+     */
+    public void renderQuads(QuadBuffer buffer, int originX, int originY, int originZ) {
+        renderQuads(buffer, originX, originY, originZ, 0, buffer.getQuadCount());
+    }
 
-        tilePositions[0].set(cubePositions[faceIndices[0]]);
-        tilePositions[1].set(cubePositions[faceIndices[1]]);
-        tilePositions[2].set(cubePositions[faceIndices[2]]);
-        tilePositions[3].set(cubePositions[faceIndices[3]]);
+    /**
+     * Renders a range of the packed quads with the shared quad index buffer
+     *
+     * @param firstQuad first quad of the range in the buffer
+     * @param quadCount amount of quads in the range
+     */
+    public void renderQuads(QuadBuffer buffer, int originX, int originY, int originZ, int firstQuad, int quadCount) {
+        if (!isBeginCalled() || quadCount <= 0) {
+            return;
+        }
 
-        float worldX = x * tileSize;
-        float worldY = y * tileSize;
-        float worldZ = z * tileSize;
+        shaderPacked.setUniformf("u_chunkOrigin", originX, originY, originZ);
 
-        tilePositions[0].mul(tileSize).add(worldX, worldY, worldZ);
-        tilePositions[1].mul(tileSize).add(worldX, worldY, worldZ);
-        tilePositions[2].mul(tileSize).add(worldX, worldY, worldZ);
-        tilePositions[3].mul(tileSize).add(worldX, worldY, worldZ);
+        GL2ES2 gl = renderer.getGL();
+        buffer.bind();
+        gl.glEnableVertexAttribArray(packedPositionLocation);
+        gl.glEnableVertexAttribArray(packedTexCoordLocation);
+        gl.glEnableVertexAttribArray(packedAxisTexCoordLocation);
+        gl.glVertexAttribPointer(packedPositionLocation, 4, GL2ES2.GL_UNSIGNED_BYTE, false,
+                PACKED_VERTEX_BYTES, 0);
+        gl.glVertexAttribPointer(packedTexCoordLocation, 2, GL2ES2.GL_UNSIGNED_SHORT, true,
+                PACKED_VERTEX_BYTES, PACKED_TEXCOORD_OFFSET);
+        gl.glVertexAttribPointer(packedAxisTexCoordLocation, 2, GL2ES2.GL_UNSIGNED_BYTE, false,
+                PACKED_VERTEX_BYTES, PACKED_AXIS_TEXCOORD_OFFSET);
+
+        gl.glBindBuffer(GL2ES2.GL_ELEMENT_ARRAY_BUFFER, quadIndexBufferId);
+        gl.glDrawElements(GL2ES2.GL_TRIANGLES, quadCount * 6, GL2ES2.GL_UNSIGNED_SHORT,
+                (long) firstQuad * 6 * Short.BYTES);
+        drawCalls++;
+        gl.glBindBuffer(GL2ES2.GL_ELEMENT_ARRAY_BUFFER, 0);
+
+        gl.glDisableVertexAttribArray(packedPositionLocation);
+        gl.glDisableVertexAttribArray(packedTexCoordLocation);
+        gl.glDisableVertexAttribArray(packedAxisTexCoordLocation);
+        gl.glBindBuffer(GL2ES2.GL_ARRAY_BUFFER, 0);
     }
 
     /**
-     * Front face = Clockwise starting at lower left.
-     * our texture coordinates are flipped by default to show textures correctly
-     * because of OpenGL default texture coordinates:
-     * 0,1 -- 1,1
-     * |      |
-     * 0,0 -- 1,0
-     * <p>
-     * if we had the opposite:
-     * 0,0 -- 1,0
-     * |      |
-     * 0,1 -- 1,1
-     * <p>
-     * our FlipAxis would look as follows:
-     * None = 0,
-     * Horizontal = 1,
-     * Vertical = 2,
-     * Both = 3
+     * @return amount of draw calls issued since the last begin call
      */
-    public enum FlipAxis {
-        None,
-        Vertical,
-        Both,
-        Horizontal
+    public int getDrawCalls() {
+        return drawCalls;
     }
 }
@@ -1,230 +1,624 @@
 package wilds.voxeleditor.core.renderer;
 
 import wilds.voxeleditor.core.models.Map;
-import wilds.voxeleditor.core.models.MapCell;
-import wilds.voxeleditor.core.models.mapobjects.MapObject;
-import wilds.voxeleditor.core.models.mapobjects.operations.MapObjectOperationAdapter;
+import wilds.voxeleditor.core.models.Tileset;
 import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTile;
 import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileSide;
+import wilds.voxeleditor.core.models.storage.ChunkSnapshot;
+import wilds.voxeleditor.core.models.storage.MapChunk;
+import wilds.voxeleditor.core.models.storage.MapSnapshot;
 import wilds.voxeleditor.core.services.MapService;
+import wilds.voxeleditor.core.services.TilesetService;
 
-import wilds.rune.renderer.Color;
+import wilds.rune.geometry.Box;
 import wilds.rune.renderer.IRenderer;
-import wilds.rune.renderer.batch.PrimitiveBatch;
 import wilds.rune.renderer.gl.Texture2D;
+import wilds.rune.renderer.gl.states.BlendState;
 import wilds.rune.renderer.gl.states.SamplerState;
-import wilds.rune.util.Maths;
-import wilds.rune.util.Textures;
 import wilds.rune.viewport.IViewport;
 import wilds.rune.viewport.camera.BaseCamera;
 
 import com.jogamp.opengl.GL2ES2;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import org.joml.FrustumIntersection;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
-import org.joml.Vector3i;
+import rx.Subscription;
+import rx.functions.Action1;
+import rx.subjects.PublishSubject;
 
-import java.awt.image.BufferedImage;
-import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.Predicate;
 
 /**
  * @author Mark "Wilds" van der Wal
  * @since 10-3-2018
+ * <p>
+ * Draws the map from cached chunk meshes. All tilesets are packed into a TileAtlas, tilesets loaded later are
+ * appended to it and only the chunks that use a tileset that moved in the atlas are meshed again. Meshes are drawn
+ * page by page so every page texture is bound only once per frame.
+ * <p>
+ * The map is edited on another thread, the renderer only reads the snapshot the storage published last
+ * so it always sees one consistent version of the map.
+ * <p>
+ * Layers can be hidden and the layer being edited can be isolated, see LayerIsolation. Chunk meshes keep their quads
+ * ordered by layer so changing which layers are drawn only changes the ranges that are drawn, nothing is meshed again.
+ * Layer settings may be changed from any thread.
+ * <p>
+ * With a fixed camera orientation the chunk meshes leave out the sides that can never face the camera,
+ * see setFixedOrientation. The meshes are built again whenever that set of sides changes.
  */
 public class TileMapRenderer {
 
+    /**
+     * Which layers are drawn around the active layer, the layer the grid is drawn on
+     */
+    public enum LayerIsolation {
+        /**
+         * All visible layers are drawn
+         */
+        None,
+        /**
+         * Only the active layer is drawn
+         */
+        Isolate,
+        /**
+         * The active layer is drawn, visible layers below it are drawn transparent and layers above it are hidden
+         */
+        GhostBelow
+    }
+
+    public static final float GHOST_OPACITY = 0.35f;
+
+    private static final int MAX_UPLOADS_PER_FRAME = 64;
+
+    /**
+     * A side that is this close to edge on for a view ray is counted as facing away from it
+     */
+    private static final float EDGE_ON_EPSILON = 1e-4f;
+
     private TileBatch tileBatch;
-    private PrimitiveBatch primitiveBatch;
+    private GridRenderer gridRenderer;
 
-    private Texture2D texture;
     private IViewport viewport;
     private MapService mapService;
-
-    private TileRenderOperation tileRenderOperation;
-    private Color baseGridColor = Color.GRAY;
+    private TilesetService tilesetService;
+    private Subscription tilesetSubscription;
+    private final PublishSubject<Integer> gridLayerChanged;
+
+    private Tileset defaultTileset;
+    private TileAtlas atlas;
+    private Texture2D[] atlasTextures;
+    private volatile boolean atlasDirty;
+
+    private final Int2ObjectMap<ChunkMesh> chunkMeshes;
+    private final ChunkMeshScheduler chunkMeshScheduler;
+    private final ObjectArrayList<ChunkMesh> visibleMeshes;
+    private Map meshedMap;
+
+    private final RenderProfiler profiler;
+    private final Matrix4f viewProjection;
+    private final FrustumIntersection frustum;
+    private final Matrix4f inverseViewProjection;
+    private final Vector3f nearCorner;
+    private final Vector3f farCorner;
+
+    private volatile boolean fixedOrientation;
+    private int hiddenSides;
+    private boolean splitLayers;
+
+    private volatile int gridLayer = 0;
+    private volatile long hiddenLayers;
+    private volatile LayerIsolation layerIsolation = LayerIsolation.None;
+    private long drawnLayers;
+    private long ghostLayers;
     private boolean drawGrid;
     private int tilesDrawn = 0;
+    private int chunksDrawn = 0;
+    private int chunksCulled = 0;
 
-    public TileMapRenderer(IViewport viewport, MapService mapService) {
+    public TileMapRenderer(IViewport viewport, MapService mapService, TilesetService tilesetService) {
         this.viewport = viewport;
         this.mapService = mapService;
-        tileRenderOperation = new TileRenderOperation();
+        this.tilesetService = tilesetService;
+        chunkMeshes = new Int2ObjectOpenHashMap<>();
+        gridLayerChanged = PublishSubject.create();
+        visibleMeshes = new ObjectArrayList<>();
+        atlasTextures = new Texture2D[0];
+        chunkMeshScheduler = new ChunkMeshScheduler();
+        profiler = new RenderProfiler();
+        viewProjection = new Matrix4f();
+        frustum = new FrustumIntersection();
+        inverseViewProjection = new Matrix4f();
+        nearCorner = new Vector3f();
+        farCorner = new Vector3f();
     }
 
     public void create() {
         IRenderer<GL2ES2> renderer = viewport.getRenderer();
-        primitiveBatch = new PrimitiveBatch(renderer);
-        primitiveBatch.create();
+        gridRenderer = new GridRenderer(renderer);
+        gridRenderer.create();
 
         tileBatch = new TileBatch(renderer);
         tileBatch.create();
 
-        try {
-            BufferedImage image = Textures.loadImage("/images/tileseta.png");
-            texture = Texture2D.create2D(renderer.getGL(), image, SamplerState.PointWrap);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        defaultTileset = tilesetService.getDefaultTileset();
+        tilesetSubscription = tilesetService.onTilesetLoaded(tileset -> atlasDirty = true);
+        atlas = null;
+        updateAtlas();
     }
 
     public void dispose() {
-        primitiveBatch.dispose();
+        tilesetSubscription.unsubscribe();
+        disposeChunkMeshes();
+        disposeAtlasTextures();
+        chunkMeshScheduler.dispose();
+        gridRenderer.dispose();
         tileBatch.dispose();
-        texture.dispose();
     }
 
     /**
-     * todo: implement a broad phase for faster rendering!
+     * Renders the chunk meshes that touch the view frustum and records the frame in the profiler
      */
     public void render() {
+        profiler.beginFrame();
+        renderFrame();
+
+        profiler.add(RenderProfiler.Metric.ChunksDrawn, chunksDrawn);
+        profiler.add(RenderProfiler.Metric.ChunksCulled, chunksCulled);
+        profiler.add(RenderProfiler.Metric.FacesDrawn, tilesDrawn);
+        profiler.endFrame();
+    }
+
+    /**
+     * The broad phase first tests the map bounds, a map fully inside the frustum skips the per chunk tests
+     * and a map outside of it skips all chunks.
+     */
+    private void renderFrame() {
         Map map = mapService.getMap();
         BaseCamera camera = viewport.getCamera();
         tilesDrawn = 0;
+        chunksDrawn = 0;
+        chunksCulled = 0;
 
-        if (drawGrid) {
-            drawBaseGrid();
+        if (drawGrid && mapService.hasMap()) {
+            gridRenderer.render(camera.getViewMatrix(), camera.getViewportProjectionMatrix(), map.getWidth(),
+                    map.getHeight(), map.getTileSize(), gridLayer);
+            profiler.increment(RenderProfiler.Metric.DrawCalls);
         }
 
-        MapCell[] mapCells = map.getMapData();
-        if (mapService.hasMap() && mapCells.length > 0) {
-            texture.bind();
-            tileBatch.begin(camera.getViewMatrix(), camera.getViewportProjectionMatrix(),
-                    map.getTileSize(), 1f, drawGrid);
-            tileRenderOperation.setCamera(camera);
+        if (atlasDirty) {
+            updateAtlas();
+        }
+
+        camera.getViewportProjectionMatrix().mul(camera.getViewMatrix(), viewProjection);
+
+        if (mapService.hasMap()) {
+            updateHiddenSides();
+            updateLayerSplit();
+            updateChunkMeshes(map);
+        }
+
+        if (mapService.hasMap() && !chunkMeshes.isEmpty()) {
+            frustum.set(viewProjection);
+
+            Box bounds = map.getBounds();
+            Vector3f min = bounds.getMin();
+            Vector3f max = bounds.getMax();
+            int mapIntersection = frustum.intersectAab(min.x, min.y, min.z, max.x, max.y, max.z);
+
+            if (mapIntersection == FrustumIntersection.OUTSIDE) {
+                chunksCulled = chunkMeshes.size();
+                for (ChunkMesh mesh : chunkMeshes.values()) {
+                    profiler.add(RenderProfiler.Metric.FacesCulled, mesh.getQuadCount());
+                }
+                return;
+            }
+
+            updateLayerMasks();
 
-            for (int i = 0; i < mapCells.length; i++) {
-                if (mapCells[i].isEmpty()) {
+            visibleMeshes.clear();
+            for (ChunkMesh mesh : chunkMeshes.values()) {
+                if (mesh.getQuadCount() == 0 || getChunkLayers(mesh, drawnLayers | ghostLayers) == 0) {
                     continue;
                 }
 
-                MapObject tile = mapCells[i].getCellObject();
-                tileRenderOperation.setTileIndex(i);
-                tile.accept(tileRenderOperation);
+                if (mapIntersection != FrustumIntersection.INSIDE && !mesh.isVisible(frustum, map.getTileSize())) {
+                    chunksCulled++;
+                    profiler.add(RenderProfiler.Metric.FacesCulled, mesh.getQuadCount());
+                    continue;
+                }
+
+                visibleMeshes.add(mesh);
+                tilesDrawn += mesh.getQuadCount(getChunkLayers(mesh, drawnLayers | ghostLayers));
+            }
+
+            chunksDrawn = visibleMeshes.size();
+            tileBatch.begin(camera.getViewMatrix(), camera.getViewportProjectionMatrix(), map.getTileSize(), 1f, drawGrid);
+            renderLayers(drawnLayers);
+
+            // ghosts are drawn last so the layers drawn on top of them show through
+            if (ghostLayers != 0) {
+                viewport.getRenderer().pushBlendState(BlendState.NonPreMultiplied);
+                tileBatch.setOpacity(GHOST_OPACITY);
+                renderLayers(ghostLayers);
+                viewport.getRenderer().popBlendState();
             }
 
             tileBatch.end();
+            profiler.add(RenderProfiler.Metric.DrawCalls, tileBatch.getDrawCalls());
         }
     }
 
-    private void drawBaseGrid() {
-        Map map = mapService.getMap();
-        BaseCamera camera = viewport.getCamera();
-        int mapWidth = map.getWidth();
-        int mapHeight = map.getHeight();
-        int ts = map.getTileSize();
+    /**
+     * Draws the given layers page by page so every atlas texture is bound once. Chunks are not batched together,
+     * their vertices are relative to the chunk origin. Every visible chunk is one draw call for every page it has
+     * quads on, a mesh split per layer takes one draw call per run of consecutive layers it draws.
+     * The DrawCalls metric of the profiler counts the draw calls that were actually issued.
+     */
+    private void renderLayers(long layers) {
+        for (TileAtlas.Page page : atlas.getPages()) {
+            tileBatch.setTexture(atlasTextures[page.getIndex()], page.getTileSize());
+
+            for (ChunkMesh mesh : visibleMeshes) {
+                int chunkLayers = getChunkLayers(mesh, layers);
+                if (chunkLayers != 0) {
+                    mesh.render(tileBatch, page.getIndex(), chunkLayers);
+                }
+            }
+        }
+    }
+
+    /**
+     * Works out which layers are drawn solid and which are ghosted this frame, one bit per tile z
+     */
+    private void updateLayerMasks() {
+        long visibleLayers = ~hiddenLayers;
+        long activeLayerBit = 1L << gridLayer;
+
+        switch (layerIsolation) {
+            case Isolate:
+                drawnLayers = visibleLayers & activeLayerBit;
+                ghostLayers = 0;
+                break;
+            case GhostBelow:
+                drawnLayers = visibleLayers & activeLayerBit;
+                ghostLayers = visibleLayers & (activeLayerBit - 1);
+                break;
+            default:
+                drawnLayers = visibleLayers;
+                ghostLayers = 0;
+                break;
+        }
+    }
+
+    /**
+     * @return the bits of the layers that fall in the chunk of the mesh, counted from the bottom of the chunk
+     */
+    private static int getChunkLayers(ChunkMesh mesh, long layers) {
+        return (int) (layers >>> (mesh.getChunkZ() << MapChunk.SIZE_BITS)) & ChunkMesh.ALL_LAYERS;
+    }
+
+    /**
+     * Works out which sides the chunk meshes can leave out for the current camera, all meshes are built again
+     * when they change. Meshes stay drawn with their old sides until their new vertices are uploaded.
+     */
+    private void updateHiddenSides() {
+        int sides = fixedOrientation ? getBackFacingSides(viewProjection) : 0;
+        if (sides == hiddenSides) {
+            return;
+        }
 
-        primitiveBatch.begin(camera.getViewMatrix(), camera.getViewportProjectionMatrix());
-        primitiveBatch.color(baseGridColor);
+        hiddenSides = sides;
+        chunkMeshScheduler.nextGeneration();
 
-        for (int x = 0; x <= mapWidth; x++) {
-            primitiveBatch.line(x * ts, 0, 0, x * ts, 0, mapHeight * ts);
+        for (ChunkMesh mesh : chunkMeshes.values()) {
+            mesh.invalidate();
         }
+    }
 
-        for (int y = 0; y <= mapHeight; y++) {
-            primitiveBatch.line(0, 0, y * ts, mapWidth * ts, 0, y * ts);
+    /**
+     * Meshes only keep their quads within one layer while layers are hidden or isolated, merging across layers
+     * saves quads on walls and slopes. All meshes are built again when this changes, until then a mesh that
+     * is not split is drawn as a whole.
+     */
+    private void updateLayerSplit() {
+        boolean split = layerIsolation != LayerIsolation.None || hiddenLayers != 0;
+        if (split == splitLayers) {
+            return;
         }
 
-        primitiveBatch.end();
+        splitLayers = split;
+        chunkMeshScheduler.nextGeneration();
+
+        for (ChunkMesh mesh : chunkMeshes.values()) {
+            mesh.invalidate();
+        }
     }
 
-    public void toggleGrid() {
-        drawGrid = !drawGrid;
+    /**
+     * A side can only be seen along a view ray it faces against. Every view ray lies between the rays through
+     * the four corners of the frustum, so a side that faces away from all four corner rays can not be seen
+     * from this orientation, wherever the camera is moved to.
+     *
+     * @return side mask of the sides that can not be seen, bit n is the side with ordinal n
+     */
+    private int getBackFacingSides(Matrix4f viewProjection) {
+        viewProjection.invert(inverseViewProjection);
+        int sides = ChunkMesher.ALL_SIDES;
+
+        for (int corner = 0; corner < 4; corner++) {
+            float x = (corner & 1) == 0 ? -1 : 1;
+            float y = (corner & 2) == 0 ? -1 : 1;
+
+            inverseViewProjection.transformProject(nearCorner.set(x, y, -1));
+            inverseViewProjection.transformProject(farCorner.set(x, y, 1));
+            Vector3f rayDirection = farCorner.sub(nearCorner).normalize();
+
+            for (CubeTileSide side : CubeTileSide.values()) {
+                if (rayDirection.dot(side.getAxis()) < -EDGE_ON_EPSILON) {
+                    sides &= ~(1 << side.ordinal());
+                }
+            }
+        }
+
+        return sides;
     }
 
-    private class TileRenderOperation extends MapObjectOperationAdapter {
-        private BaseCamera camera;
-        private int tileIndex;
+    /**
+     * Drops the meshes of chunks that no longer exist, uploads finished meshes and
+     * sends the snapshots of dirty chunks to the mesh workers
+     */
+    private void updateChunkMeshes(Map map) {
+        if (map != meshedMap) {
+            disposeChunkMeshes();
+            meshedMap = map;
+
+            // the grid layer may be past the top of a map with fewer layers
+            setGridLayer(gridLayer);
+        }
+
+        MapSnapshot snapshot = map.getStorage().getPublishedSnapshot();
+        ObjectIterator<ChunkMesh> meshIterator = chunkMeshes.values().iterator();
+        while (meshIterator.hasNext()) {
+            ChunkMesh mesh = meshIterator.next();
+            if (snapshot.getChunk(mesh.getChunkIndex()) == null) {
+                mesh.dispose();
+                meshIterator.remove();
+            }
+        }
 
-        private Vector3i tempTileCoordinates;
-        private Vector3f tempCamDir;
+        GL2ES2 gl = viewport.getRenderer().getGL();
+        ChunkMeshScheduler.ChunkMeshData meshData;
+        int uploads = 0;
 
-        private CubeTileSide visibleSides[];
-        private int visibleSidesCount;
+        while (uploads < MAX_UPLOADS_PER_FRAME && (meshData = chunkMeshScheduler.poll()) != null) {
+            ChunkMesh mesh = chunkMeshes.get(meshData.getChunkIndex());
 
-        TileRenderOperation() {
-            tempTileCoordinates = new Vector3i();
-            tempCamDir = new Vector3f();
-            visibleSides = new CubeTileSide[6];
+            // results can arrive out of order, never replace a mesh with an older one
+            if (mesh != null && meshData.getVersion() > mesh.getBuiltVersion()) {
+                mesh.upload(gl, meshData.getVertices(), meshData.getPageOffsets(), meshData.getLayerOffsets(),
+                        meshData.getVersion(), meshData.isLayerSplit());
+                uploads++;
+
+                profiler.increment(RenderProfiler.Metric.ChunksMeshed);
+                profiler.add(RenderProfiler.Metric.VerticesUploaded, mesh.getQuadCount() * 4L);
+            }
         }
 
-        void setTileIndex(int index) {
-            tileIndex = index;
+        for (ChunkSnapshot chunk : snapshot.getChunks()) {
+            ChunkMesh mesh = chunkMeshes.get(chunk.getChunkIndex());
+            if (mesh == null) {
+                mesh = new ChunkMesh(chunk);
+                chunkMeshes.put(chunk.getChunkIndex(), mesh);
+            }
+
+            if (mesh.isDirty(chunk)) {
+                mesh.setRequestedVersion(chunk.getVersion());
+                chunkMeshScheduler.submit(chunk, atlas, hiddenSides, splitLayers);
+            }
         }
+    }
+
+    private void disposeChunkMeshes() {
+        chunkMeshScheduler.nextGeneration();
 
-        void setCamera(BaseCamera camera) {
-            this.camera = camera;
+        for (ChunkMesh mesh : chunkMeshes.values()) {
+            mesh.dispose();
         }
 
-        /**
-         * todo: optimize for single tiles as tile cubes aren't just binary empty or solid
-         * These aren't voxel (they are close)
-         */
-        private void setVisibleSide(CubeTile tile, CubeTileSide side, Vector3f cameraDirection, Vector3i tileCoords) {
-            short tileId = tile.getTileId(side);
-            if (tileId == CubeTile.EMPTY_TILE_ID) {
-                return;
+        chunkMeshes.clear();
+    }
+
+    /**
+     * Packs the default and all loaded tilesets into the atlas. Tilesets loaded later are appended, only the textures
+     * of the pages that got new tilesets are uploaded again
+     */
+    private void updateAtlas() {
+        atlasDirty = false;
+        TileAtlas previousAtlas = atlas;
+        atlas = previousAtlas == null ? TileAtlas.build(defaultTileset, tilesetService.getTilesets())
+                : previousAtlas.append(tilesetService.getTilesets());
+
+        if (atlas == previousAtlas) {
+            return;
+        }
+
+        GL2ES2 gl = viewport.getRenderer().getGL();
+        Texture2D[] textures = Arrays.copyOf(atlasTextures, atlas.getPageCount());
+
+        for (TileAtlas.Page page : atlas.getPages()) {
+            int index = page.getIndex();
+            if (previousAtlas != null && index < previousAtlas.getPageCount()
+                    && previousAtlas.getPages().get(index) == page) {
+                continue;
+            }
+
+            if (textures[index] != null) {
+                textures[index].dispose();
             }
 
-            Map map = mapService.getMap();
-            MapCell[] cells = map.getMapData();
-            if (cameraDirection.dot(side.getAxis()) <= Maths.EPSILON) {
-                Vector3f axis = side.getAxis();
+            textures[index] = Texture2D.create2D(gl, page.getImage(), SamplerState.PointWrap);
+        }
+
+        atlasTextures = textures;
+
+        if (previousAtlas != null) {
+            invalidateMovedMeshes(previousAtlas);
+        }
+    }
+
+    /**
+     * Meshes hold texture coordinates, so a chunk is meshed again when one of its tiles now maps to another region.
+     * That is the case for tilesets on a page that grew, for tilesets that were just added and used the default
+     * tileset until now, and for tiles that use the default tileset when its page grew.
+     */
+    private void invalidateMovedMeshes(TileAtlas previousAtlas) {
+        if (meshedMap == null) {
+            return;
+        }
 
-                int x = (int) (tileCoords.x + axis.x);
-                int y = (int) (tileCoords.y + axis.z);
-                int z = (int) (tileCoords.z + axis.y);
+        // meshes in flight were built with the previous atlas
+        chunkMeshScheduler.nextGeneration();
 
-                // if this side's neighbor is outside map bounds or its empty
-                // we can check the next side because its visible.
-                int index = map.tileToIndex(x, y, z);
-                if (!map.isTileCoordWithinBounds(x, y, z) || cells[index].isEmpty()) {
-                    visibleSides[visibleSidesCount++] = side;
+        MapSnapshot snapshot = meshedMap.getStorage().getPublishedSnapshot();
+        Predicate<CubeTile> moved = tile -> {
+            for (CubeTileSide side : CubeTileSide.values()) {
+                Tileset tileset = tile.getTileset(side);
+                if (previousAtlas.getRegion(tileset) != atlas.getRegion(tileset)) {
+                    return true;
                 }
             }
-        }
 
-        /**
-         * Check which tilesides we can see so that we only draw the visible tiles
-         */
-        private void cullOccludedAndBackfaceSides(CubeTile tile, Vector3i tileCoordinates) {
-            Matrix4f camWorld = camera.getWorldMatrix();
-            int tileSize = mapService.getMap().getTileSize();
-            int halfTileSize = tileSize / 2;
-            visibleSidesCount = 0;
-
-            tempCamDir.set(tileCoordinates.x * tileSize + halfTileSize - camWorld.m30(),
-                    tileCoordinates.z * tileSize + halfTileSize - camWorld.m31(),
-                    tileCoordinates.y * tileSize + halfTileSize - camWorld.m32());
-
-            setVisibleSide(tile, CubeTileSide.Front, tempCamDir, tileCoordinates);
-            setVisibleSide(tile, CubeTileSide.Back, tempCamDir, tileCoordinates);
-            setVisibleSide(tile, CubeTileSide.Left, tempCamDir, tileCoordinates);
-            setVisibleSide(tile, CubeTileSide.Right, tempCamDir, tileCoordinates);
-            setVisibleSide(tile, CubeTileSide.Bottom, tempCamDir, tileCoordinates);
-            setVisibleSide(tile, CubeTileSide.Top, tempCamDir, tileCoordinates);
-        }
-
-        @Override
-        public void visit(CubeTile tile) {
-            Map map = mapService.getMap();
-            int tileSize = map.getTileSize();
-            map.indexToTile(tileIndex, tempTileCoordinates);
-            cullOccludedAndBackfaceSides(tile, tempTileCoordinates);
-
-            // iterate visible tile cube sides
-            for (int i = 0; i < visibleSidesCount; i++) {
-                CubeTileSide side = visibleSides[i];
-                short tileId = tile.getTileId(side);
-
-                tilesDrawn++;
-
-                // todo: replace with correct tileset data
-                int tilesetWidth = texture.getWidth() / tileSize;
-                int tilesetX = tileId % tilesetWidth;
-                int tilesetY = tileId / tilesetWidth;
-
-                tileBatch.tileAxisAligned(tempTileCoordinates.x, tempTileCoordinates.z, tempTileCoordinates.y,
-                        tilesetX, tilesetY, tileSize, side.ordinal(), texture);
+            return false;
+        };
+
+        for (ChunkMesh mesh : chunkMeshes.values()) {
+            ChunkSnapshot chunk = snapshot.getChunk(mesh.getChunkIndex());
+            if (chunk != null && chunk.anyCubeTile(moved)) {
+                mesh.invalidate();
+            } else {
+                mesh.cancelRequest();
             }
         }
     }
+
+    private void disposeAtlasTextures() {
+        for (Texture2D atlasTexture : atlasTextures) {
+            atlasTexture.dispose();
+        }
+
+        atlasTextures = new Texture2D[0];
+    }
+
+    public void toggleGrid() {
+        drawGrid = !drawGrid;
+    }
+
+    /**
+     * @param gridLayer tile z of the layer to draw the grid on, usually the layer that is being edited.
+     *                  Clamped to the layers of the open map so layer isolation always has a layer to draw
+     */
+    public synchronized void setGridLayer(int gridLayer) {
+        int maxLayer = mapService.hasMap() ? mapService.getMap().getDepth() - 1 : Map.MAX_MAP_DEPTH - 1;
+        int layer = Math.max(0, Math.min(gridLayer, maxLayer));
+
+        if (layer != this.gridLayer) {
+            this.gridLayer = layer;
+            gridLayerChanged.onNext(layer);
+        }
+    }
+
+    public int getGridLayer() {
+        return gridLayer;
+    }
+
+    /**
+     * Called with the new grid layer whenever it changes, the tools and the layer list keep each other
+     * up to date through it. May be called from any thread.
+     */
+    public Subscription onGridLayerChanged(Action1<Integer> action) {
+        return gridLayerChanged.subscribe(action);
+    }
+
+    /**
+     * Hidden layers are skipped when drawing, their meshes are kept
+     *
+     * @param layer tile z of the layer, layers from Map.MAX_MAP_DEPTH on are always visible
+     */
+    public synchronized void setLayerVisible(int layer, boolean visible) {
+        if (layer < 0 || layer >= Map.MAX_MAP_DEPTH) {
+            return;
+        }
+
+        hiddenLayers = visible ? hiddenLayers & ~(1L << layer) : hiddenLayers | 1L << layer;
+    }
+
+    public boolean isLayerVisible(int layer) {
+        return layer < 0 || layer >= Map.MAX_MAP_DEPTH || (hiddenLayers & 1L << layer) == 0;
+    }
+
+    public synchronized void showAllLayers() {
+        hiddenLayers = 0;
+    }
+
+    /**
+     * @param layerIsolation which layers to draw around the grid layer
+     */
+    public void setLayerIsolation(LayerIsolation layerIsolation) {
+        this.layerIsolation = layerIsolation;
+    }
+
+    public LayerIsolation getLayerIsolation() {
+        return layerIsolation;
+    }
+
+    /**
+     * A camera that is only moved and never turned can never see some of the sides, the chunk meshes leave those
+     * sides out while the orientation is fixed. Turn it off for cameras that can look around.
+     *
+     * @param fixedOrientation true if the orientation of the viewport camera does not change
+     */
+    public void setFixedOrientation(boolean fixedOrientation) {
+        this.fixedOrientation = fixedOrientation;
+    }
+
+    public boolean isFixedOrientation() {
+        return fixedOrientation;
+    }
+
+    /**
+     * @return profiler with the counters of the last frames, can be read from any thread
+     */
+    public RenderProfiler getProfiler() {
+        return profiler;
+    }
+
+    public GridRenderer getGridRenderer() {
+        return gridRenderer;
+    }
+
+    /**
+     * @return amount of tile sides drawn in the last frame, merged sides count as one
+     */
+    public int getTilesDrawn() {
+        return tilesDrawn;
+    }
+
+    /**
+     * @return amount of chunk meshes drawn in the last frame
+     */
+    public int getChunksDrawn() {
+        return chunksDrawn;
+    }
+
+    /**
+     * @return amount of chunk meshes skipped by the broad phase in the last frame
+     */
+    public int getChunksCulled() {
+        return chunksCulled;
+    }
 }
@@ -4,9 +4,15 @@ import wilds.voxeleditor.core.exceptions.EditorIOException;
 import wilds.voxeleditor.core.io.MapFileIO;
 import wilds.voxeleditor.core.io.porygon.PorygonMapFileHandler;
 import wilds.voxeleditor.core.models.Map;
-import wilds.voxeleditor.core.models.MapCell;
 import wilds.voxeleditor.core.models.events.MapEvent;
-import wilds.voxeleditor.core.models.mapobjects.MapObject;
+import wilds.voxeleditor.core.models.events.MapRegion;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTile;
+import wilds.voxeleditor.core.models.storage.ChunkDataAllocator;
+import wilds.voxeleditor.core.models.storage.DirectChunkDataAllocator;
+import wilds.voxeleditor.core.models.storage.HeapChunkDataAllocator;
+import wilds.voxeleditor.core.models.storage.MapStorage;
+import wilds.voxeleditor.core.models.storage.SwapFileChunkDataAllocator;
+import wilds.voxeleditor.core.models.storage.TileLayout;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -14,6 +20,7 @@ import rx.Subscription;
 import rx.functions.Action1;
 import rx.subjects.BehaviorSubject;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
@@ -29,6 +36,12 @@ public class MapService {
 
     private final static Logger LOGGER = LogManager.getLogger(MapService.class);
 
+    /**
+     * Maps with more tiles than this keep the fixed size part of their tile data in a swap file,
+     * see SwapFileChunkDataAllocator
+     */
+    public final static long OFF_HEAP_TILE_THRESHOLD = 512L * 512L * 32L;
+
     private final BehaviorSubject<MapEvent> mapChanged;
     private final MapFileIO defaultMapFileHandler;
 
@@ -45,27 +58,55 @@ public class MapService {
     }
 
     private void notifyObservers(MapEvent.Type type) {
+        notifyObservers(type, null);
+    }
+
+    private void notifyObservers(MapEvent.Type type, MapRegion region) {
         LOGGER.debug(String.format("Map %s event", type));
 
-        MapEvent event = new MapEvent(type);
+        // observers on other threads read the published snapshot, never the storage that is being edited
+        if (currentMap != null) {
+            currentMap.getStorage().publish();
+        }
+
+        MapEvent event = new MapEvent(type, region);
         mapChanged.onNext(event);
     }
 
     public void closeMap() {
+        disposeMap();
         currentMap = null;
         currentMapPath = null;
         notifyObservers(MapEvent.Type.Closed);
     }
 
     public void newMap(String name, int width, int height) {
-        currentMap = new Map(name, 1, width, height);
+        newMap(name, width, height, Map.DEFAULT_MAP_DEPTH);
+    }
+
+    public void newMap(String name, int width, int height, int depth) {
+        newMap(name, width, height, depth, TileLayout.RowMajor);
+    }
+
+    public void newMap(String name, int width, int height, int depth, TileLayout layout) {
+        newMap(name, width, height, depth, layout, createChunkDataAllocator(width, height, depth));
+    }
+
+    /**
+     * @param layout    order of the tiles inside of a chunk, it is saved with the map
+     * @param allocator creates the chunk data of the map
+     */
+    public void newMap(String name, int width, int height, int depth, TileLayout layout, ChunkDataAllocator allocator) {
+        disposeMap();
+        currentMap = new Map(name, 1, width, height, depth, layout, allocator);
         currentMapPath = null;
         notifyObservers(MapEvent.Type.New);
     }
 
     public void loadMap(Path path) throws EditorIOException {
-        Map loadedMap = defaultMapFileHandler.read(path);
+        Map loadedMap = defaultMapFileHandler.read(path, this::createChunkDataAllocator);
 
+        disposeMap();
         currentMap = loadedMap;
         currentMapPath = path;
         notifyObservers(MapEvent.Type.Opened);
@@ -94,21 +135,68 @@ public class MapService {
         return oldTile;
     }
 
-    public MapObject setTile(int x, int y, int z, MapObject tile) {
-        MapCell cell = currentMap.getMapCell(x, y, z);
-        MapObject old = cell.getCellObject();
-        cell.setCellObject(tile);
+    public CubeTile setTile(int x, int y, int z, CubeTile tile) {
+        MapStorage storage = currentMap.getStorage();
+        int index = currentMap.tileToIndex(x, y, z);
+        CubeTile old = storage.getCubeTile(index);
+        storage.setCubeTile(index, tile);
 
         return old;
     }
 
+    /**
+     * Notifies that the whole map has changed
+     */
     public void notifyChange() {
         notifyObservers(MapEvent.Type.Changed);
     }
 
-    public MapObject getTile(int x, int y, int z) {
-        MapCell cell = currentMap.getMapCell(x, y, z);
-        return cell == null ? null : cell.getCellObject();
+    /**
+     * Notifies that the given tiles have changed
+     *
+     * @param tileIndices of the changed tiles, the array is handed to the event and should not be modified afterwards
+     */
+    public void notifyChange(int[] tileIndices) {
+        notifyChange(MapRegion.fromTileIndices(currentMap, tileIndices));
+    }
+
+    /**
+     * Notifies that a region of the map has changed
+     *
+     * @param region that changed, null if the whole map changed
+     */
+    public void notifyChange(MapRegion region) {
+        notifyObservers(MapEvent.Type.Changed, region);
+    }
+
+    public CubeTile getTile(int x, int y, int z) {
+        if (!currentMap.isTileCoordWithinBounds(x, y, z)) {
+            return null;
+        }
+
+        int index = currentMap.tileToIndex(x, y, z);
+        return currentMap.getStorage().getCubeTile(index);
+    }
+
+    private void disposeMap() {
+        if (currentMap != null) {
+            currentMap.dispose();
+        }
+    }
+
+    private ChunkDataAllocator createChunkDataAllocator(int width, int height, int depth) {
+        if ((long) width * height * depth <= OFF_HEAP_TILE_THRESHOLD) {
+            return new HeapChunkDataAllocator();
+        }
+
+        try {
+            Path swapFile = Files.createTempFile("voxel-map-", ".chunks");
+            LOGGER.debug(String.format("Map tile data is swapped to: %s", swapFile));
+            return new SwapFileChunkDataAllocator(swapFile);
+        } catch (IOException e) {
+            LOGGER.warn("Could not create map swap file, keeping tile data in direct buffers", e);
+            return new DirectChunkDataAllocator();
+        }
     }
 
     public MapFileIO getMapIOHandler() {
@@ -2,11 +2,21 @@ package wilds.voxeleditor.core.services;
 
 import wilds.voxeleditor.core.models.Tileset;
 
+import wilds.rune.util.Textures;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import rx.Subscription;
+import rx.functions.Action1;
+import rx.subjects.PublishSubject;
+
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 
 /**
@@ -15,16 +25,69 @@ import java.util.HashMap;
  */
 public class TilesetService {
 
+    private final static Logger LOGGER = LogManager.getLogger(TilesetService.class);
+
+    public final static String DEFAULT_TILESET_PATH = "/images/tileseta.png";
+    public final static int DEFAULT_TILE_SIZE = 32;
+
+    private final PublishSubject<Tileset> tilesetLoaded;
     private HashMap<String, Tileset> tilesetHashMap;
+    private Tileset defaultTileset;
 
     public TilesetService() {
+        tilesetLoaded = PublishSubject.create();
         tilesetHashMap = new HashMap<>();
     }
 
+    /**
+     * Called with every tileset that is loaded, may be called from any thread
+     */
+    public Subscription onTilesetLoaded(Action1<Tileset> action) {
+        return tilesetLoaded.subscribe(action);
+    }
+
     public Tileset loadTileset(File file, int tileSize) throws IOException {
         Path filePath = file.toPath();
         BufferedImage image = ImageIO.read(file);
 
-        return new Tileset(image, filePath.getFileName().toString(), image.getWidth(), image.getHeight(), tileSize);
+        if (image == null) {
+            throw new IOException(String.format("Could not read tileset image: %s", filePath));
+        }
+
+        Tileset tileset = new Tileset(image, filePath.getFileName().toString(), image.getWidth(), image.getHeight(), tileSize);
+
+        synchronized (this) {
+            tilesetHashMap.put(tileset.getName(), tileset);
+        }
+
+        tilesetLoaded.onNext(tileset);
+        return tileset;
+    }
+
+    /**
+     * @return copy of all loaded tilesets
+     */
+    public synchronized Collection<Tileset> getTilesets() {
+        return new ArrayList<>(tilesetHashMap.values());
+    }
+
+    /**
+     * Tiles placed without a tileset use the default tileset, it is loaded on first use.
+     * A blank tileset is used when the image could not be loaded.
+     */
+    public synchronized Tileset getDefaultTileset() {
+        if (defaultTileset == null) {
+            BufferedImage image;
+            try {
+                image = Textures.loadImage(DEFAULT_TILESET_PATH);
+            } catch (IOException e) {
+                LOGGER.error(String.format("Could not load default tileset: %s", DEFAULT_TILESET_PATH), e);
+                image = new BufferedImage(DEFAULT_TILE_SIZE, DEFAULT_TILE_SIZE, BufferedImage.TYPE_INT_ARGB);
+            }
+
+            defaultTileset = new Tileset(image, "default", image.getWidth(), image.getHeight(), DEFAULT_TILE_SIZE);
+        }
+
+        return defaultTileset;
     }
 }
@@ -0,0 +1,65 @@
+package wilds.voxeleditor.core.models.events;
+
+import wilds.voxeleditor.core.models.Map;
+import wilds.voxeleditor.core.models.storage.MapChunk;
+
+import org.joml.Vector3i;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @since 18-10-2026
+ */
+public class MapRegionTest {
+
+    private final Map map = new Map("test", 1, 40, 40, 20);
+
+    @Test
+    public void noTilesIsNoRegion() {
+        assertNull(MapRegion.fromTileIndices(map, new int[0]));
+    }
+
+    @Test
+    public void tightBoxAroundTheTiles() {
+        MapRegion region = MapRegion.fromTileIndices(map, new int[]{
+                map.tileToIndex(3, 20, 1), map.tileToIndex(17, 5, 4), map.tileToIndex(8, 9, 2)});
+
+        assertVector(3, 5, 1, region.getMin());
+        assertVector(17, 20, 4, region.getMax());
+        assertTrue(region.contains(3, 5, 1));
+        assertTrue(region.contains(17, 20, 4));
+        assertFalse(region.contains(18, 20, 4));
+    }
+
+    @Test
+    public void sortedChunksTouchedByTheTiles() {
+        int[] tileIndices = {map.tileToIndex(33, 0, 0), map.tileToIndex(0, 0, 0), map.tileToIndex(15, 1, 0),
+                map.tileToIndex(16, 16, 16)};
+        MapRegion region = MapRegion.fromTileIndices(map, tileIndices);
+
+        // (0, 0, 0) and (15, 1, 0) are in the same chunk
+        assertArrayEquals(new int[]{tileIndices[1] >>> MapChunk.VOLUME_BITS, tileIndices[0] >>> MapChunk.VOLUME_BITS,
+                tileIndices[3] >>> MapChunk.VOLUME_BITS}, region.getChunkIndices());
+    }
+
+    @Test
+    public void intersectsInclusiveBoxes() {
+        MapRegion region = MapRegion.fromTileIndices(map, new int[]{map.tileToIndex(5, 5, 5)});
+
+        assertTrue(region.intersects(0, 0, 0, 5, 5, 5));
+        assertTrue(region.intersects(5, 5, 5, 9, 9, 9));
+        assertFalse(region.intersects(6, 0, 0, 9, 9, 9));
+        assertFalse(region.intersects(0, 0, 0, 4, 9, 9));
+    }
+
+    private static void assertVector(int x, int y, int z, Vector3i vector) {
+        assertEquals(x, vector.x);
+        assertEquals(y, vector.y);
+        assertEquals(z, vector.z);
+    }
+}
@@ -0,0 +1,73 @@
+package wilds.voxeleditor.core.models.storage;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @since 18-10-2026
+ */
+public class BitPackedArrayTest {
+
+    @Test
+    public void startsWithOneBitPerEntry() {
+        BitPackedArray array = new BitPackedArray(MapChunk.VOLUME);
+
+        assertEquals(1, array.getBitsPerEntry());
+        assertEquals(MapChunk.VOLUME / 8, array.getSizeInBytes());
+        assertEquals(0, array.get(MapChunk.VOLUME - 1));
+    }
+
+    @Test
+    public void widensToPowersOfTwo() {
+        BitPackedArray array = new BitPackedArray(MapChunk.VOLUME);
+        int[] expectedBits = {1, 1, 2, 2, 4, 4, 8, 8, 16, 16};
+        int[] maxValues = {0, 1, 2, 3, 4, 15, 16, 255, 256, 65535};
+
+        for (int i = 0; i < maxValues.length; i++) {
+            array.ensureCapacity(maxValues[i]);
+            assertEquals("bits for " + maxValues[i], expectedBits[i], array.getBitsPerEntry());
+        }
+
+        assertEquals(MapChunk.VOLUME * 2, array.getSizeInBytes());
+    }
+
+    @Test
+    public void keepsValuesWhenWidening() {
+        BitPackedArray array = new BitPackedArray(MapChunk.VOLUME);
+        int maxValue = 1;
+
+        for (int bits = 1; bits <= BitPackedArray.MAX_BITS; bits <<= 1) {
+            maxValue = (1 << bits) - 1;
+            array.ensureCapacity(maxValue);
+
+            // entries written at a smaller width are read back after every widening
+            for (int i = 0; i < array.length(); i += 7) {
+                array.set(i, (i * 31) & maxValue);
+            }
+        }
+
+        for (int i = 0; i < array.length(); i++) {
+            assertEquals("entry " + i, i % 7 == 0 ? (i * 31) & maxValue : 0, array.get(i));
+        }
+    }
+
+    @Test
+    public void setDoesNotTouchNeighbours() {
+        BitPackedArray array = new BitPackedArray(256);
+        array.ensureCapacity(15);
+
+        array.set(10, 15);
+        array.set(11, 3);
+        array.set(10, 0);
+
+        assertEquals(0, array.get(9));
+        assertEquals(0, array.get(10));
+        assertEquals(3, array.get(11));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsValuesWiderThanMaxBits() {
+        new BitPackedArray(16).ensureCapacity(1 << BitPackedArray.MAX_BITS);
+    }
+}
@@ -0,0 +1,86 @@
+package wilds.voxeleditor.core.models.storage;
+
+import wilds.voxeleditor.core.models.Map;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileSide;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @since 18-10-2026
+ */
+public class ChunkVersionTest {
+
+    private ChunkedMapStorage storage;
+
+    @Before
+    public void setUp() {
+        storage = new ChunkedMapStorage(64, 64, 32);
+    }
+
+    @Test
+    public void stampsWrittenChunks() {
+        assertEquals(0, storage.getVersion());
+
+        storage.fillTile(storage.tileToIndex(3, 3, 3), null, (short) 1);
+        storage.fillTile(storage.tileToIndex(40, 3, 3), null, (short) 1);
+
+        assertEquals(2, storage.getVersion());
+        assertEquals(1, storage.getChunkVersion(0, 0, 0));
+        assertEquals(2, storage.getChunkVersion(2, 0, 0));
+        assertEquals(0, storage.getChunkVersion(1, 0, 0));
+        assertEquals(0, storage.getChunkVersion(-1, 0, 0));
+    }
+
+    @Test
+    public void findsChunksChangedSinceAVersion() {
+        storage.fillTile(storage.tileToIndex(3, 3, 3), null, (short) 1);
+        long seen = storage.getVersion();
+
+        int index = storage.tileToIndex(40, 20, 20);
+        storage.fillTile(index, null, (short) 1);
+        storage.clear(index);
+
+        int chunkIndex = storage.toChunkIndex(2, 1, 1);
+        assertTrue(storage.isChunkChangedSince(chunkIndex, seen));
+        assertFalse(storage.isChunkChangedSince(storage.toChunkIndex(0, 0, 0), seen));
+
+        // the cleared chunk got dropped but still counts as changed
+        IntArrayList changed = new IntArrayList();
+        storage.getChangedChunks(seen, changed);
+        assertEquals(1, changed.size());
+        assertEquals(chunkIndex, changed.getInt(0));
+
+        changed.clear();
+        storage.getChangedChunks(storage.getVersion(), changed);
+        assertTrue(changed.isEmpty());
+    }
+
+    @Test
+    public void stampsBordersOfOuterLayerWrites() {
+        storage.fillTile(storage.tileToIndex(15, 5, 0), null, (short) 1);
+
+        long version = storage.getVersion();
+        assertEquals(version, storage.getBorderVersion(0, 0, 0, CubeTileSide.Right));
+        assertEquals(version, storage.getBorderVersion(0, 0, 0, CubeTileSide.Bottom));
+        assertEquals(0, storage.getBorderVersion(0, 0, 0, CubeTileSide.Left));
+        assertEquals(0, storage.getBorderVersion(0, 0, 0, CubeTileSide.Top));
+
+        storage.fillTile(storage.tileToIndex(7, 7, 7), null, (short) 1);
+        assertEquals(version, storage.getBorderVersion(0, 0, 0, CubeTileSide.Right));
+    }
+
+    @Test
+    public void exposesTheChangeVersionOnTheMap() {
+        Map map = new Map("test", 1, 32, 32, 8);
+        assertEquals(0, map.getChangeVersion());
+
+        map.getStorage().fillTile(map.tileToIndex(1, 2, 3), null, (short) 1);
+        assertEquals(1, map.getChangeVersion());
+    }
+}
@@ -0,0 +1,122 @@
+package wilds.voxeleditor.core.models.storage;
+
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileSide;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @since 18-10-2026
+ */
+public class MapSnapshotTest {
+
+    private ChunkedMapStorage storage;
+
+    @Before
+    public void setUp() {
+        storage = new ChunkedMapStorage(64, 64, 32);
+    }
+
+    @Test
+    public void publishesNothingWithoutWrites() {
+        MapSnapshot empty = storage.getPublishedSnapshot();
+
+        assertEquals(0, empty.getVersion());
+        assertEquals(0, empty.getChunkCount());
+        assertFalse(empty.getChunks().iterator().hasNext());
+        assertSame(empty, storage.publish());
+    }
+
+    @Test
+    public void sharesUnchangedChunks() {
+        storage.fillTile(storage.tileToIndex(1, 1, 1), null, (short) 1);
+        storage.fillTile(storage.tileToIndex(40, 40, 20), null, (short) 1);
+        MapSnapshot first = storage.publish();
+
+        storage.fillTile(storage.tileToIndex(41, 41, 21), null, (short) 2);
+        MapSnapshot second = storage.publish();
+
+        assertSame(first.getChunk(0, 0, 0), second.getChunk(0, 0, 0));
+        assertNotSame(first.getChunk(2, 2, 1), second.getChunk(2, 2, 1));
+        assertTrue(second.getVersion() > first.getVersion());
+    }
+
+    @Test
+    public void keepsOldSnapshotsUnchanged() {
+        int index = storage.tileToIndex(5, 6, 7);
+        storage.fillTile(index, null, (short) 1);
+        MapSnapshot first = storage.publish();
+
+        storage.fillTile(index, null, (short) 2);
+        storage.fillTile(storage.tileToIndex(5, 6, 8), null, (short) 2);
+        MapSnapshot second = storage.publish();
+
+        int localIndex = TileLayout.RowMajor.toLocalIndex(5, 6, 7);
+        int aboveIndex = TileLayout.RowMajor.toLocalIndex(5, 6, 8);
+
+        assertEquals(1, first.getChunk(0, 0, 0).getTileId(localIndex, CubeTileSide.Top));
+        assertFalse(first.getChunk(0, 0, 0).isSolid(aboveIndex));
+        assertTrue(first.getChunk(0, 0, 0).isFaceExposed(localIndex, CubeTileSide.Top));
+
+        assertEquals(2, second.getChunk(0, 0, 0).getTileId(localIndex, CubeTileSide.Top));
+        assertTrue(second.getChunk(0, 0, 0).isSolid(aboveIndex));
+        assertFalse(second.getChunk(0, 0, 0).isFaceExposed(localIndex, CubeTileSide.Top));
+    }
+
+    @Test
+    public void snapshotsNeighboursOfBorderWrites() {
+        storage.fillTile(storage.tileToIndex(16, 3, 3), null, (short) 1);
+        MapSnapshot first = storage.publish();
+
+        storage.fillTile(storage.tileToIndex(15, 3, 3), null, (short) 1);
+        MapSnapshot second = storage.publish();
+
+        ChunkSnapshot neighbour = second.getChunk(1, 0, 0);
+        assertNotSame(first.getChunk(1, 0, 0), neighbour);
+        assertTrue(neighbour.isSolid(-1, 3, 3));
+        assertFalse(first.getChunk(1, 0, 0).isSolid(-1, 3, 3));
+    }
+
+    @Test
+    public void dropsClearedChunks() {
+        int index = storage.tileToIndex(40, 3, 3);
+        storage.fillTile(storage.tileToIndex(3, 3, 3), null, (short) 1);
+        storage.fillTile(index, null, (short) 1);
+        MapSnapshot first = storage.publish();
+
+        storage.clear(index);
+        MapSnapshot second = storage.publish();
+
+        assertEquals(2, first.getChunkCount());
+        assertEquals(1, second.getChunkCount());
+        assertNull(second.getChunk(2, 0, 0));
+        assertTrue(first.getChunk(2, 0, 0).isSolid(TileLayout.RowMajor.toLocalIndex(8, 3, 3)));
+    }
+
+    @Test
+    public void iteratesChunksByIndex() {
+        storage.fillTile(storage.tileToIndex(60, 60, 30), null, (short) 1);
+        storage.fillTile(storage.tileToIndex(0, 0, 0), null, (short) 1);
+        storage.fillTile(storage.tileToIndex(20, 0, 0), null, (short) 1);
+        MapSnapshot snapshot = storage.publish();
+
+        List<Integer> chunkIndices = new ArrayList<>();
+        for (ChunkSnapshot chunk : snapshot.getChunks()) {
+            chunkIndices.add(chunk.getChunkIndex());
+        }
+
+        assertEquals(3, snapshot.getChunkCount());
+        assertEquals(3, chunkIndices.size());
+        assertTrue(chunkIndices.get(0) < chunkIndices.get(1) && chunkIndices.get(1) < chunkIndices.get(2));
+    }
+}
@@ -0,0 +1,89 @@
+package wilds.voxeleditor.core.models.storage;
+
+import wilds.voxeleditor.core.models.Tileset;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTile;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileSide;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @since 18-10-2026
+ */
+public class PackedMapStorageTest {
+
+    // the 128x128x8 map the MapCell[] layout was measured with
+    private static final int CAPACITY = 128 * 128 * 8;
+
+    private PackedMapStorage storage;
+    private Tileset tileset;
+
+    @Before
+    public void setUp() {
+        storage = new PackedMapStorage(CAPACITY);
+        tileset = new Tileset(new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB), "tileset", 64, 64, 32);
+    }
+
+    @Test
+    public void startsEmpty() {
+        assertTrue(storage.isEmpty(0));
+        assertNull(storage.getCubeTile(0));
+        assertEquals(CubeTile.EMPTY_TILE_ID, storage.getTileId(CAPACITY - 1, CubeTileSide.Top));
+        assertNull(storage.getTileset(CAPACITY - 1, CubeTileSide.Top));
+    }
+
+    @Test
+    public void takesEighteenBytesPerTile() {
+        assertEquals(18, PackedMapStorage.BYTES_PER_TILE);
+        assertEquals(2359296, storage.getSizeInBytes());
+
+        // the planes are allocated up front, filling the map costs nothing extra
+        for (int i = 0; i < CAPACITY; i++) {
+            storage.fillTile(i, tileset, (short) (i % 64));
+        }
+
+        assertEquals(2359296, storage.getSizeInBytes());
+    }
+
+    @Test
+    public void keepsSidesApart() {
+        storage.fillTile(7, tileset, (short) 1);
+        storage.setTile(7, CubeTileSide.Top, null, (short) 2);
+
+        assertEquals(1, storage.getTileId(7, CubeTileSide.Bottom));
+        assertSame(tileset, storage.getTileset(7, CubeTileSide.Bottom));
+        assertEquals(2, storage.getTileId(7, CubeTileSide.Top));
+        assertNull(storage.getTileset(7, CubeTileSide.Top));
+    }
+
+    @Test
+    public void materializesSharedCubeTiles() {
+        storage.fillTile(0, tileset, (short) 4);
+        storage.fillTile(1, tileset, (short) 4);
+
+        CubeTile tile = storage.getCubeTile(0);
+        assertSame(tile, storage.getCubeTile(1));
+
+        storage.setCubeTile(2, tile);
+        assertEquals(4, storage.getTileId(2, CubeTileSide.Left));
+        assertSame(tileset, storage.getTileset(2, CubeTileSide.Right));
+    }
+
+    @Test
+    public void clearsTiles() {
+        storage.fillTile(3, tileset, (short) 1);
+        assertFalse(storage.isEmpty(3));
+
+        storage.setCubeTile(3, null);
+        assertTrue(storage.isEmpty(3));
+        assertNull(storage.getTileset(3, CubeTileSide.Front));
+    }
+}
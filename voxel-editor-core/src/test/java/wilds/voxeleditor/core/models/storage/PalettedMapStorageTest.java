@@ -0,0 +1,103 @@
+package wilds.voxeleditor.core.models.storage;
+
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTile;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileSide;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @since 18-10-2026
+ */
+public class PalettedMapStorageTest {
+
+    private PalettedMapStorage storage;
+
+    @Before
+    public void setUp() {
+        storage = new PalettedMapStorage(MapChunk.VOLUME);
+    }
+
+    @Test
+    public void startsEmpty() {
+        assertEquals(1, storage.getPaletteSize());
+        assertEquals(1, storage.getBitsPerEntry());
+        assertTrue(storage.isEmpty(0));
+        assertNull(storage.getCubeTile(0));
+        assertEquals(CubeTile.EMPTY_TILE_ID, storage.getTileId(0, CubeTileSide.Top));
+    }
+
+    @Test
+    public void sharesPaletteEntriesBetweenEqualTiles() {
+        for (int i = 0; i < MapChunk.VOLUME; i++) {
+            storage.fillTile(i, null, (short) 3);
+        }
+
+        assertEquals(2, storage.getPaletteSize());
+        assertEquals(1, storage.getBitsPerEntry());
+        assertEquals(MapChunk.VOLUME / 8, storage.getSizeInBytes());
+        assertSame(storage.getCubeTile(0), storage.getCubeTile(MapChunk.VOLUME - 1));
+    }
+
+    @Test
+    public void widensIndicesAsThePaletteGrows() {
+        for (int i = 0; i < 300; i++) {
+            storage.fillTile(i, null, (short) i);
+        }
+
+        assertEquals(301, storage.getPaletteSize());
+        assertEquals(16, storage.getBitsPerEntry());
+
+        for (int i = 0; i < 300; i++) {
+            assertEquals(i, storage.getTileId(i, CubeTileSide.Front));
+        }
+    }
+
+    @Test
+    public void setsSingleSides() {
+        storage.fillTile(5, null, (short) 1);
+        storage.setTile(5, CubeTileSide.Top, null, (short) 2);
+
+        assertEquals(1, storage.getTileId(5, CubeTileSide.Bottom));
+        assertEquals(2, storage.getTileId(5, CubeTileSide.Top));
+
+        // the filled tile is no longer used, only the empty entry and the new tile are left
+        assertEquals(2, storage.getPaletteSize());
+    }
+
+    @Test
+    public void recyclesUnusedEntries() {
+        storage.fillTile(0, null, (short) 1);
+        storage.fillTile(1, null, (short) 2);
+        storage.clear(0);
+
+        assertEquals(2, storage.getPaletteSize());
+        assertTrue(storage.isEmpty(0));
+
+        storage.fillTile(0, null, (short) 3);
+        assertEquals(3, storage.getPaletteSize());
+        assertEquals(3, storage.getTileId(0, CubeTileSide.Left));
+        assertEquals(2, storage.getTileId(1, CubeTileSide.Left));
+    }
+
+    @Test
+    public void copiesIntoAnotherStorage() {
+        storage.fillTile(0, null, (short) 1);
+        storage.fillTile(4095, null, (short) 2);
+
+        PalettedMapStorage copy = new PalettedMapStorage(MapChunk.VOLUME);
+        storage.copyTo(copy);
+        storage.clear(0);
+
+        assertEquals(1, copy.getTileId(0, CubeTileSide.Top));
+        assertEquals(2, copy.getTileId(4095, CubeTileSide.Top));
+        assertFalse(copy.isEmpty(0));
+        assertTrue(storage.isEmpty(0));
+    }
+}
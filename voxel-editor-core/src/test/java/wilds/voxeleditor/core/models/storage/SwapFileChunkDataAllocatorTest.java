@@ -0,0 +1,64 @@
+package wilds.voxeleditor.core.models.storage;
+
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileRegistry;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileSide;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @since 18-10-2026
+ */
+public class SwapFileChunkDataAllocatorTest {
+
+    private Path swapFile;
+    private SwapFileChunkDataAllocator allocator;
+
+    @Before
+    public void setUp() throws IOException {
+        swapFile = Files.createTempFile("voxel-map-test-", ".chunks");
+        allocator = new SwapFileChunkDataAllocator(swapFile);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        allocator.dispose();
+        Files.deleteIfExists(swapFile);
+    }
+
+    @Test
+    public void keepsTileDataInTheSwapFile() {
+        ChunkedMapStorage storage = new ChunkedMapStorage(64, 64, 16, TileLayout.RowMajor, allocator);
+        storage.fillTile(storage.tileToIndex(3, 4, 5), null, (short) 7);
+        storage.fillTile(storage.tileToIndex(40, 4, 5), null, (short) 9);
+
+        assertEquals(7, storage.getTileId(storage.tileToIndex(3, 4, 5), CubeTileSide.Top));
+        assertEquals(9, storage.getTileId(storage.tileToIndex(40, 4, 5), CubeTileSide.Left));
+        assertTrue(storage.isSolid(40, 4, 5));
+        assertEquals(2, allocator.getUsedSlotCount());
+    }
+
+    @Test
+    public void takesAFixedSlotPerChunk() {
+        // 16 bit palette indices, occupancy bits and one byte of exposed sides per tile
+        assertEquals(MapChunk.VOLUME * 2 + MapChunk.VOLUME / 8 + MapChunk.VOLUME,
+                SwapFileChunkDataAllocator.CHUNK_BYTES);
+    }
+
+    @Test
+    public void deletesTheSwapFileOnDispose() {
+        // some systems already unlink the file when it is opened, it only lives on through the mapping
+        allocator.allocate(0, new CubeTileRegistry());
+        allocator.dispose();
+        assertFalse(Files.exists(swapFile));
+    }
+}
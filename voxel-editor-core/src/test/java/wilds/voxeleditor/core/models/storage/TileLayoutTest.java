@@ -0,0 +1,132 @@
+package wilds.voxeleditor.core.models.storage;
+
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileRegistry;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileSide;
+
+import org.joml.Vector3i;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @since 18-10-2026
+ */
+public class TileLayoutTest {
+
+    @Test
+    public void encodesEveryLocalTileOnce() {
+        for (TileLayout layout : TileLayout.values()) {
+            boolean[] used = new boolean[MapChunk.VOLUME];
+
+            for (int z = 0; z < MapChunk.SIZE; z++) {
+                for (int y = 0; y < MapChunk.SIZE; y++) {
+                    for (int x = 0; x < MapChunk.SIZE; x++) {
+                        int localIndex = layout.toLocalIndex(x, y, z);
+
+                        assertFalse(used[localIndex]);
+                        used[localIndex] = true;
+
+                        assertEquals(x, layout.getLocalX(localIndex));
+                        assertEquals(y, layout.getLocalY(localIndex));
+                        assertEquals(z, layout.getLocalZ(localIndex));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void keepsMortonBlocksTogether() {
+        // every aligned 2x2x2 block is 8 consecutive tiles
+        assertEquals(0, TileLayout.Morton.toLocalIndex(0, 0, 0));
+        assertEquals(1, TileLayout.Morton.toLocalIndex(1, 0, 0));
+        assertEquals(2, TileLayout.Morton.toLocalIndex(0, 1, 0));
+        assertEquals(4, TileLayout.Morton.toLocalIndex(0, 0, 1));
+        assertEquals(7, TileLayout.Morton.toLocalIndex(1, 1, 1));
+        assertEquals(MapChunk.VOLUME - 1, TileLayout.Morton.toLocalIndex(15, 15, 15));
+    }
+
+    @Test
+    public void readsRowsInBothLayouts() {
+        for (TileLayout layout : TileLayout.values()) {
+            MapChunk chunk = new MapChunk(0, 0, 0, 0, layout, new HeapChunkDataAllocator(), new CubeTileRegistry());
+            Random random = new Random(7);
+            int[] rows = new int[MapChunk.SIZE * MapChunk.SIZE];
+
+            for (int i = 0; i < 1500; i++) {
+                int x = random.nextInt(MapChunk.SIZE);
+                int y = random.nextInt(MapChunk.SIZE);
+                int z = random.nextInt(MapChunk.SIZE);
+
+                chunk.fillTile(chunk.toLocalIndex(x, y, z), null, (short) 1);
+                rows[z * MapChunk.SIZE + y] |= 1 << x;
+            }
+
+            int solid = 0;
+            for (int z = 0; z < MapChunk.SIZE; z++) {
+                for (int y = 0; y < MapChunk.SIZE; y++) {
+                    assertEquals(rows[z * MapChunk.SIZE + y], chunk.getRowBits(y, z));
+                    solid += Integer.bitCount(rows[z * MapChunk.SIZE + y]);
+                }
+            }
+
+            assertEquals(solid, chunk.getSolidCount());
+            assertEquals(Integer.bitCount(rows[5 * MapChunk.SIZE + 3] & 0xf0),
+                    chunk.countSolid(4, 3, 5, 7, 3, 5));
+        }
+    }
+
+    @Test
+    public void storesTheSameMapInBothLayouts() {
+        ChunkedMapStorage rowMajor = new ChunkedMapStorage(40, 40, 20);
+        ChunkedMapStorage morton = new ChunkedMapStorage(40, 40, 20, TileLayout.Morton, new HeapChunkDataAllocator());
+        Random random = new Random(3);
+
+        for (int i = 0; i < 6000; i++) {
+            int x = random.nextInt(40);
+            int y = random.nextInt(40);
+            int z = random.nextInt(20);
+            short id = (short) random.nextInt(4);
+
+            rowMajor.fillTile(rowMajor.tileToIndex(x, y, z), null, id);
+            morton.fillTile(morton.tileToIndex(x, y, z), null, id);
+        }
+
+        Vector3i coordinates = new Vector3i();
+        for (int z = 0; z < 20; z++) {
+            for (int y = 0; y < 40; y++) {
+                for (int x = 0; x < 40; x++) {
+                    int rowMajorIndex = rowMajor.tileToIndex(x, y, z);
+                    int mortonIndex = morton.tileToIndex(x, y, z);
+
+                    morton.indexToTile(mortonIndex, coordinates);
+                    assertEquals(x, coordinates.x);
+                    assertEquals(y, coordinates.y);
+                    assertEquals(z, coordinates.z);
+
+                    assertEquals(rowMajor.isSolid(x, y, z), morton.isSolid(x, y, z));
+                    assertEquals(rowMajor.getTileId(rowMajorIndex, CubeTileSide.Top),
+                            morton.getTileId(mortonIndex, CubeTileSide.Top));
+                    assertEquals(exposedFaces(rowMajor, x, y, z), exposedFaces(morton, x, y, z));
+                }
+            }
+        }
+
+        assertEquals(rowMajor.countSolid(3, 5, 2, 37, 30, 17), morton.countSolid(3, 5, 2, 37, 30, 17));
+        assertTrue(morton.anySolid(0, 0, 0, 39, 39, 19));
+    }
+
+    private int exposedFaces(ChunkedMapStorage storage, int x, int y, int z) {
+        MapChunk chunk = storage.getChunk(x >> MapChunk.SIZE_BITS, y >> MapChunk.SIZE_BITS, z >> MapChunk.SIZE_BITS);
+        if (chunk == null) {
+            return 0;
+        }
+
+        return chunk.getExposedFaces(chunk.toLocalIndex(x & MapChunk.SIZE_MASK, y & MapChunk.SIZE_MASK,
+                z & MapChunk.SIZE_MASK));
+    }
+}
@@ -0,0 +1,158 @@
+package wilds.voxeleditor.core.renderer;
+
+import wilds.voxeleditor.core.models.Tileset;
+import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileSide;
+import wilds.voxeleditor.core.models.storage.ChunkSnapshot;
+import wilds.voxeleditor.core.models.storage.ChunkedMapStorage;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @since 18-10-2026
+ */
+public class ChunkMesherTest {
+
+    private static final int MAP_SIZE = 48;
+
+    private TileAtlas atlas;
+    private ChunkMesher mesher;
+    private ChunkedMapStorage storage;
+    private int sideCount;
+    private int quadCount;
+
+    @Before
+    public void setUp() {
+        Tileset tileset = new Tileset(new BufferedImage(256, 256, BufferedImage.TYPE_INT_ARGB), "default", 256, 256, 32);
+        atlas = TileAtlas.build(tileset, Collections.emptyList());
+        mesher = new ChunkMesher();
+        storage = new ChunkedMapStorage(MAP_SIZE, MAP_SIZE, 20);
+    }
+
+    @Test
+    public void mergesAFlatFloor() {
+        fillFloor((short) 3);
+        build(0);
+
+        // per chunk one quad for the top, one for the bottom and one for every map edge it touches
+        assertEquals(MAP_SIZE * MAP_SIZE * 2 + MAP_SIZE * 4, sideCount);
+        assertEquals(30, quadCount);
+    }
+
+    @Test
+    public void leavesOutHiddenSides() {
+        fillFloor((short) 3);
+        build(ChunkMesher.ALL_SIDES & ~(1 << CubeTileSide.Top.ordinal()));
+
+        assertEquals(MAP_SIZE * MAP_SIZE, sideCount);
+        assertEquals(9, quadCount);
+    }
+
+    @Test
+    public void onlyMergesEqualTiles() {
+        for (int y = 0; y < MAP_SIZE; y++) {
+            for (int x = 0; x < MAP_SIZE; x++) {
+                storage.fillTile(storage.tileToIndex(x, y, 0), null, (short) ((x + y) % 2));
+            }
+        }
+
+        build(ChunkMesher.ALL_SIDES & ~(1 << CubeTileSide.Top.ordinal()));
+
+        assertEquals(MAP_SIZE * MAP_SIZE, quadCount);
+    }
+
+    @Test
+    public void leavesOutTilesOutsideOfTheirTileset() {
+        // the 256x256 tileset has 64 tiles of 32 pixels
+        storage.fillTile(storage.tileToIndex(0, 0, 0), null, (short) 64);
+        storage.fillTile(storage.tileToIndex(2, 0, 0), null, (short) 63);
+        build(0);
+
+        assertEquals(6, sideCount);
+        assertEquals(6, quadCount);
+    }
+
+    @Test
+    public void mergesSteppedTerrainAcrossLayers() {
+        fillSteps();
+        build(0, false);
+
+        // the quad count before layers could be drawn on their own
+        assertEquals(12240, sideCount);
+        assertEquals(6986, quadCount);
+    }
+
+    @Test
+    public void mergesSteppedTerrainWithinLayers() {
+        fillSteps();
+        build(0, true);
+
+        assertEquals(12240, sideCount);
+        assertEquals(9282, quadCount);
+    }
+
+    @Test
+    public void repeatsTilesAcrossMergedQuads() {
+        for (int y = 0; y < 16; y++) {
+            for (int x = 0; x < 16; x++) {
+                storage.fillTile(storage.tileToIndex(x, y, 0), null, (short) 1);
+            }
+        }
+
+        ChunkSnapshot chunk = storage.publish().getChunk(0, 0, 0);
+        mesher.build(chunk, atlas, ChunkMesher.ALL_SIDES & ~(1 << CubeTileSide.Top.ordinal()), false);
+        assertEquals(1, mesher.getQuadCount());
+
+        // the axis texture coordinate counts tiles, the shader repeats the tile with fract
+        byte[] vertices = mesher.getVertices();
+        int maxU = 0;
+        int maxV = 0;
+
+        for (int vertex = 0; vertex < 4; vertex++) {
+            int offset = vertex * TileBatch.PACKED_VERTEX_BYTES + TileBatch.PACKED_AXIS_TEXCOORD_OFFSET;
+            maxU = Math.max(maxU, vertices[offset] & 0xFF);
+            maxV = Math.max(maxV, vertices[offset + 1] & 0xFF);
+        }
+
+        assertEquals(16, maxU);
+        assertEquals(16, maxV);
+    }
+
+    private void fillFloor(short tileId) {
+        for (int y = 0; y < MAP_SIZE; y++) {
+            for (int x = 0; x < MAP_SIZE; x++) {
+                storage.fillTile(storage.tileToIndex(x, y, 0), null, tileId);
+            }
+        }
+    }
+
+    private void fillSteps() {
+        for (int y = 0; y < MAP_SIZE; y++) {
+            for (int x = 0; x < MAP_SIZE; x++) {
+                for (int z = 0; z < 3 + (x + y) % 4; z++) {
+                    storage.fillTile(storage.tileToIndex(x, y, z), null, (short) (x > 20 ? 5 : 3));
+                }
+            }
+        }
+    }
+
+    private void build(int hiddenSides) {
+        build(hiddenSides, false);
+    }
+
+    private void build(int hiddenSides, boolean splitLayers) {
+        sideCount = 0;
+        quadCount = 0;
+
+        for (ChunkSnapshot chunk : storage.publish().getChunks()) {
+            mesher.build(chunk, atlas, hiddenSides, splitLayers);
+            sideCount += mesher.getSideCount();
+            quadCount += mesher.getQuadCount();
+        }
+    }
+}
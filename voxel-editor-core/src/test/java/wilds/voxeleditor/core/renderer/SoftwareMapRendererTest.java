@@ -0,0 +1,142 @@
+package wilds.voxeleditor.core.renderer;
+
+import wilds.voxeleditor.core.models.Map;
+import wilds.voxeleditor.core.models.Tileset;
+
+import org.joml.Matrix4f;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @since 18-10-2026
+ */
+public class SoftwareMapRendererTest {
+
+    private static final int MAP_SIZE = 4;
+    private static final int IMAGE_SIZE = 64;
+    // the top down camera fits the 4 tiles of the map in 64 pixels
+    private static final int TILE_PIXELS = IMAGE_SIZE / MAP_SIZE;
+
+    // one solid color per tile of a 2x2 tileset
+    private static final int[] TILE_COLORS = {0xFFFF0000, 0xFF00FF00, 0xFF0000FF, 0xFFFFFF00};
+
+    private Map map;
+    private SoftwareMapRenderer renderer;
+
+    @Before
+    public void setUp() {
+        BufferedImage image = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+        for (int tileId = 0; tileId < TILE_COLORS.length; tileId++) {
+            for (int y = 0; y < 32; y++) {
+                for (int x = 0; x < 32; x++) {
+                    image.setRGB((tileId % 2) * 32 + x, (tileId / 2) * 32 + y, TILE_COLORS[tileId]);
+                }
+            }
+        }
+
+        Tileset tileset = new Tileset(image, "colors", 64, 64, 32);
+        renderer = new SoftwareMapRenderer(TileAtlas.build(tileset, Collections.emptyList()), new ForkJoinPool(2));
+        renderer.setBackgroundColor(0xFF000000);
+
+        map = new Map("test", 1, MAP_SIZE, MAP_SIZE, MAP_SIZE);
+    }
+
+    @Test
+    public void drawsTheTopOfEveryColumn() {
+        // a red floor without its last tile, with a blue tile two layers up and a green one on top of the floor
+        for (int y = 0; y < MAP_SIZE; y++) {
+            for (int x = 0; x < MAP_SIZE; x++) {
+                if (x != 3 || y != 3) {
+                    fillTile(x, y, 0, 0);
+                }
+            }
+        }
+
+        fillTile(2, 1, 2, 2);
+        fillTile(0, 2, 1, 1);
+        map.getStorage().publish();
+
+        float[] depth = new float[IMAGE_SIZE * IMAGE_SIZE];
+        BufferedImage image = render(depth);
+
+        assertColor(TILE_COLORS[0], image, 0, 0);
+        assertColor(TILE_COLORS[2], image, 2, 1);
+        assertColor(TILE_COLORS[1], image, 0, 2);
+        assertEquals(0xFF000000, getTilePixel(image, 3, 3));
+
+        // the higher the top of a tile, the closer it is to the camera
+        float floorDepth = getTileDepth(depth, 0, 0);
+        float greenDepth = getTileDepth(depth, 0, 2);
+        float blueDepth = getTileDepth(depth, 2, 1);
+        assertTrue(blueDepth < greenDepth);
+        assertTrue(greenDepth < floorDepth);
+        assertTrue(floorDepth >= -1 && floorDepth <= 1);
+        assertEquals(Float.POSITIVE_INFINITY, getTileDepth(depth, 3, 3), 0);
+    }
+
+    @Test
+    public void lightsTheTopLikeTheTileShader() {
+        fillTile(1, 1, 0, 3);
+        map.getStorage().publish();
+
+        float light = 0.5f + 0.5f * Math.max(0, -TileBatch.LIGHT_DIRECTION.y);
+        int pixel = getTilePixel(render(null), 1, 1);
+
+        assertEquals(255 * light, (pixel >> 16) & 0xFF, 1);
+        assertEquals(255 * light, (pixel >> 8) & 0xFF, 1);
+        assertEquals(0, pixel & 0xFF);
+    }
+
+    @Test
+    public void onlyDrawsThePublishedSnapshot() {
+        fillTile(1, 1, 0, 0);
+        map.getStorage().publish();
+        fillTile(2, 2, 0, 0);
+
+        BufferedImage image = render(null);
+        assertColor(TILE_COLORS[0], image, 1, 1);
+        assertEquals(0xFF000000, getTilePixel(image, 2, 2));
+    }
+
+    private void fillTile(int x, int y, int z, int tileId) {
+        map.getStorage().fillTile(map.tileToIndex(x, y, z), null, (short) tileId);
+    }
+
+    private BufferedImage render(float[] depth) {
+        Matrix4f view = new Matrix4f();
+        Matrix4f projection = new Matrix4f();
+        SoftwareMapRenderer.setupCamera(map, SoftwareMapRenderer.CameraView.TopDown, 1, view, projection);
+
+        return renderer.render(map, view, projection, IMAGE_SIZE, IMAGE_SIZE, depth);
+    }
+
+    /**
+     * @return the pixel in the center of the tile, tile y runs down the image
+     */
+    private int getTilePixel(BufferedImage image, int x, int y) {
+        return image.getRGB(x * TILE_PIXELS + TILE_PIXELS / 2, y * TILE_PIXELS + TILE_PIXELS / 2);
+    }
+
+    private float getTileDepth(float[] depth, int x, int y) {
+        return depth[(y * TILE_PIXELS + TILE_PIXELS / 2) * IMAGE_SIZE + x * TILE_PIXELS + TILE_PIXELS / 2];
+    }
+
+    /**
+     * Lit pixels keep the hue of the tile, every channel of the tile color that is off stays off
+     */
+    private void assertColor(int tileColor, BufferedImage image, int x, int y) {
+        int pixel = getTilePixel(image, x, y);
+
+        for (int shift = 0; shift < 24; shift += 8) {
+            boolean on = ((tileColor >> shift) & 0xFF) != 0;
+            assertEquals(on, ((pixel >> shift) & 0xFF) != 0);
+        }
+    }
+}
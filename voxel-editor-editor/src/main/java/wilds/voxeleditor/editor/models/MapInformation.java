@@ -1,5 +1,7 @@
 package wilds.voxeleditor.editor.models;
 
+import wilds.voxeleditor.core.models.storage.TileLayout;
+
 /**
  * @author Mark "Wilds" van der Wal
  * @since 19-2-2018
@@ -8,6 +10,8 @@ public class MapInformation {
     private String mapName;
     private int mapWidth;
     private int mapHeight;
+    private int mapDepth;
+    private TileLayout tileLayout;
 
     public String getMapName() {
         return mapName;
@@ -32,4 +36,20 @@ public class MapInformation {
     public void setMapHeight(int mapHeight) {
         this.mapHeight = mapHeight;
     }
+
+    public int getMapDepth() {
+        return mapDepth;
+    }
+
+    public void setMapDepth(int mapDepth) {
+        this.mapDepth = mapDepth;
+    }
+
+    public TileLayout getTileLayout() {
+        return tileLayout;
+    }
+
+    public void setTileLayout(TileLayout tileLayout) {
+        this.tileLayout = tileLayout;
+    }
 }
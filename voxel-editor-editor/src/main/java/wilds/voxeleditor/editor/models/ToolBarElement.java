@@ -43,6 +43,9 @@ public enum ToolBarElement {
 
     ClearLog("Clear log", ToolBarIcon.Bin),
 
+    ExportRenderStats("Export render statistics", ToolBarIcon.SaveAs),
+    ClearRenderStats("Clear render statistics", ToolBarIcon.Bin),
+
     NewTileset("New tileset", ToolBarIcon.New, ToolBarElementPosition.End),
     EditTileset("Edit tileset", ToolBarIcon.Edit, ToolBarElementPosition.End),
     RemoveTileset("Remove tileset", ToolBarIcon.Bin, ToolBarElementPosition.End);
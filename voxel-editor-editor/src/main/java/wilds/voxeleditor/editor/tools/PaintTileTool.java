@@ -8,8 +8,10 @@ import wilds.voxeleditor.core.logic.commands.PaintTilesCommand;
 import wilds.voxeleditor.core.logic.commands.PlaceTilesCommand;
 import wilds.voxeleditor.core.logic.tilecollectors.*;
 import wilds.voxeleditor.core.models.Map;
-import wilds.voxeleditor.core.models.MapCell;
 import wilds.voxeleditor.core.models.mapobjects.tiles.CubeTileSide;
+import wilds.voxeleditor.core.models.storage.ChunkedMapStorage;
+import wilds.voxeleditor.core.renderer.SelectionRenderer;
+import wilds.voxeleditor.core.renderer.TileMapRenderer;
 import wilds.voxeleditor.core.services.CommandService;
 import wilds.voxeleditor.core.services.MapService;
 import wilds.voxeleditor.editor.models.ToolBarElement;
@@ -19,23 +21,15 @@ import wilds.voxeleditor.editor.views.ToolBarView;
 import wilds.rune.geometry.Box;
 import wilds.rune.geometry.Plane;
 import wilds.rune.geometry.Ray;
-import wilds.rune.renderer.Color;
-import wilds.rune.renderer.IRenderer;
-import wilds.rune.renderer.batch.PrimitiveBatch;
-import wilds.rune.renderer.gl.states.BlendState;
-import wilds.rune.renderer.gl.states.RasterizerState;
 import wilds.rune.util.Maths;
 import wilds.rune.viewport.IViewport;
 import wilds.rune.viewport.camera.BaseCamera;
 
 import com.alee.laf.button.WebToggleButton;
 import com.alee.managers.style.StyleId;
-import com.jogamp.opengl.GL2ES2;
-import it.unimi.dsi.fastutil.ints.IntIterator;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
-import org.joml.Vector3i;
 
 import javax.swing.ButtonGroup;
 import javax.swing.JToggleButton;
@@ -50,7 +44,7 @@ import java.awt.event.MouseWheelEvent;
  */
 public class PaintTileTool extends MapTool {
 
-    private final Color selectionHoverColor = Color.fromRGBA(132, 179, 255, 125);
+    private static final int SELECTOR_HEIGHT = 8;
 
     private enum PaintMode {
         Cube,
@@ -68,14 +62,23 @@ public class PaintTileTool extends MapTool {
     private BucketTileCollector bucketTileCollector;
 
     private PaintMode currentPaintMode;
-    private PrimitiveBatch primitiveBatch;
+    private SelectionRenderer selectionRenderer;
+    private TileMapRenderer tileMapRenderer;
     private boolean modifierShiftPressed;
 
     private Plane workingPlane;
     private Ray worldRay;
 
+    // the selection surface is rebuilt when one of these changes
+    private TileCollector selectionCollector;
+    private Map selectionMap;
+    private int selectionVersion;
+    private Vector3f selectionCellOffset;
+    private Vector3f selectionCellSize;
+
     // temp variables used only for calculations
-    private Vector3i previewTileCoordinates;
+    private Vector3f cellOffset;
+    private Vector3f cellSize;
     private Vector3f startHit;
     private Vector3f endHit;
 
@@ -85,13 +88,18 @@ public class PaintTileTool extends MapTool {
     private Vector3f tileHitPosition;
     private Vector3f tileHitFaceNormal;
 
-    public PaintTileTool(IViewport viewport, MapService mapService, CommandService commandService) {
+    public PaintTileTool(IViewport viewport, MapService mapService, CommandService commandService,
+                         TileMapRenderer tileMapRenderer) {
         super(viewport, mapService, commandService);
+        this.tileMapRenderer = tileMapRenderer;
         worldRay = new Ray();
         workingPlane = new Plane();
         workingPlane.setNormal(Maths.UNIT_Y);
         workingPlane.setDistance(Maths.BIG_EPSILON);
-        previewTileCoordinates = new Vector3i();
+        selectionCellOffset = new Vector3f();
+        selectionCellSize = new Vector3f();
+        cellOffset = new Vector3f();
+        cellSize = new Vector3f();
 
         tileHitBounds = new Box();
         tileHitBounds.regenerate(0, 0, 0);
@@ -103,16 +111,17 @@ public class PaintTileTool extends MapTool {
         endHit = new Vector3f();
 
         currentPaintMode = PaintMode.Cube;
-        primitiveBatch = new PrimitiveBatch(viewport.getRenderer());
+        selectionRenderer = new SelectionRenderer(viewport.getRenderer());
+        selectionRenderer.setColor(132 / 255f, 179 / 255f, 1f, 125 / 255f);
     }
 
     @Override
     public void create() {
         Map map = mapService.getMap();
-        primitiveBatch.create();
+        selectionRenderer.create();
 
         gameViewCameraController = new GameViewCameraController();
-        freeCameraController = new FreeCameraController();
+        freeCameraController = new FreeCameraController(mapService);
 
         pencilTileCollector = new PencilTileCollector(map);
         rectangleTileCollector = new RectangleTileCollector(map);
@@ -121,7 +130,7 @@ public class PaintTileTool extends MapTool {
 
     @Override
     public void dispose() {
-        primitiveBatch.dispose();
+        selectionRenderer.dispose();
     }
 
     @Override
@@ -235,6 +244,9 @@ public class PaintTileTool extends MapTool {
         currentCameraController = controller;
         currentCameraController.setup(oldCamera);
         viewport.setCamera(currentCameraController.getCamera());
+
+        // the game view only shows the sides that face its fixed direction, the free view needs all of them
+        tileMapRenderer.setFixedOrientation(currentCameraController.hasFixedOrientation());
     }
 
     @Override
@@ -245,70 +257,63 @@ public class PaintTileTool extends MapTool {
     @Override
     public void render() {
         final BaseCamera camera = viewport.getCamera();
-        final IRenderer<GL2ES2> renderer = viewport.getRenderer();
-        final Map map = mapService.getMap();
 
-        renderer.pushBlendState(BlendState.NonPreMultiplied);
-        renderer.pushRasterizerState(RasterizerState.DepthAlways);
+        updateSelectionSurface();
+        selectionRenderer.render(camera.getViewMatrix(), camera.getViewportProjectionMatrix());
+    }
 
-        primitiveBatch.begin(camera.getViewMatrix(), camera.getViewportProjectionMatrix());
-        primitiveBatch.color(selectionHoverColor);
+    /**
+     * Rebuilds the selection surface when the selection or the layout of the selection boxes has changed,
+     * a selection that does not change is drawn from the same buffer every frame
+     */
+    private void updateSelectionSurface() {
+        final Map map = mapService.getMap();
+        final TileCollector collector = currentTileCollector;
+        updateSelectionLayout(map.getTileSize());
 
-        IntSet indices = currentTileCollector.getTileIndices();
-        IntIterator indexIterator = indices.iterator();
-        while (indexIterator.hasNext()) {
-            map.indexToTile(indexIterator.nextInt(), previewTileCoordinates);
-            renderHighlightTile(previewTileCoordinates);
+        if (collector == selectionCollector && map == selectionMap
+                && collector.getSelectionVersion() == selectionVersion
+                && cellOffset.equals(selectionCellOffset) && cellSize.equals(selectionCellSize)) {
+            return;
         }
 
-        primitiveBatch.end();
+        selectionCollector = collector;
+        selectionMap = map;
+        selectionVersion = collector.getSelectionVersion();
+        selectionCellOffset.set(cellOffset);
+        selectionCellSize.set(cellSize);
 
-        renderer.popRasterizerState();
-        renderer.popBlendState();
+        selectionRenderer.setSelection(map, collector.getTileIndices(), cellOffset, cellSize);
     }
 
-    private void renderHighlightTile(Vector3i tileCoordinates) {
-        final Map map = mapService.getMap();
-        final int tileSize = map.getTileSize();
-        final int selectorHeight = 8;
+    /**
+     * Cubes and erased tiles are selected as whole tiles, painted quads as thin boxes on the working plane
+     */
+    private void updateSelectionLayout(int tileSize) {
+        if (currentPaintMode == PaintMode.Erase
+                || currentPaintMode == PaintMode.Cube) {
+            cellOffset.set(0, 0, 0);
+            cellSize.set(tileSize, tileSize, tileSize);
+            return;
+        }
+
         final int tileSizeHalf = tileSize / 2;
-        final int tileSizeWorkingPlane = tileSizeHalf - selectorHeight / 2;
+        final int tileSizeWorkingPlane = tileSizeHalf - SELECTOR_HEIGHT / 2;
 
         Vector3f workingPlaneNormal = workingPlane.getNormal();
-        int positionOffsetX = (int) (tileSizeHalf - workingPlaneNormal.x * tileSizeWorkingPlane);
-        int positionOffsetY = (int) (tileSizeHalf - workingPlaneNormal.y * tileSizeWorkingPlane);
-        int positionOffsetZ = (int) (tileSizeHalf - workingPlaneNormal.z * tileSizeWorkingPlane);
-
         float planeX = Math.abs(workingPlaneNormal.x);
         float planeY = Math.abs(workingPlaneNormal.y);
         float planeZ = Math.abs(workingPlaneNormal.z);
 
-        float sizeX = planeX * selectorHeight + (1 - planeX) * tileSize;
-        float sizeY = planeY * selectorHeight + (1 - planeY) * tileSize;
-        float sizeZ = planeZ * selectorHeight + (1 - planeZ) * tileSize;
+        cellSize.set(planeX * SELECTOR_HEIGHT + (1 - planeX) * tileSize,
+                planeY * SELECTOR_HEIGHT + (1 - planeY) * tileSize,
+                planeZ * SELECTOR_HEIGHT + (1 - planeZ) * tileSize);
 
-        // draw a cube if shift is pressed
-        if (currentPaintMode == PaintMode.Erase
-                || currentPaintMode == PaintMode.Cube) {
-            sizeX = tileSize;
-            sizeY = tileSize;
-            sizeZ = tileSize;
-
-            tileCoordinates
-                    .mul(tileSize)
-                    .add(tileSizeHalf, tileSizeHalf, tileSizeHalf);
-        } else {
-            tileCoordinates
-                    .mul(tileSize)
-                    .add(positionOffsetX + (int) (workingPlaneNormal.x * tileSize),
-                            positionOffsetZ + (int) (workingPlaneNormal.z * tileSize),
-                            positionOffsetY + (int) (workingPlaneNormal.y * tileSize));
-        }
-
-        primitiveBatch.fillBox(tileCoordinates.x,
-                (float) tileCoordinates.z,
-                (float) tileCoordinates.y,
-                sizeX, sizeY, sizeZ);
+        // center of the box on the far side of the working plane, moved to the corner of the box
+        int centerX = (int) (tileSizeHalf - workingPlaneNormal.x * tileSizeWorkingPlane) + (int) (workingPlaneNormal.x * tileSize);
+        int centerY = (int) (tileSizeHalf - workingPlaneNormal.y * tileSizeWorkingPlane) + (int) (workingPlaneNormal.y * tileSize);
+        int centerZ = (int) (tileSizeHalf - workingPlaneNormal.z * tileSizeWorkingPlane) + (int) (workingPlaneNormal.z * tileSize);
+        cellOffset.set(centerX, centerY, centerZ).sub(cellSize.x / 2, cellSize.y / 2, cellSize.z / 2);
     }
 
     @Override
@@ -408,7 +413,7 @@ public class PaintTileTool extends MapTool {
     private boolean getTileHitInformation() {
         final Map map = mapService.getMap();
         final Box mapBounds = map.getBounds();
-        final MapCell[] mapCells = map.getMapData();
+        final ChunkedMapStorage storage = map.getStorage();
 
         // reset tilebounds
         tileHitBounds.regenerate(0, 0, 0);
@@ -418,8 +423,7 @@ public class PaintTileTool extends MapTool {
 
             // iterate all cells hit by ray and check if solid
             Maths.visitCellsOverlappedBySegment(startHit, endHit, map.getTileSize(), tileCoordinates -> {
-                int tileIndex = map.tileToIndex(tileCoordinates.x, tileCoordinates.z, tileCoordinates.y);
-                if (mapCells[tileIndex].isEmpty()) {
+                if (!storage.isSolid(tileCoordinates.x, tileCoordinates.z, tileCoordinates.y)) {
                     return false;
                 }
 
@@ -441,22 +445,50 @@ public class PaintTileTool extends MapTool {
         return tileHitBounds.hasVolume3D();
     }
 
+    /**
+     * A working plane through a hit tile decides the active layer when it is horizontal, without a hit
+     * the working plane lies on the active layer. The grid and the Layers dock always show the layer that is edited.
+     */
     private void updateWorkingPlane() {
+        boolean tileHit = getTileHitInformation();
+
         switch (currentPaintMode) {
             case Cube:
-                handleCubeModeUpdate();
+                handleCubeModeUpdate(tileHit);
                 break;
             case Quad:
-                handleQuadModeUpdate();
+                handleQuadModeUpdate(tileHit);
                 break;
             case Erase:
-                handleEraseModeUpdate();
+                handleEraseModeUpdate(tileHit);
                 break;
         }
+
+        if (tileHit) {
+            updateGridLayer();
+        }
+    }
+
+    private void updateGridLayer() {
+        Vector3f normal = workingPlane.getNormal();
+        if (normal.x != 0 || normal.z != 0) {
+            return;
+        }
+
+        // world y runs through the layers
+        float planeY = normal.y * workingPlane.getDistance();
+        tileMapRenderer.setGridLayer((int) Math.floor(planeY / mapService.getMap().getTileSize()));
+    }
+
+    /**
+     * @return world y of the bottom of the active layer
+     */
+    private float getGridLayerY() {
+        return tileMapRenderer.getGridLayer() * mapService.getMap().getTileSize();
     }
 
-    private void handleCubeModeUpdate() {
-        if (getTileHitInformation()) {
+    private void handleCubeModeUpdate(boolean tileHit) {
+        if (tileHit) {
             if (modifierShiftPressed) {
                 workingPlane.setNormal(tileHitFaceNormal);
                 workingPlane.getNormal().negate();
@@ -471,12 +503,12 @@ public class PaintTileTool extends MapTool {
             }
         } else {
             workingPlane.setNormal(Maths.UNIT_Y);
-            workingPlane.setDistance(Maths.BIG_EPSILON);
+            workingPlane.setDistance(getGridLayerY() + Maths.BIG_EPSILON);
         }
     }
 
-    private void handleQuadModeUpdate() {
-        if (getTileHitInformation()) {
+    private void handleQuadModeUpdate(boolean tileHit) {
+        if (tileHit) {
             workingPlane.setNormal(tileHitFaceNormal);
 
             // set offsetted plane distance
@@ -484,14 +516,14 @@ public class PaintTileTool extends MapTool {
             workingPlane.setDistance(workingPlane.getDistance() - Maths.BIG_EPSILON);
         } else {
             workingPlane.setNormal(Maths.UNIT_Y);
-            workingPlane.setDistance(-Maths.BIG_EPSILON);
+            workingPlane.setDistance(getGridLayerY() - Maths.BIG_EPSILON);
 
             currentTileCollector.teardown();
         }
     }
 
-    private void handleEraseModeUpdate() {
-        if (getTileHitInformation()) {
+    private void handleEraseModeUpdate(boolean tileHit) {
+        if (tileHit) {
             workingPlane.setNormal(Maths.UNIT_Y);
 
             // set offsetted plane distance
@@ -499,7 +531,7 @@ public class PaintTileTool extends MapTool {
             workingPlane.setDistance(workingPlane.getDistance() - Maths.BIG_EPSILON);
         } else {
             workingPlane.setNormal(Maths.UNIT_Y);
-            workingPlane.setDistance(Maths.BIG_EPSILON);
+            workingPlane.setDistance(getGridLayerY() + Maths.BIG_EPSILON);
         }
     }
 }
@@ -11,7 +11,10 @@ import wilds.voxeleditor.editor.models.DockableData;
 import wilds.voxeleditor.editor.models.ToolBarElement;
 import wilds.voxeleditor.editor.views.dialogs.MapInformationDialog;
 import wilds.voxeleditor.editor.views.dockable.IDockable;
+import wilds.voxeleditor.editor.views.dockable.LayersView;
 import wilds.voxeleditor.editor.views.dockable.LoggingView;
+import wilds.voxeleditor.editor.views.dockable.MinimapView;
+import wilds.voxeleditor.editor.views.dockable.RenderStatsView;
 
 import wilds.rune.viewport.IViewportFactory;
 
@@ -67,6 +70,9 @@ public class EditorView extends AbstractWindowView {
     private WebFileChooser fileChooser;
 
     private LoggingView loggingView;
+    private RenderStatsView renderStatsView;
+    private MinimapView minimapView;
+    private LayersView layersView;
     private MapView mapView;
 
     public EditorView(IViewportFactory _viewportFactory, MapService _mapService, TilesetService _tilesetService,
@@ -120,6 +126,15 @@ public class EditorView extends AbstractWindowView {
 
         setDefaultGuiState();
 
+        renderStatsView = new RenderStatsView(mapView.getRenderProfiler());
+        addDockable(renderStatsView);
+
+        minimapView = new MinimapView(mapService, tilesetService);
+        addDockable(minimapView);
+
+        layersView = new LayersView(mapService, mapView.getTileMapRenderer());
+        addDockable(layersView);
+
 //        loggingView = new LoggingView();
 //        LogReceiverAppender.addReceiver(loggingView);
 //
@@ -247,7 +262,8 @@ public class EditorView extends AbstractWindowView {
             mapInformationDialog.setTitle("New map");
             mapInformationDialog.setActionButtonText("Create map");
             mapInformationDialog.setOnActionHandler(information -> {
-                mapService.newMap(information.getMapName(), information.getMapWidth(), information.getMapHeight());
+                mapService.newMap(information.getMapName(), information.getMapWidth(), information.getMapHeight(),
+                        information.getMapDepth(), information.getTileLayout());
             });
             mapInformationDialog.setVisible(true);
 
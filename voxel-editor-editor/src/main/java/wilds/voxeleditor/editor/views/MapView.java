@@ -1,5 +1,6 @@
 package wilds.voxeleditor.editor.views;
 
+import wilds.voxeleditor.core.renderer.RenderProfiler;
 import wilds.voxeleditor.core.renderer.TileMapRenderer;
 import wilds.voxeleditor.core.services.CommandService;
 import wilds.voxeleditor.core.services.MapService;
@@ -80,11 +81,11 @@ public class MapView extends WebPanel implements IViewportLifeycleHandler, IView
         add(contentTable);
 
         // initialize renderers
-        tileMapRenderer = new TileMapRenderer(mapViewport, mapService);
+        tileMapRenderer = new TileMapRenderer(mapViewport, mapService, tilesetService);
         tileMapRenderer.toggleGrid();
 
         // initialize tools
-        paintTool = new PaintTileTool(mapViewport, mapService, commandService);
+        paintTool = new PaintTileTool(mapViewport, mapService, commandService, tileMapRenderer);
     }
 
     @Override
@@ -114,6 +115,14 @@ public class MapView extends WebPanel implements IViewportLifeycleHandler, IView
         tool.setup(toolBarView);
     }
 
+    public RenderProfiler getRenderProfiler() {
+        return tileMapRenderer.getProfiler();
+    }
+
+    public TileMapRenderer getTileMapRenderer() {
+        return tileMapRenderer;
+    }
+
     public void onToolbarAction(ToolBarElement element) {
         switch (element) {
             case Grid:
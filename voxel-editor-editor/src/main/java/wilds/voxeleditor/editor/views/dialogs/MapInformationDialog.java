@@ -1,10 +1,12 @@
 package wilds.voxeleditor.editor.views.dialogs;
 
 import wilds.voxeleditor.core.models.Map;
+import wilds.voxeleditor.core.models.storage.TileLayout;
 import wilds.voxeleditor.editor.models.MapInformation;
 import wilds.voxeleditor.editor.views.tablelayout.swing.Table;
 
 import com.alee.laf.button.WebButton;
+import com.alee.laf.combobox.WebComboBox;
 import com.alee.laf.label.WebLabel;
 import com.alee.laf.panel.WebPanel;
 import com.alee.laf.spinner.WebSpinner;
@@ -31,9 +33,12 @@ public class MapInformationDialog extends WebDialog {
     private WebTextField nameTextField;
     private WebSpinner widthSpinner;
     private WebSpinner heightSpinner;
+    private WebSpinner depthSpinner;
+    private WebComboBox layoutComboBox;
 
     private SpinnerNumberModel widthSpinnerModel;
     private SpinnerNumberModel heightSpinnerModel;
+    private SpinnerNumberModel depthSpinnerModel;
 
     private WebNotification notification;
 
@@ -50,7 +55,7 @@ public class MapInformationDialog extends WebDialog {
         setModal(true);
         setResizable(false);
         setDefaultCloseOperation(WebDialog.DISPOSE_ON_CLOSE);
-        setSize(new Dimension(256, 176));
+        setSize(new Dimension(320, 224));
         setLocationRelativeTo(null);
 
         WebPanel contentPanel = new WebPanel();
@@ -58,45 +63,66 @@ public class MapInformationDialog extends WebDialog {
         Table contentTable = new Table();
 
         // create name
-        contentTable.addCell(new WebLabel("Name:")).colspan(2).expandX().left();
+        contentTable.addCell(new WebLabel("Name:")).colspan(3).expandX().left();
         contentTable.row();
 
         nameTextField = new WebTextField();
         nameTextField.setText(Map.DEFAULT_MAP_NAME);
-        contentTable.addCell(nameTextField).padBottom(4).colspan(2).expandX().fillX();
+        contentTable.addCell(nameTextField).padBottom(4).colspan(3).expandX().fillX();
 
-        // create width and height components
+        // create width, height and depth components
         contentTable.row();
 
         contentTable.addCell(new WebLabel("Width:")).expandX().left();
         contentTable.addCell(new WebLabel("Height:")).expandX().left();
+        contentTable.addCell(new WebLabel("Depth:")).expandX().left();
 
         // create spinners
         contentTable.row();
 
-        widthSpinnerModel = new SpinnerNumberModel(Map.MAX_MAP_DIMENSION,
+        widthSpinnerModel = new SpinnerNumberModel(Map.DEFAULT_MAP_DIMENSION,
                 Map.MAP_STEP, Map.MAX_MAP_DIMENSION, Map.MAP_STEP);
 
-        heightSpinnerModel = new SpinnerNumberModel(Map.MAX_MAP_DIMENSION,
+        heightSpinnerModel = new SpinnerNumberModel(Map.DEFAULT_MAP_DIMENSION,
                 Map.MAP_STEP, Map.MAX_MAP_DIMENSION, Map.MAP_STEP);
 
+        depthSpinnerModel = new SpinnerNumberModel(Map.DEFAULT_MAP_DEPTH,
+                1, Map.MAX_MAP_DEPTH, 1);
+
         widthSpinner = new WebSpinner(widthSpinnerModel);
         contentTable.addCell(widthSpinner).expandX().fillX();
 
         heightSpinner = new WebSpinner(heightSpinnerModel);
         contentTable.addCell(heightSpinner).expandX().fillX();
 
+        depthSpinner = new WebSpinner(depthSpinnerModel);
+        contentTable.addCell(depthSpinner).expandX().fillX();
+
+        // create tile layout
+        contentTable.row();
+        contentTable.addCell(new WebLabel("Tile layout:")).padTop(4).colspan(3).expandX().left();
+        contentTable.row();
+
+        layoutComboBox = new WebComboBox(TileLayout.values());
+        layoutComboBox.setSelectedItem(TileLayout.RowMajor);
+        contentTable.addCell(layoutComboBox).colspan(3).expandX().fillX();
+
         // set ok button and set initial map information
         contentTable.row();
 
         actionButton = new WebButton("Ok");
         actionButton.addActionListener(this::setOnActionButtonPressed);
-        contentTable.addCell(actionButton).padTop(6).colspan(2).expandX().fillX();
+        contentTable.addCell(actionButton).padTop(6).colspan(3).expandX().fillX();
 
         if (mapInformation != null) {
             nameTextField.setText(mapInformation.getMapName());
             widthSpinnerModel.setValue(mapInformation.getMapWidth());
             heightSpinnerModel.setValue(mapInformation.getMapHeight());
+            depthSpinnerModel.setValue(mapInformation.getMapDepth());
+
+            if (mapInformation.getTileLayout() != null) {
+                layoutComboBox.setSelectedItem(mapInformation.getTileLayout());
+            }
         }
 
         contentPanel.add(contentTable);
@@ -147,6 +173,8 @@ public class MapInformationDialog extends WebDialog {
             mapInformation.setMapName(nameTextField.getText());
             mapInformation.setMapWidth((int) widthSpinnerModel.getValue());
             mapInformation.setMapHeight((int) heightSpinnerModel.getValue());
+            mapInformation.setMapDepth((int) depthSpinnerModel.getValue());
+            mapInformation.setTileLayout((TileLayout) layoutComboBox.getSelectedItem());
             onActionButtonPressed.accept(mapInformation);
         }
     }
@@ -62,7 +62,7 @@ public class TilesetInformationView extends WebDialog {
         // create spinners
         contentTable.row();
 
-        widthSpinnerModel = new SpinnerNumberModel(Map.MAX_MAP_DIMENSION,
+        widthSpinnerModel = new SpinnerNumberModel(Map.DEFAULT_MAP_DIMENSION,
                 Map.MAP_STEP, Map.MAX_MAP_DIMENSION, Map.MAP_STEP);
 
         widthSpinner = new WebSpinner(widthSpinnerModel);
@@ -0,0 +1,157 @@
+package wilds.voxeleditor.editor.views.dockable;
+
+import wilds.voxeleditor.core.models.events.MapEvent;
+import wilds.voxeleditor.core.renderer.TileMapRenderer;
+import wilds.voxeleditor.core.services.MapService;
+import wilds.voxeleditor.editor.models.DockableData;
+import wilds.voxeleditor.editor.views.tablelayout.swing.Table;
+
+import com.alee.api.data.CompassDirection;
+import com.alee.laf.combobox.WebComboBox;
+import com.alee.laf.label.WebLabel;
+import com.alee.laf.panel.WebPanel;
+import com.alee.laf.scroll.WebScrollPane;
+import com.alee.laf.table.WebTable;
+import com.alee.managers.style.StyleId;
+
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.DefaultTableModel;
+import java.awt.Dimension;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Lists the layers of the map from top to bottom. The selected layer is the active layer the grid is drawn on,
+ * layers can be hidden and the active layer can be isolated. The selection follows the active layer when a tool
+ * moves it, so the list and the working plane of the tools always agree.
+ */
+public class LayersView extends WebPanel implements IDockable {
+
+    private static final String[] COLUMNS = {"Visible", "Layer"};
+
+    private final MapService mapService;
+    private final TileMapRenderer tileMapRenderer;
+    private final DockableData dockableData;
+    private final DefaultTableModel layersModel;
+    private final WebTable layersTable;
+    private final WebComboBox isolationComboBox;
+
+    private boolean updatingRows;
+
+    public LayersView(MapService mapService, TileMapRenderer tileMapRenderer) {
+        this.mapService = mapService;
+        this.tileMapRenderer = tileMapRenderer;
+        dockableData = new DockableData("LayersView", "Layers", CompassDirection.east, this);
+
+        layersModel = new DefaultTableModel(COLUMNS, 0) {
+            @Override
+            public Class<?> getColumnClass(int column) {
+                return column == 0 ? Boolean.class : Integer.class;
+            }
+
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return column == 0;
+            }
+        };
+
+        layersTable = new WebTable(StyleId.table, layersModel);
+        layersTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        layersTable.getColumnModel().getColumn(0).setMaxWidth(64);
+
+        isolationComboBox = new WebComboBox(TileMapRenderer.LayerIsolation.values());
+        isolationComboBox.setSelectedItem(tileMapRenderer.getLayerIsolation());
+
+        layersModel.addTableModelListener(this::onLayerEdited);
+        layersTable.getSelectionModel().addListSelectionListener(event -> {
+            if (!event.getValueIsAdjusting()) {
+                onLayerSelected();
+            }
+        });
+        isolationComboBox.addActionListener(event -> tileMapRenderer.setLayerIsolation(
+                (TileMapRenderer.LayerIsolation) isolationComboBox.getSelectedItem()));
+
+        mapService.onMapChanged(this::onMapChanged);
+        tileMapRenderer.onGridLayerChanged(layer -> SwingUtilities.invokeLater(() -> selectLayer(layer)));
+        setLayout();
+    }
+
+    public void setLayout() {
+        Table table = new Table();
+        table.setPreferredSize(new Dimension(196, 256));
+
+        WebScrollPane layersScroll = new WebScrollPane(StyleId.scrollpaneUndecoratedButtonless, layersTable);
+        table.addCell(layersScroll).colspan(2).expand().fill();
+        table.row();
+        table.addCell(new WebLabel("Isolation:")).pad(4).left();
+        table.addCell(isolationComboBox).pad(4).expandX().fillX();
+
+        add(table);
+    }
+
+    private void onMapChanged(MapEvent event) {
+        if (event.isMapFresh() || event.isMapClosed()) {
+            updateRows();
+        }
+    }
+
+    /**
+     * One row per layer of the map, the top layer first
+     */
+    private void updateRows() {
+        updatingRows = true;
+        layersModel.setRowCount(0);
+
+        if (mapService.hasMap()) {
+            for (int layer = mapService.getMap().getDepth() - 1; layer >= 0; layer--) {
+                layersModel.addRow(new Object[]{tileMapRenderer.isLayerVisible(layer), layer});
+            }
+
+            // clamps the active layer to the layers of the fresh map so there always is a row to select
+            tileMapRenderer.setGridLayer(tileMapRenderer.getGridLayer());
+            selectLayer(tileMapRenderer.getGridLayer());
+        }
+
+        updatingRows = false;
+    }
+
+    private void selectLayer(int layer) {
+        int row = layersModel.getRowCount() - 1 - layer;
+        if (row < 0 || row >= layersModel.getRowCount() || row == layersTable.getSelectedRow()) {
+            return;
+        }
+
+        boolean updating = updatingRows;
+        updatingRows = true;
+        layersTable.setRowSelectionInterval(row, row);
+        layersTable.scrollRectToVisible(layersTable.getCellRect(row, 0, true));
+        updatingRows = updating;
+    }
+
+    private void onLayerEdited(TableModelEvent event) {
+        if (updatingRows || event.getType() != TableModelEvent.UPDATE || event.getColumn() != 0) {
+            return;
+        }
+
+        for (int row = event.getFirstRow(); row <= event.getLastRow() && row < layersModel.getRowCount(); row++) {
+            int layer = (Integer) layersModel.getValueAt(row, 1);
+            tileMapRenderer.setLayerVisible(layer, (Boolean) layersModel.getValueAt(row, 0));
+        }
+    }
+
+    private void onLayerSelected() {
+        int row = layersTable.getSelectedRow();
+        if (updatingRows || row < 0) {
+            return;
+        }
+
+        tileMapRenderer.setGridLayer((Integer) layersModel.getValueAt(row, 1));
+    }
+
+    @Override
+    public DockableData getData() {
+        return dockableData;
+    }
+}
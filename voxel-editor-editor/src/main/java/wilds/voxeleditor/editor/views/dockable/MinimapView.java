@@ -0,0 +1,100 @@
+package wilds.voxeleditor.editor.views.dockable;
+
+import wilds.voxeleditor.core.renderer.MinimapCache;
+import wilds.voxeleditor.core.services.MapService;
+import wilds.voxeleditor.core.services.TilesetService;
+import wilds.voxeleditor.editor.models.DockableData;
+import wilds.voxeleditor.editor.views.tablelayout.swing.Table;
+
+import com.alee.api.data.CompassDirection;
+import com.alee.laf.panel.WebPanel;
+import rx.Subscription;
+
+import javax.swing.JComponent;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Shows a top down overview of the map, scaled to fit the panel. The image is kept up to date by a MinimapCache
+ * that only rescans the tile columns touched by a change.
+ */
+public class MinimapView extends WebPanel implements IDockable {
+
+    private final MinimapCache minimapCache;
+    private final DockableData dockableData;
+    private final MinimapComponent minimapComponent;
+
+    private Subscription minimapSubscription;
+
+    public MinimapView(MapService mapService, TilesetService tilesetService) {
+        minimapCache = new MinimapCache(mapService, tilesetService);
+        dockableData = new DockableData("MinimapView", "Minimap", CompassDirection.east, this);
+        minimapComponent = new MinimapComponent();
+
+        setLayout();
+    }
+
+    public void setLayout() {
+        Table table = new Table();
+        table.setPreferredSize(new Dimension(256, 256));
+        table.addCell(minimapComponent).expand().fill();
+
+        add(table);
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+
+        // repaint may be called from any thread, repaints are merged on the event dispatch thread
+        minimapSubscription = minimapCache.onMinimapChanged(region -> minimapComponent.repaint());
+    }
+
+    @Override
+    public void removeNotify() {
+        if (minimapSubscription != null) {
+            minimapSubscription.unsubscribe();
+            minimapSubscription = null;
+        }
+
+        super.removeNotify();
+    }
+
+    public MinimapCache getMinimapCache() {
+        return minimapCache;
+    }
+
+    @Override
+    public DockableData getData() {
+        return dockableData;
+    }
+
+    private class MinimapComponent extends JComponent {
+
+        @Override
+        protected void paintComponent(Graphics graphics) {
+            super.paintComponent(graphics);
+
+            BufferedImage image = minimapCache.getImage();
+            if (image == null) {
+                return;
+            }
+
+            float scale = Math.min((float) getWidth() / image.getWidth(), (float) getHeight() / image.getHeight());
+            int width = Math.max(1, (int) (image.getWidth() * scale));
+            int height = Math.max(1, (int) (image.getHeight() * scale));
+            int x = (getWidth() - width) / 2;
+            int y = (getHeight() - height) / 2;
+
+            Graphics2D graphics2D = (Graphics2D) graphics;
+            graphics2D.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                    RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            graphics2D.drawImage(image, x, y, width, height, null);
+        }
+    }
+}
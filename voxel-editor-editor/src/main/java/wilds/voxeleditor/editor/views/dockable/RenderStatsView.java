@@ -0,0 +1,168 @@
+package wilds.voxeleditor.editor.views.dockable;
+
+import wilds.voxeleditor.core.renderer.RenderProfiler;
+import wilds.voxeleditor.editor.models.DockableData;
+import wilds.voxeleditor.editor.models.ToolBarElement;
+import wilds.voxeleditor.editor.views.ToolBarView;
+import wilds.voxeleditor.editor.views.tablelayout.swing.Table;
+
+import com.alee.api.data.CompassDirection;
+import com.alee.laf.filechooser.WebFileChooser;
+import com.alee.laf.panel.WebPanel;
+import com.alee.laf.scroll.WebScrollPane;
+import com.alee.laf.table.WebTable;
+import com.alee.laf.toolbar.WebToolBar;
+import com.alee.managers.style.StyleId;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.swing.JFileChooser;
+import javax.swing.Timer;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import javax.swing.table.DefaultTableModel;
+import java.awt.Dimension;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * @since 18-10-2026
+ * <p>
+ * Shows the last frame and the rolling percentiles of every render profiler metric,
+ * the recorded frames can be exported to a CSV file.
+ */
+public class RenderStatsView extends WebPanel implements IDockable {
+
+    private static final Logger LOGGER = LogManager.getLogger(RenderStatsView.class);
+
+    private static final int REFRESH_INTERVAL = 500;
+    private static final double[] PERCENTILES = {50, 95, 99};
+    private static final String[] COLUMNS = {"Metric", "Last", "p50", "p95", "p99", "Max"};
+
+    private final RenderProfiler profiler;
+    private final ToolBarView toolBarView;
+    private final DefaultTableModel statsModel;
+    private final WebTable statsTable;
+    private final Timer refreshTimer;
+    private final DockableData dockableData;
+
+    private WebFileChooser fileChooser;
+
+    public RenderStatsView(RenderProfiler profiler) {
+        this.profiler = profiler;
+        dockableData = new DockableData("RenderStatsView", "Render statistics", CompassDirection.south, this);
+        toolBarView = new ToolBarView(StyleId.toolbarUndecorated, WebToolBar.HORIZONTAL);
+
+        statsModel = new DefaultTableModel(COLUMNS, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+
+        for (RenderProfiler.Metric metric : RenderProfiler.Metric.values()) {
+            String description = metric.getUnit().isEmpty() ? metric.getDescription() :
+                    String.format("%s (%s)", metric.getDescription(), metric.getUnit());
+            statsModel.addRow(new Object[]{description, "", "", "", "", ""});
+        }
+
+        statsTable = new WebTable(StyleId.table, statsModel);
+
+        fileChooser = new WebFileChooser();
+        fileChooser.setMultiSelectionEnabled(false);
+        fileChooser.setAcceptAllFileFilterUsed(false);
+        fileChooser.setFileSelectionMode(JFileChooser.FILES_ONLY);
+        fileChooser.setFileFilter(new FileNameExtensionFilter("Comma separated values(.csv)", "csv"));
+
+        // the profiler is written on the render thread, the timer reads it on the event dispatch thread
+        refreshTimer = new Timer(REFRESH_INTERVAL, event -> refreshStats());
+
+        setLayout();
+    }
+
+    public void setLayout() {
+        toolBarView.initialize(16, Arrays.asList(ToolBarElement.ExportRenderStats, ToolBarElement.ClearRenderStats));
+        toolBarView.setToolbarListener(this::onHandleToolbar);
+
+        Table table = new Table();
+        table.setPreferredSize(new Dimension(352, 196));
+
+        WebScrollPane statsScroll = new WebScrollPane(StyleId.scrollpaneUndecoratedButtonless, statsTable);
+        table.addCell(statsScroll).expand().fill();
+        table.row();
+        table.addCell(toolBarView).maxHeight(32).fill();
+
+        add(table);
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        refreshTimer.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        refreshTimer.stop();
+        super.removeNotify();
+    }
+
+    private void refreshStats() {
+        if (!isShowing()) {
+            return;
+        }
+
+        for (RenderProfiler.Metric metric : RenderProfiler.Metric.values()) {
+            int row = metric.ordinal();
+            long[] percentiles = profiler.getPercentiles(metric, PERCENTILES);
+
+            statsModel.setValueAt(formatValue(metric, profiler.getLast(metric)), row, 1);
+            for (int i = 0; i < percentiles.length; i++) {
+                statsModel.setValueAt(formatValue(metric, percentiles[i]), row, i + 2);
+            }
+            statsModel.setValueAt(formatValue(metric, profiler.getMax(metric)), row, 5);
+        }
+    }
+
+    private static String formatValue(RenderProfiler.Metric metric, long value) {
+        if (metric.getUnit().isEmpty()) {
+            return Long.toString(value);
+        }
+
+        return String.format("%.2f", metric.scale(value));
+    }
+
+    private void onHandleToolbar(ToolBarElement element) {
+        switch (element) {
+            case ExportRenderStats:
+                exportStats();
+                break;
+            case ClearRenderStats:
+                profiler.clear();
+                refreshStats();
+                break;
+        }
+    }
+
+    private void exportStats() {
+        fileChooser.setSelectedFile(new File("render-stats.csv"));
+
+        int returnValue = fileChooser.showSaveDialog(this);
+        if (returnValue == WebFileChooser.APPROVE_OPTION) {
+            File file = fileChooser.getSelectedFile();
+
+            try {
+                profiler.exportCsv(file.toPath());
+                LOGGER.info(String.format("Exported %s frames of render statistics to %s",
+                        profiler.getSampleCount(), file));
+            } catch (IOException e) {
+                LOGGER.error(String.format("Could not export render statistics to %s: %s", file, e.getMessage()));
+            }
+        }
+    }
+
+    @Override
+    public DockableData getData() {
+        return dockableData;
+    }
+}